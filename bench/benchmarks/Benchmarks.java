@@ -0,0 +1,199 @@
+package benchmarks;
+
+import application.CourseService;
+import application.ReferenceDataCache;
+import domain.Student;
+import infrastructure.PasswordUtil;
+import infrastructure.PreloadedCreditsResolver;
+import infrastructure.WeightedGradeCalculator;
+import persistence.Columns;
+import persistence.DBConnection;
+import persistence.EnrollmentDAO;
+import persistence.StudentDAO;
+import presentation.ColumnarTableModel;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * مقاييس أداء المسارات الحرجة في طبقة البيانات والمنطق:
+ * تحميل التسجيلات (EnrollmentDAO.getAll/mapEnrollment) والمرور عليها كتدفق، قراءة أعمدة الربط العريض
+ * بالاسم مقابل الموقع المحلول مسبقًا ({@link Columns})، البحث عن الطلاب بالاسم،
+ * حساب المعدل المرجح، تجزئة كلمات المرور، وتعبئة جدول الطلاب كما في StudentGUI، وقراءة البيانات المرجعية
+ * عبر الذاكرة المؤقتة المشتركة.
+ *
+ * افتراضيًا تعمل على قاعدة بيانات في الذاكرة ({@link InMemoryDatabase}) لقياس التكلفة على جانب Java
+ * بثبات؛ ومع -Dbench.db=mysql تعمل على قاعدة MySQL المحددة في خصائص sms.db.* (بعد تعبئتها مسبقًا).
+ *
+ * التشغيل (بعد تجميع src إلى out وbench إلى bench-out):
+ * <pre>
+ * java -cp out:bench-out -Dbench.students=100000 benchmarks.Benchmarks
+ * </pre>
+ */
+public final class Benchmarks {
+
+    /** نفس استعلام EnrollmentDAO.getAll */
+    private static final String WIDE_JOIN_SQL =
+            "SELECT e.*, s.season, s.year, s.is_open, t.id AS teacher_id, t.name AS teacher_name, " +
+            "t.email AS teacher_email, t.gender AS teacher_gender, t.age AS teacher_age, " +
+            "t.department_id, t.salary, st.name AS student_name, st.email AS student_email, " +
+            "st.gender AS student_gender, st.age AS student_age, st.major, st.gpa, " +
+            "c.name AS course_name, c.department_id AS course_department " +
+            "FROM enrollment e " +
+            "JOIN semester s ON e.semester_id = s.id " +
+            "JOIN teacher t ON e.teacher_id = t.id " +
+            "JOIN student st ON e.student_id = st.id " +
+            "JOIN course c ON e.course_id = c.id";
+
+    /** الأعمدة التي يقرؤها EnrollmentDAO من كل صف */
+    private static final String[] WIDE_JOIN_COLUMNS = {
+            "student_id", "student_name", "student_email", "student_gender", "student_age", "major", "gpa",
+            "semester_id", "season", "year", "is_open",
+            "teacher_id", "teacher_name", "teacher_email", "teacher_gender", "teacher_age", "department_id", "salary",
+            "course_id", "course_name", "course_department", "grade"};
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String mode = System.getProperty("bench.db", "memory");
+        DataSource dataSource;
+        if ("mysql".equals(mode)) {
+            dataSource = DBConnection.getDataSource();
+        } else {
+            Dataset dataset = Dataset.fromSystemProperties();
+            System.out.printf("In-memory dataset: %d students, %d courses, %d teachers, %d enrollments%n",
+                    dataset.students.size(), dataset.courses.size(), dataset.teachers.size(),
+                    dataset.enrollments.size());
+            dataSource = dataset.toDatabase();
+        }
+
+        EnrollmentDAO enrollmentDAO = new EnrollmentDAO(dataSource);
+        StudentDAO studentDAO = new StudentDAO(dataSource);
+        CourseService courseService = new CourseService(dataSource);
+        WeightedGradeCalculator calculator =
+                new WeightedGradeCalculator(new PreloadedCreditsResolver(courseService));
+
+        List<Student> students = studentDAO.getAll();
+        int enrollmentCount = enrollmentDAO.getAll().size();
+        List<Student> withEnrollments = attachEnrollments(students, new EnrollmentIndex(enrollmentDAO.getAll()));
+
+        Harness harness = new Harness();
+        harness.printHeader();
+
+        harness.run("EnrollmentDAO.getAll (per row)", enrollmentCount, enrollmentDAO::getAll);
+        int pageSize = 200;
+        harness.run("EnrollmentDAO.getPage (first page)", 1, () -> enrollmentDAO.getPage(0, 0, pageSize));
+        harness.run("EnrollmentDAO.forEach (per row)", enrollmentCount, () -> {
+            double[] sum = {0};
+            enrollmentDAO.forEach(e -> sum[0] += e.getGrade());
+            return sum[0];
+        });
+
+        Columns wideColumns = new Columns(WIDE_JOIN_COLUMNS);
+        harness.run("Wide join cells by label (per row)", enrollmentCount,
+                () -> readWideJoin(dataSource, null));
+        harness.run("Wide join cells by index (per row)", enrollmentCount,
+                () -> readWideJoin(dataSource, wideColumns));
+
+        String[] terms = {"a", "Ali", "Haddad", "zzz"};
+        harness.run("StudentDAO.searchByName (per query)", terms.length, () -> {
+            int found = 0;
+            for (String term : terms) found += studentDAO.searchByName(term).size();
+            return found;
+        });
+
+        harness.run("WeightedGradeCalculator.calculateGPA", withEnrollments.size(), () -> {
+            double sum = 0;
+            for (Student s : withEnrollments) sum += calculator.calculateGPA(s);
+            return sum;
+        });
+
+        harness.run("CourseDAO.getAll (uncached)", 1, () -> {
+            ReferenceDataCache.of(dataSource).courses.invalidateAll();
+            return courseService.getAllCourses();
+        });
+        harness.run("CourseService.getAllCourses (cached)", 1, courseService::getAllCourses);
+        System.out.println(ReferenceDataCache.of(dataSource).courses.getStats());
+
+        int hashes = Integer.getInteger("bench.hashes", 10_000);
+        harness.run("PasswordUtil.hashPassword", hashes, () -> {
+            String last = null;
+            for (int i = 0; i < hashes; i++) last = PasswordUtil.hashPassword("password-" + i);
+            return last;
+        });
+
+        ColumnarTableModel model = studentTableModel();
+        harness.run("StudentGUI table fill (per row)", students.size(), () -> {
+            fillStudentTable(model, studentDAO.getAll());
+            return model.getRowCount();
+        });
+    }
+
+    /**
+     * قراءة كل أعمدة الربط العريض من كل صف: بالاسم في كل خلية (columns = null) أو بالمواقع
+     * المحلولة مرة واحدة للنتيجة، لعزل كلفة البحث عن الاسم عن إنشاء الكائنات.
+     */
+    private static int readWideJoin(DataSource dataSource, Columns columns) throws SQLException {
+        int cells = 0;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(WIDE_JOIN_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+            int[] col = null;
+            while (rs.next()) {
+                if (columns == null) {
+                    for (String label : WIDE_JOIN_COLUMNS) {
+                        if (rs.getObject(label) != null) cells++;
+                    }
+                } else {
+                    if (col == null) col = columns.resolve(rs);
+                    for (int index : col) {
+                        if (rs.getObject(index) != null) cells++;
+                    }
+                }
+            }
+        }
+        return cells;
+    }
+
+    private static List<Student> attachEnrollments(List<Student> students, EnrollmentIndex index) {
+        List<Student> result = new ArrayList<>(students.size());
+        for (Student s : students) {
+            s.setEnrollments(new ArrayList<>(index.byStudent(s.getId())));
+            result.add(s);
+        }
+        return result;
+    }
+
+    private static ColumnarTableModel studentTableModel() {
+        return new ColumnarTableModel(
+                ColumnarTableModel.intColumn("ID"),
+                ColumnarTableModel.stringColumn("Name"),
+                ColumnarTableModel.stringColumn("Email"),
+                ColumnarTableModel.stringColumn("Gender"),
+                ColumnarTableModel.intColumn("Age"),
+                ColumnarTableModel.stringColumn("Major"),
+                ColumnarTableModel.doubleColumn("GPA", "%.2f"));
+    }
+
+    /** نفس خطوات StudentGUI عند التحميل: بناء البيانات (المعدل من العمود المخزن) واستبدالها */
+    private static void fillStudentTable(ColumnarTableModel model, List<Student> students) {
+        ColumnarTableModel.Builder rows = model.newBuilder(students.size());
+        for (Student s : students) {
+            rows.addRow()
+                    .set(0, s.getId())
+                    .set(1, s.getName())
+                    .set(2, s.getEmail())
+                    .set(3, s.getGender())
+                    .set(4, s.getAge())
+                    .set(5, s.getMajor())
+                    .set(6, s.getGpa());
+        }
+        model.setData(rows.build());
+    }
+}
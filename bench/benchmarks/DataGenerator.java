@@ -0,0 +1,509 @@
+package benchmarks;
+
+import domain.Course;
+import domain.Department;
+import domain.Enrollment;
+import domain.Semester;
+import domain.Student;
+import domain.Teacher;
+import persistence.CourseDAO;
+import persistence.DBConnection;
+import persistence.DepartmentDAO;
+import persistence.EnrollmentDAO;
+import persistence.SemesterDAO;
+import persistence.StudentDAO;
+import persistence.TeacherDAO;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * مولد بيانات اصطناعية بحجم الإنتاج (10k/100k/1M طالب) لاختبارات التحميل والمقاييس.
+ *
+ * البيانات متسقة مرجعيًا وواقعية التوزيع:
+ * <ul>
+ *   <li>الأقسام بشعبية متفاوتة، وتخصص الطالب أحد الأقسام.</li>
+ *   <li>معلم كل مقرر من نفس قسم المقرر، ومعلم التسجيل هو معلم المقرر.</li>
+ *   <li>الساعات المعتمدة غالبًا 3 (وأحيانًا 1 أو 2 أو 4).</li>
+ *   <li>الدرجة = مستوى الطالب − صعوبة المقرر + ضوضاء حول متوسط 74، مع نسبة صغيرة من الرسوب الحاد.</li>
+ *   <li>معظم مقررات الطالب من قسم تخصصه، في فصول لاحقة لفصل التحاقه، دون تكرار نفس المقرر.</li>
+ *   <li>عمود gpa في جدول الطلاب محسوب من نفس الدرجات (متوسط مرجح بالساعات على مقياس 4).</li>
+ * </ul>
+ * نفس الإعدادات والبذرة تعطي نفس البيانات.
+ *
+ * الكتابة إلى قاعدة البيانات عبر مسارات الإدراج الجماعي في كائنات DAO (addAll)، على شرائح من الطلاب
+ * حتى لا تحتاج الأحجام الكبيرة إلى الاحتفاظ بكل البيانات في الذاكرة. كل شريحة (طلابها وتسجيلاتهم)
+ * تكتب في معاملة واحدة على اتصال واحد، فالفشل لا يترك طلابًا بلا تسجيلات:
+ * <pre>
+ * java -cp out:bench-out:mysql-connector-j.jar -Dsms.db.url=... benchmarks.DataGenerator 100k
+ * </pre>
+ */
+public final class DataGenerator {
+
+    /** أسماء الأقسام (نفس أقسام db/student_mgmt.sql) */
+    static final String[] DEPARTMENTS = {
+            "Computer Science", "Mathematics", "Physics", "Biology",
+            "Chemistry", "English", "History", "Economics"
+    };
+
+    /** شعبية كل قسم (نسبة الطلاب والمقررات والمعلمين) */
+    private static final double[] DEPARTMENT_WEIGHTS = {0.22, 0.10, 0.07, 0.12, 0.08, 0.10, 0.08, 0.23};
+
+    private static final int[] CREDITS = {1, 2, 3, 4};
+    private static final double[] CREDIT_WEIGHTS = {0.05, 0.15, 0.60, 0.20};
+
+    private static final String[] SEASONS = {"Fall", "Spring", "Summer"};
+
+    private static final String[] FIRST_NAMES = {
+            "Ahmad", "Omar", "Ali", "Sara", "Lina", "Yousef", "Maryam", "Khaled", "Noor", "Hadi",
+            "Rana", "Tariq", "Huda", "Sami", "Dana", "Fadi", "Layla", "Karim", "Reem", "Zaid",
+            "Adam", "Hana", "Majd", "Salma", "Bilal", "Aya", "Jude", "Nadia", "Rami", "Tala"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "Haddad", "Nasser", "Khalil", "Saleh", "Mansour", "Darwish", "Hamdan", "Aziz",
+            "Qasem", "Shami", "Barakat", "Jaber", "Odeh", "Salem", "Hijazi", "Yaseen",
+            "Khoury", "Masri", "Awad", "Sabbagh"
+    };
+
+    /** نسبة التسجيلات ذات الدرجة المنخفضة جدًا (انسحاب أو غياب) */
+    private static final double FAILURE_RATE = 0.02;
+
+    /** نسبة مقررات الطالب من خارج قسم تخصصه */
+    private static final double ELECTIVE_RATE = 0.3;
+
+    /**
+     * إعدادات التوليد.
+     */
+    static final class Config {
+        final int students;
+        final int teachers;
+        final int courses;
+        final int semesters;
+        final int enrollmentsPerStudent;
+        final long seed;
+        final int chunkSize;
+
+        Config(int students, int teachers, int courses, int semesters,
+               int enrollmentsPerStudent, long seed, int chunkSize) {
+            if (students < 0 || teachers < 1 || courses < 1 || semesters < 1 || enrollmentsPerStudent < 1 || chunkSize < 1) {
+                throw new IllegalArgumentException("Invalid generator configuration");
+            }
+            this.students = students;
+            this.teachers = teachers;
+            this.courses = courses;
+            this.semesters = semesters;
+            this.enrollmentsPerStudent = enrollmentsPerStudent;
+            this.seed = seed;
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * إعدادات بحجم محدد مع نسب واقعية لعدد المعلمين والمقررات.
+         * @param scale عدد الطلاب: "10k" أو "100k" أو "1m" أو رقم صريح
+         * @return الإعدادات
+         */
+        static Config forScale(String scale) {
+            int students = parseScale(scale);
+            return new Config(students, Math.max(10, students / 25), Math.max(20, students / 20),
+                    12, 8, 42L, 10_000);
+        }
+
+        /**
+         * الإعدادات من خصائص النظام: bench.scale (الافتراضي 10k) مع إمكانية تجاوز كل قيمة عبر
+         * bench.students، bench.teachers، bench.courses، bench.semesters، bench.enrollmentsPerStudent، bench.seed.
+         * @return الإعدادات
+         */
+        static Config fromSystemProperties() {
+            Config base = forScale(System.getProperty("bench.scale", "10k"));
+            return new Config(Integer.getInteger("bench.students", base.students),
+                    Integer.getInteger("bench.teachers", base.teachers),
+                    Integer.getInteger("bench.courses", base.courses),
+                    Integer.getInteger("bench.semesters", base.semesters),
+                    Integer.getInteger("bench.enrollmentsPerStudent", base.enrollmentsPerStudent),
+                    Long.getLong("bench.seed", base.seed),
+                    Integer.getInteger("bench.chunkSize", base.chunkSize));
+        }
+
+        private static int parseScale(String scale) {
+            String s = scale.trim().toLowerCase(Locale.ROOT);
+            if (s.endsWith("k")) return Integer.parseInt(s.substring(0, s.length() - 1)) * 1_000;
+            if (s.endsWith("m")) return Integer.parseInt(s.substring(0, s.length() - 1)) * 1_000_000;
+            return Integer.parseInt(s);
+        }
+    }
+
+    /**
+     * وجهة البيانات المولدة. تستدعى الدوال بترتيب المفاتيح الأجنبية (الأقسام ثم الفصول ثم المعلمون
+     * ثم المقررات ثم شرائح الطلاب وتسجيلاتهم)، ويجب أن تعين كل دالة إضافة المعرف لكل كائن.
+     * كل شريحة تبدأ بـ beginChunk وتنتهي بـ commitChunk، أو rollbackChunk إذا فشلت.
+     */
+    interface Sink {
+        void departments(List<Department> departments) throws Exception;
+
+        void semesters(List<Semester> semesters) throws Exception;
+
+        void teachers(List<Teacher> teachers) throws Exception;
+
+        void courses(List<Course> courses) throws Exception;
+
+        void students(List<Student> students) throws Exception;
+
+        void enrollments(List<Enrollment> enrollments) throws Exception;
+
+        default void beginChunk() throws Exception {
+        }
+
+        default void commitChunk() throws Exception {
+        }
+
+        default void rollbackChunk() {
+        }
+    }
+
+    private final Config config;
+    private final Random random;
+
+    /**
+     * @param config إعدادات التوليد
+     */
+    DataGenerator(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+    }
+
+    /**
+     * توليد البيانات وإرسالها إلى الوجهة.
+     * @param sink الوجهة
+     * @throws Exception إذا فشلت الكتابة
+     */
+    void generate(Sink sink) throws Exception {
+        List<Department> departments = new ArrayList<>(DEPARTMENTS.length);
+        for (String name : DEPARTMENTS) departments.add(new Department(0, name));
+        sink.departments(departments);
+
+        List<Semester> semesters = new ArrayList<>(config.semesters);
+        int startYear = 2025 - (config.semesters + 2) / SEASONS.length;
+        for (int i = 0; i < config.semesters; i++) {
+            // Fall سنة Y ثم Spring وSummer من السنة التالية
+            int year = startYear + (i + 2) / SEASONS.length;
+            semesters.add(new Semester(SEASONS[i % SEASONS.length], year, i == config.semesters - 1));
+        }
+        sink.semesters(semesters);
+
+        List<Teacher> teachers = new ArrayList<>(config.teachers);
+        List<List<Teacher>> teachersByDepartment = groups(DEPARTMENTS.length);
+        for (int i = 0; i < config.teachers; i++) {
+            int d = pick(DEPARTMENT_WEIGHTS);
+            String name = personName();
+            Teacher t = new Teacher(0, name, email(name, i + 1, "staff"), gender(),
+                    clamp((int) Math.round(45 + random.nextGaussian() * 9), 26, 70),
+                    departments.get(d).getId(),
+                    Math.max(2500, Math.round((5500 + random.nextGaussian() * 1200) / 50) * 50));
+            teachers.add(t);
+            teachersByDepartment.get(d).add(t);
+        }
+        sink.teachers(teachers);
+
+        List<Course> courses = new ArrayList<>(config.courses);
+        List<Teacher> courseTeachers = new ArrayList<>(config.courses);
+        double[] difficulty = new double[config.courses];
+        List<List<Integer>> coursesByDepartment = groups(DEPARTMENTS.length);
+        int[] courseNumbers = new int[DEPARTMENTS.length];
+        for (int i = 0; i < config.courses; i++) {
+            int d = pick(DEPARTMENT_WEIGHTS);
+            List<Teacher> pool = teachersByDepartment.get(d).isEmpty() ? teachers : teachersByDepartment.get(d);
+            Teacher teacher = pool.get(random.nextInt(pool.size()));
+            int number = 101 + courseNumbers[d]++;
+            courses.add(new Course(DEPARTMENTS[d] + " " + number, "Generated course " + number,
+                    CREDITS[pick(CREDIT_WEIGHTS)], teacher.getId(), departments.get(d).getId()));
+            courseTeachers.add(teacher);
+            difficulty[i] = random.nextGaussian() * 6;
+            coursesByDepartment.get(d).add(i);
+        }
+        sink.courses(courses);
+
+        int perStudentMax = Math.min(config.courses, Math.max(1, 2 * config.enrollmentsPerStudent - 4));
+        int perStudentMin = Math.min(perStudentMax, Math.max(1, config.enrollmentsPerStudent / 2));
+        int[] chosen = new int[perStudentMax];
+
+        for (int first = 0; first < config.students; first += config.chunkSize) {
+            int count = Math.min(config.chunkSize, config.students - first);
+            List<Student> students = new ArrayList<>(count);
+            List<int[]> plannedCourses = new ArrayList<>(count);
+            List<int[]> plannedSemesters = new ArrayList<>(count);
+            List<double[]> plannedGrades = new ArrayList<>(count);
+
+            for (int s = 0; s < count; s++) {
+                int major = pick(DEPARTMENT_WEIGHTS);
+                double ability = random.nextGaussian() * 8;
+                int cohort = random.nextInt(config.semesters);
+                int k = perStudentMin + random.nextInt(perStudentMax - perStudentMin + 1);
+
+                int n = 0;
+                int attempts = 0;
+                while (n < k && attempts++ < k * 20) {
+                    List<Integer> pool = coursesByDepartment.get(major);
+                    int c = pool.isEmpty() || random.nextDouble() < ELECTIVE_RATE
+                            ? random.nextInt(config.courses)
+                            : pool.get(random.nextInt(pool.size()));
+                    if (!contains(chosen, n, c)) chosen[n++] = c;
+                }
+
+                int[] courseIdx = new int[n];
+                int[] semesterIdx = new int[n];
+                double[] grades = new double[n];
+                double points = 0;
+                double credits = 0;
+                for (int e = 0; e < n; e++) {
+                    courseIdx[e] = chosen[e];
+                    semesterIdx[e] = cohort + random.nextInt(config.semesters - cohort);
+                    grades[e] = grade(ability, difficulty[chosen[e]]);
+                    int cr = courses.get(chosen[e]).getCredits();
+                    points += grades[e] / 100.0 * 4.0 * cr;
+                    credits += cr;
+                }
+                double gpa = credits == 0 ? 0 : Math.round(points / credits * 100) / 100.0;
+
+                String name = personName();
+                students.add(new Student(0, name, email(name, first + s + 1, "students"), gender(),
+                        clamp(18 + (int) Math.abs(Math.round(random.nextGaussian() * 3)), 18, 35),
+                        DEPARTMENTS[major], gpa));
+                plannedCourses.add(courseIdx);
+                plannedSemesters.add(semesterIdx);
+                plannedGrades.add(grades);
+            }
+            // الشريحة كاملة أو لا شيء: الفشل لا يترك طلابًا مثبتين بلا تسجيلات
+            sink.beginChunk();
+            try {
+                sink.students(students);
+
+                List<Enrollment> enrollments = new ArrayList<>(count * config.enrollmentsPerStudent);
+                for (int s = 0; s < count; s++) {
+                    int[] courseIdx = plannedCourses.get(s);
+                    for (int e = 0; e < courseIdx.length; e++) {
+                        enrollments.add(new Enrollment(students.get(s), courses.get(courseIdx[e]),
+                                courseTeachers.get(courseIdx[e]), plannedGrades.get(s)[e],
+                                semesters.get(plannedSemesters.get(s)[e])));
+                    }
+                }
+                sink.enrollments(enrollments);
+                sink.commitChunk();
+            } catch (Exception | Error e) {
+                sink.rollbackChunk();
+                throw e;
+            }
+        }
+    }
+
+    private double grade(double ability, double difficulty) {
+        if (random.nextDouble() < FAILURE_RATE) return random.nextInt(35);
+        double g = 74 + ability - difficulty + random.nextGaussian() * 9;
+        return Math.max(0, Math.min(100, Math.round(g)));
+    }
+
+    private int pick(double[] weights) {
+        double x = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            x -= weights[i];
+            if (x < 0) return i;
+        }
+        return weights.length - 1;
+    }
+
+    private String personName() {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    private String gender() {
+        return random.nextBoolean() ? "Male" : "Female";
+    }
+
+    private static String email(String name, int sequence, String domain) {
+        return name.toLowerCase(Locale.ROOT).replace(' ', '.') + sequence + "@" + domain + ".example.edu";
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+
+    private static <T> List<List<T>> groups(int count) {
+        List<List<T>> groups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) groups.add(new ArrayList<>());
+        return groups;
+    }
+
+    /**
+     * وجهة تكتب البيانات في قاعدة البيانات عبر مسارات الإدراج الجماعي (addAll) في كائنات DAO.
+     * الأقسام الموجودة مسبقًا (بنفس الاسم) يعاد استخدامها بدل تكرارها.
+     */
+    static final class DatabaseSink implements Sink {
+        private final DepartmentDAO departmentDAO;
+        private final SemesterDAO semesterDAO;
+        private final TeacherDAO teacherDAO;
+        private final CourseDAO courseDAO;
+        private final DataSource dataSource;
+
+        /** اتصال الشريحة الحالية وكائنات DAO التي تكتب عليه */
+        private Connection chunkConnection;
+        private StudentDAO studentDAO;
+        private EnrollmentDAO enrollmentDAO;
+        private final int totalStudents;
+        private final long started = System.nanoTime();
+        private int writtenStudents;
+        private long writtenEnrollments;
+
+        DatabaseSink(DataSource dataSource, int totalStudents) {
+            this.departmentDAO = new DepartmentDAO(dataSource);
+            this.semesterDAO = new SemesterDAO(dataSource);
+            this.teacherDAO = new TeacherDAO(dataSource);
+            this.courseDAO = new CourseDAO(dataSource);
+            this.dataSource = dataSource;
+            this.totalStudents = totalStudents;
+        }
+
+        @Override
+        public void departments(List<Department> departments) throws Exception {
+            Map<String, Integer> existing = new HashMap<>();
+            for (Department d : departmentDAO.getAll()) existing.put(d.getName(), d.getId());
+            List<Department> missing = new ArrayList<>();
+            for (Department d : departments) {
+                Integer id = existing.get(d.getName());
+                if (id != null) d.setId(id);
+                else missing.add(d);
+            }
+            departmentDAO.addAll(missing);
+        }
+
+        @Override
+        public void semesters(List<Semester> semesters) throws Exception {
+            semesterDAO.addAll(semesters);
+        }
+
+        @Override
+        public void teachers(List<Teacher> teachers) throws Exception {
+            teacherDAO.addAll(teachers);
+        }
+
+        @Override
+        public void courses(List<Course> courses) throws Exception {
+            courseDAO.addAll(courses);
+        }
+
+        @Override
+        public void beginChunk() throws Exception {
+            chunkConnection = dataSource.getConnection();
+            chunkConnection.setAutoCommit(false);
+            DataSource chunkSource = singleTransaction(chunkConnection);
+            studentDAO = new StudentDAO(chunkSource);
+            enrollmentDAO = new EnrollmentDAO(chunkSource);
+        }
+
+        @Override
+        public void commitChunk() throws Exception {
+            try {
+                chunkConnection.commit();
+            } finally {
+                closeChunk();
+            }
+        }
+
+        @Override
+        public void rollbackChunk() {
+            if (chunkConnection == null) return;
+            try {
+                chunkConnection.rollback();
+            } catch (SQLException ignored) {
+                // الاستثناء الأصلي أهم؛ الاتصال يغلق على أي حال
+            } finally {
+                closeChunk();
+            }
+        }
+
+        private void closeChunk() {
+            try {
+                chunkConnection.setAutoCommit(true);
+                chunkConnection.close();
+            } catch (SQLException ignored) {
+            }
+            chunkConnection = null;
+            studentDAO = null;
+            enrollmentDAO = null;
+        }
+
+        /**
+         * مصدر اتصالات يعيد نفس الاتصال دائمًا ضمن معاملة الشريحة: الإغلاق والتثبيت وتغيير
+         * autoCommit من داخل addAll لا تنفذ، فتصبح كتابات الطلاب والتسجيلات معاملة واحدة
+         * تثبت في commitChunk.
+         */
+        private static DataSource singleTransaction(Connection connection) {
+            Connection shared = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                            case "commit":
+                            case "setAutoCommit":
+                                return null;
+                            case "getAutoCommit":
+                                return false;
+                            default:
+                                try {
+                                    return method.invoke(connection, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    });
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                    new Class<?>[]{DataSource.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("getConnection")) return shared;
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+
+        @Override
+        public void students(List<Student> students) throws Exception {
+            studentDAO.addAll(students);
+            writtenStudents += students.size();
+        }
+
+        @Override
+        public void enrollments(List<Enrollment> enrollments) throws Exception {
+            enrollmentDAO.addAll(enrollments);
+            writtenEnrollments += enrollments.size();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf(Locale.ROOT, "students %,d/%,d  enrollments %,d  (%.1f s, %,.0f rows/s)%n",
+                    writtenStudents, totalStudents, writtenEnrollments, seconds,
+                    (writtenStudents + writtenEnrollments) / Math.max(seconds, 1e-9));
+        }
+    }
+
+    /**
+     * توليد البيانات وكتابتها في قاعدة البيانات المحددة بخصائص sms.db.*.
+     * @param args الحجم (10k أو 100k أو 1m أو عدد الطلاب)؛ الافتراضي bench.scale أو 10k
+     * @throws Exception إذا فشلت الكتابة
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) System.setProperty("bench.scale", args[0]);
+        Config config = Config.fromSystemProperties();
+        System.out.printf(Locale.ROOT, "Generating %,d students, %,d teachers, %,d courses, %d semesters (seed %d)%n",
+                config.students, config.teachers, config.courses, config.semesters, config.seed);
+        new DataGenerator(config).generate(new DatabaseSink(DBConnection.getDataSource(), config.students));
+    }
+}
@@ -0,0 +1,257 @@
+package benchmarks;
+
+import domain.Course;
+import domain.Department;
+import domain.Enrollment;
+import domain.Semester;
+import domain.Student;
+import domain.Teacher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * بيانات مولدة لقياس الأداء محفوظة في الذاكرة كصفوف جداول، تنتجها {@link DataGenerator}
+ * (نفس التوزيعات والاتساق المرجعي المستخدمة لتعبئة قاعدة البيانات). المعرفات تسلسلية من 1
+ * كما في AUTO_INCREMENT.
+ *
+ * الأحجام قابلة للتعديل عبر خصائص النظام (انظر {@link DataGenerator.Config#fromSystemProperties()}).
+ */
+final class Dataset implements DataGenerator.Sink {
+
+    static final String[] STUDENT_COLUMNS = {"id", "name", "email", "gender", "age", "major", "gpa"};
+    static final String[] TEACHER_COLUMNS = {"id", "name", "email", "gender", "age", "salary", "department_id"};
+    static final String[] COURSE_COLUMNS = {"id", "name", "description", "credits", "teacher_id", "department_id"};
+    static final String[] SEMESTER_COLUMNS = {"id", "is_open", "season", "year"};
+    static final String[] DEPARTMENT_COLUMNS = {"id", "name"};
+    static final String[] ENROLLMENT_COLUMNS = {"student_id", "course_id", "semester_id", "grade", "teacher_id"};
+
+    /** أعمدة استعلام التسجيلات مع التفاصيل (نفس ترتيب SELECT في EnrollmentDAO) */
+    static final String[] ENROLLMENT_DETAIL_COLUMNS = {
+            "student_id", "course_id", "semester_id", "grade", "teacher_id",
+            "season", "year", "is_open",
+            "teacher_id", "teacher_name", "teacher_email", "teacher_gender", "teacher_age",
+            "department_id", "salary",
+            "student_name", "student_email", "student_gender", "student_age", "major", "gpa",
+            "course_name", "course_department"
+    };
+
+    final List<Object[]> departments = new ArrayList<>();
+    final List<Object[]> students = new ArrayList<>();
+    final List<Object[]> teachers = new ArrayList<>();
+    final List<Object[]> courses = new ArrayList<>();
+    final List<Object[]> semesters = new ArrayList<>();
+    final List<Object[]> enrollments = new ArrayList<>();
+
+    /**
+     * توليد البيانات بالأحجام المحددة في خصائص النظام.
+     * @return البيانات المولدة
+     * @throws Exception إذا فشل التوليد
+     */
+    static Dataset fromSystemProperties() throws Exception {
+        return generate(DataGenerator.Config.fromSystemProperties());
+    }
+
+    /**
+     * توليد البيانات.
+     * @param config إعدادات التوليد
+     * @return البيانات المولدة
+     * @throws Exception إذا فشل التوليد
+     */
+    static Dataset generate(DataGenerator.Config config) throws Exception {
+        Dataset d = new Dataset();
+        new DataGenerator(config).generate(d);
+        return d;
+    }
+
+    @Override
+    public void departments(List<Department> list) {
+        for (Department x : list) {
+            x.setId(departments.size() + 1);
+            departments.add(new Object[]{x.getId(), x.getName()});
+        }
+    }
+
+    @Override
+    public void semesters(List<Semester> list) {
+        for (Semester x : list) {
+            x.setId(semesters.size() + 1);
+            semesters.add(new Object[]{x.getId(), x.isOpen(), x.getSeason(), x.getYear()});
+        }
+    }
+
+    @Override
+    public void teachers(List<Teacher> list) {
+        for (Teacher x : list) {
+            x.setId(teachers.size() + 1);
+            teachers.add(new Object[]{x.getId(), x.getName(), x.getEmail(), x.getGender(), x.getAge(),
+                    x.getSalary(), x.getDepartmentId()});
+        }
+    }
+
+    @Override
+    public void courses(List<Course> list) {
+        for (Course x : list) {
+            x.setId(courses.size() + 1);
+            courses.add(new Object[]{x.getId(), x.getName(), x.getDescription(), x.getCredits(),
+                    x.getTeacherId(), x.getDepartmentId()});
+        }
+    }
+
+    @Override
+    public void students(List<Student> list) {
+        for (Student x : list) {
+            x.setId(students.size() + 1);
+            students.add(new Object[]{x.getId(), x.getName(), x.getEmail(), x.getGender(), x.getAge(),
+                    x.getMajor(), x.getGpa()});
+        }
+    }
+
+    @Override
+    public void enrollments(List<Enrollment> list) {
+        for (Enrollment x : list) {
+            enrollments.add(new Object[]{x.getStudentId(), x.getCourseId(), x.getSemester().getId(),
+                    x.getGrade(), x.getTeacher().getId()});
+        }
+    }
+
+    /**
+     * إنشاء قاعدة بيانات في الذاكرة تجيب على استعلامات كائنات DAO من هذه البيانات.
+     * @return مصدر بيانات JDBC
+     */
+    InMemoryDatabase toDatabase() {
+        InMemoryDatabase db = new InMemoryDatabase();
+        List<Object[]> details = enrollmentDetails();
+
+        db.register("WHERE e.student_id = ? AND e.course_id = ?", params -> {
+            List<Object[]> rows = new ArrayList<>(1);
+            for (Object[] row : details) {
+                if (row[0].equals(params[0]) && row[1].equals(params[1])) {
+                    rows.add(row);
+                    break;
+                }
+            }
+            return new InMemoryDatabase.Result(ENROLLMENT_DETAIL_COLUMNS, rows);
+        });
+        List<Object[]> byKey = new ArrayList<>(details);
+        byKey.sort(Comparator.<Object[]>comparingInt(row -> (Integer) row[0]).thenComparingInt(row -> (Integer) row[1]));
+        db.register("WHERE e.student_id > ? OR (e.student_id = ? AND e.course_id > ?)", params ->
+                new InMemoryDatabase.Result(ENROLLMENT_DETAIL_COLUMNS,
+                        pageAfter(byKey, (Integer) params[0], (Integer) params[2], (Integer) params[3])));
+        db.register("JOIN course c ON e.course_id = c.id",
+                params -> new InMemoryDatabase.Result(ENROLLMENT_DETAIL_COLUMNS, details));
+
+        // نتائج البحث تحفظ لكل نمط حتى لا تقاس تكلفة التصفية داخل القاعدة الوهمية
+        Map<Object, InMemoryDatabase.Result> searches = new HashMap<>();
+        db.register("FROM student WHERE name LIKE ?", params ->
+                searches.computeIfAbsent(params[0], pattern -> new InMemoryDatabase.Result(STUDENT_COLUMNS,
+                        like(students, 1, (String) pattern))));
+        db.register("FROM student WHERE id > ?", params -> new InMemoryDatabase.Result(STUDENT_COLUMNS,
+                pageAfter(students, (Integer) params[0], Integer.MAX_VALUE, (Integer) params[1])));
+        db.register("FROM student", params -> new InMemoryDatabase.Result(STUDENT_COLUMNS, students));
+        db.register("SELECT id, credits FROM course", params -> {
+            List<Object[]> rows = new ArrayList<>(courses.size());
+            for (Object[] c : courses) rows.add(new Object[]{c[0], c[3]});
+            return new InMemoryDatabase.Result(new String[]{"id", "credits"}, rows);
+        });
+        InMemoryDatabase.Result coursesWithNames = coursesWithNames();
+        db.register("AS teacher_name", params -> coursesWithNames);
+        InMemoryDatabase.Result teachersWithDepartment = teachersWithDepartment();
+        db.register("FROM teacher t JOIN department d", params -> teachersWithDepartment);
+        db.register("FROM course", params -> new InMemoryDatabase.Result(COURSE_COLUMNS, courses));
+        db.register("FROM teacher", params -> new InMemoryDatabase.Result(TEACHER_COLUMNS, teachers));
+        db.register("FROM semester", params -> new InMemoryDatabase.Result(SEMESTER_COLUMNS, semesters));
+        db.register("FROM department", params -> new InMemoryDatabase.Result(DEPARTMENT_COLUMNS, departments));
+
+        InMemoryDatabase.Query noRows = params -> new InMemoryDatabase.Result(new String[0], List.of());
+        db.register("INSERT INTO", noRows);
+        db.register("UPDATE ", noRows);
+        db.register("DELETE FROM", noRows);
+        return db;
+    }
+
+    /**
+     * @return صفوف المقررات مع teacher_name وdepartment_name (نتيجة الـ JOIN في CourseDAO)
+     */
+    InMemoryDatabase.Result coursesWithNames() {
+        String[] columns = Arrays.copyOf(COURSE_COLUMNS, COURSE_COLUMNS.length + 2);
+        columns[COURSE_COLUMNS.length] = "teacher_name";
+        columns[COURSE_COLUMNS.length + 1] = "department_name";
+        List<Object[]> rows = new ArrayList<>(courses.size());
+        for (Object[] c : courses) {
+            Object[] row = Arrays.copyOf(c, c.length + 2);
+            row[c.length] = teachers.get((Integer) c[4] - 1)[1];
+            row[c.length + 1] = departments.get((Integer) c[5] - 1)[1];
+            rows.add(row);
+        }
+        return new InMemoryDatabase.Result(columns, rows);
+    }
+
+    /**
+     * @return صفوف المعلمين مع department_name (نتيجة الـ JOIN في TeacherDAO)
+     */
+    InMemoryDatabase.Result teachersWithDepartment() {
+        String[] columns = Arrays.copyOf(TEACHER_COLUMNS, TEACHER_COLUMNS.length + 1);
+        columns[TEACHER_COLUMNS.length] = "department_name";
+        List<Object[]> rows = new ArrayList<>(teachers.size());
+        for (Object[] t : teachers) {
+            Object[] row = Arrays.copyOf(t, t.length + 1);
+            row[t.length] = departments.get((Integer) t[6] - 1)[1];
+            rows.add(row);
+        }
+        return new InMemoryDatabase.Result(columns, rows);
+    }
+
+    /**
+     * @return صفوف التسجيلات مع تفاصيل الطالب والمقرر والمعلم والفصل (نتيجة الـ JOIN)
+     */
+    List<Object[]> enrollmentDetails() {
+        List<Object[]> rows = new ArrayList<>(enrollments.size());
+        for (Object[] e : enrollments) {
+            Object[] st = students.get((Integer) e[0] - 1);
+            Object[] c = courses.get((Integer) e[1] - 1);
+            Object[] sem = semesters.get((Integer) e[2] - 1);
+            Object[] t = teachers.get((Integer) e[4] - 1);
+            rows.add(new Object[]{
+                    e[0], e[1], e[2], e[3], e[4],
+                    sem[2], sem[3], sem[1],
+                    t[0], t[1], t[2], t[3], t[4], t[6], t[5],
+                    st[1], st[2], st[3], st[4], st[5], st[6],
+                    c[1], c[5]
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * صفحة بطريقة البحث بالمفتاح من صفوف مرتبة حسب (العمود 0، العمود 1): الصفوف التي مفتاحها
+     * بعد (first, second)، بحد أقصى limit صف. مع second = MAX_VALUE يكون المفتاح العمود 0 وحده.
+     */
+    private static List<Object[]> pageAfter(List<Object[]> sorted, int first, int second, int limit) {
+        int lo = 0, hi = sorted.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            Object[] row = sorted.get(mid);
+            int a = (Integer) row[0];
+            boolean after = a > first
+                    || (a == first && second != Integer.MAX_VALUE && (Integer) row[1] > second);
+            if (after) hi = mid; else lo = mid + 1;
+        }
+        return sorted.subList(lo, Math.min(sorted.size(), lo + limit));
+    }
+
+    private static List<Object[]> like(List<Object[]> rows, int column, String pattern) {
+        String needle = pattern.replace("%", "").toLowerCase(Locale.ROOT);
+        List<Object[]> result = new ArrayList<>();
+        for (Object[] row : rows) {
+            Object v = row[column];
+            if (v != null && v.toString().toLowerCase(Locale.ROOT).contains(needle)) result.add(row);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package benchmarks;
+
+import domain.Enrollment;
+import domain.Semester;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * فهرس للتسجيلات مجمّع حسب معرف الطالب ومعرف المقرر ومعرف الفصل الدراسي.
+ *
+ * يُبنى مرة واحدة من قائمة التسجيلات بمرور خطي (ترتيب بالعدّ Counting sort) ثم يعيد
+ * تسجيلات أي طالب أو مقرر أو فصل في زمن ثابت، بدل تصفية القائمة كاملة لكل عنصر.
+ * الفهرس غير قابل للتعديل؛ يعاد بناؤه عند تغير البيانات.
+ *
+ * يستخدم في المقاييس فقط لإرفاق التسجيلات بالطلاب قبل قياس حساب المعدل؛ التطبيق يقرأ المعدل
+ * المخزن ويجلب التسجيلات على صفحات فلا يحتاج تجميعها في الذاكرة.
+ */
+final class EnrollmentIndex {
+
+    /** فهرس فارغ */
+    public static final EnrollmentIndex EMPTY = new EnrollmentIndex(Collections.emptyList());
+
+    private final int size;
+    private final Buckets byStudent;
+    private final Buckets byCourse;
+    private final Buckets bySemester;
+
+    /**
+     * بناء الفهرس من قائمة التسجيلات.
+     * التسجيلات ذات المعرفات غير الصالحة (أقل من أو تساوي صفر) لا تظهر في المجموعة الخاصة بذلك المعرف.
+     * @param enrollments قائمة التسجيلات
+     */
+    public EnrollmentIndex(List<Enrollment> enrollments) {
+        Enrollment[] all = enrollments.toArray(new Enrollment[0]);
+        this.size = all.length;
+        this.byStudent = new Buckets(all, Enrollment::getStudentId);
+        this.byCourse = new Buckets(all, Enrollment::getCourseId);
+        this.bySemester = new Buckets(all, e -> {
+            Semester s = e.getSemester();
+            return s != null ? s.getId() : -1;
+        });
+    }
+
+    /**
+     * @param studentId معرف الطالب
+     * @return تسجيلات الطالب (قائمة غير قابلة للتعديل، فارغة إذا لم توجد تسجيلات)
+     */
+    public List<Enrollment> byStudent(int studentId) {
+        return byStudent.get(studentId);
+    }
+
+    /**
+     * @param courseId معرف المقرر
+     * @return تسجيلات المقرر (قائمة غير قابلة للتعديل، فارغة إذا لم توجد تسجيلات)
+     */
+    public List<Enrollment> byCourse(int courseId) {
+        return byCourse.get(courseId);
+    }
+
+    /**
+     * @param semesterId معرف الفصل الدراسي
+     * @return تسجيلات الفصل (قائمة غير قابلة للتعديل، فارغة إذا لم توجد تسجيلات)
+     */
+    public List<Enrollment> bySemester(int semesterId) {
+        return bySemester.get(semesterId);
+    }
+
+    /**
+     * @return عدد التسجيلات الكلي في الفهرس
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * مجموعات مفهرسة بمعرف صحيح: التسجيلات مرتبة حسب المفتاح في مصفوفة واحدة،
+     * و offsets[id] .. offsets[id + 1] هو نطاق المفتاح id فيها.
+     */
+    private static final class Buckets {
+        private final Enrollment[] sorted;
+        private final int[] offsets;
+
+        Buckets(Enrollment[] all, ToIntFunction<Enrollment> key) {
+            int[] keys = new int[all.length];
+            int maxKey = 0;
+            for (int i = 0; i < all.length; i++) {
+                keys[i] = key.applyAsInt(all[i]);
+                if (keys[i] > maxKey) maxKey = keys[i];
+            }
+
+            // عدّ التسجيلات لكل مفتاح ثم تحويل العدد إلى إزاحات تراكمية
+            int[] offsets = new int[maxKey + 2];
+            for (int k : keys) {
+                if (k > 0) offsets[k + 1]++;
+            }
+            for (int k = 1; k < offsets.length; k++) {
+                offsets[k] += offsets[k - 1];
+            }
+
+            Enrollment[] sorted = new Enrollment[offsets[offsets.length - 1]];
+            int[] cursor = Arrays.copyOf(offsets, offsets.length - 1);
+            for (int i = 0; i < all.length; i++) {
+                int k = keys[i];
+                if (k > 0) sorted[cursor[k]++] = all[i];
+            }
+
+            this.sorted = sorted;
+            this.offsets = offsets;
+        }
+
+        List<Enrollment> get(int key) {
+            if (key <= 0 || key + 1 >= offsets.length) return Collections.emptyList();
+            int from = offsets[key];
+            int to = offsets[key + 1];
+            if (from == to) return Collections.emptyList();
+            return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, to));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * أداة قياس بسيطة: تنفذ كل مقياس عدة مرات للإحماء (حتى يكتمل تجميع JIT) ثم عدة مرات للقياس،
+ * وتطبع متوسط الزمن وأقله والانحراف المعياري لكل عملية، ومقدار الذاكرة المحجوزة لكل عملية
+ * إن كان JVM يدعم ذلك.
+ *
+ * الإعدادات عبر خصائص النظام: bench.warmup (عدد مرات الإحماء)، bench.iterations (عدد مرات القياس)،
+ * bench.filter (تنفيذ المقاييس التي يحتوي اسمها على النص فقط).
+ */
+final class Harness {
+
+    /**
+     * عملية مقاسة. القيمة المعادة تستهلك حتى لا يحذف JIT الحساب كاملًا.
+     */
+    @FunctionalInterface
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    private static volatile Object sink;
+
+    private final int warmup;
+    private final int iterations;
+    private final String filter;
+    private final com.sun.management.ThreadMXBean threads;
+
+    Harness() {
+        this(Integer.getInteger("bench.warmup", 5),
+                Integer.getInteger("bench.iterations", 10),
+                System.getProperty("bench.filter", ""));
+    }
+
+    Harness(int warmup, int iterations, String filter) {
+        this.warmup = warmup;
+        this.iterations = Math.max(1, iterations);
+        this.filter = filter;
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        this.threads = bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                ? (com.sun.management.ThreadMXBean) bean : null;
+    }
+
+    /**
+     * طباعة رأس جدول النتائج.
+     */
+    void printHeader() {
+        System.out.printf(Locale.ROOT, "%-44s %12s %12s %12s %14s %14s%n",
+                "Benchmark", "ms/call", "stddev", "min ms", "ns/op", "alloc B/op");
+    }
+
+    /**
+     * تنفيذ مقياس وطباعة نتيجته.
+     * @param name اسم المقياس
+     * @param opsPerCall عدد العمليات التي ينفذها كل استدعاء (لحساب الزمن لكل عملية)
+     * @param op العملية المقاسة
+     * @throws Exception إذا فشلت العملية
+     */
+    void run(String name, int opsPerCall, Op op) throws Exception {
+        if (!name.contains(filter)) return;
+
+        for (int i = 0; i < warmup; i++) {
+            sink = op.run();
+        }
+
+        long[] nanos = new long[iterations];
+        long allocated = 0;
+        for (int i = 0; i < iterations; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            sink = op.run();
+            nanos[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - bytesBefore;
+        }
+
+        double mean = Arrays.stream(nanos).average().orElse(0);
+        double variance = 0;
+        for (long n : nanos) variance += (n - mean) * (n - mean);
+        double stddev = Math.sqrt(variance / nanos.length);
+        long min = Arrays.stream(nanos).min().orElse(0);
+        int ops = Math.max(1, opsPerCall);
+
+        System.out.printf(Locale.ROOT, "%-44s %12.3f %12.3f %12.3f %14.1f %14s%n",
+                name, mean / 1e6, stddev / 1e6, min / 1e6, mean / ops,
+                threads != null ? String.format(Locale.ROOT, "%.0f", (double) allocated / iterations / ops) : "n/a");
+    }
+
+    private long allocatedBytes() {
+        return threads != null ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
@@ -0,0 +1,351 @@
+package benchmarks;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * قاعدة بيانات مضمنة في الذاكرة لأغراض قياس الأداء فقط، تقدم واجهة JDBC (DataSource) لكائنات DAO.
+ *
+ * لا تفسر SQL؛ بل تربط كل استعلام (بمقطع نصي يحتويه) بدالة تعيد نتيجة جاهزة محسوبة من بيانات
+ * مولدة في الذاكرة. بذلك تقيس المقاييس التكلفة على جانب Java (قراءة ResultSet، إنشاء الكائنات،
+ * خريطة الهوية...) دون تذبذب الشبكة أو محرك MySQL. الاستعلام غير المعروف يفشل بخطأ صريح
+ * حتى لا يقاس مسار مختلف دون أن يلاحظ أحد.
+ */
+final class InMemoryDatabase implements DataSource {
+
+    /**
+     * تنفيذ استعلام مسجل.
+     */
+    @FunctionalInterface
+    interface Query {
+        /**
+         * @param params قيم المعاملات (الموقع 0 يطابق المعامل 1)
+         * @return النتيجة
+         */
+        Result execute(Object[] params);
+    }
+
+    /**
+     * نتيجة استعلام: أسماء الأعمدة (Labels) والصفوف.
+     */
+    static final class Result {
+        final String[] labels;
+        final List<Object[]> rows;
+        private final Map<String, Integer> columnIndex = new HashMap<>();
+
+        Result(String[] labels, List<Object[]> rows) {
+            this.labels = labels;
+            this.rows = rows;
+            for (int i = labels.length - 1; i >= 0; i--) {
+                // عند تكرار الاسم يعاد أول عمود كما في MySQL Connector/J
+                columnIndex.put(labels[i].toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int findColumn(String label) throws SQLException {
+            Integer i = columnIndex.get(label.toLowerCase(Locale.ROOT));
+            if (i == null) throw new SQLException("Column '" + label + "' not found");
+            return i;
+        }
+    }
+
+    private final Map<String, Query> queries = new LinkedHashMap<>();
+    private int nextGeneratedKey = 1;
+
+    /**
+     * تسجيل استعلام. يطابق أول استعلام مسجل يحتوي نص SQL على مقطعه، لذا تسجل المقاطع
+     * الأكثر تحديدًا أولًا.
+     * @param sqlFragment مقطع من نص SQL
+     * @param query الدالة التي تعيد النتيجة
+     */
+    void register(String sqlFragment, Query query) {
+        queries.put(sqlFragment, query);
+    }
+
+    private Query lookup(String sql) throws SQLException {
+        for (Map.Entry<String, Query> e : queries.entrySet()) {
+            if (sql.contains(e.getKey())) return e.getValue();
+        }
+        throw new SQLFeatureNotSupportedException("No in-memory result registered for: " + sql);
+    }
+
+    @Override
+    public Connection getConnection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        return getConnection();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() { return null; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { }
+
+    @Override
+    public void setLoginTimeout(int seconds) { }
+
+    @Override
+    public int getLoginTimeout() { return 0; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    private static Object unsupported(Method method) throws SQLException {
+        throw new SQLFeatureNotSupportedException(method.getDeclaringClass().getSimpleName()
+                + "." + method.getName() + " is not supported by the in-memory database");
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private boolean closed;
+        private boolean autoCommit = true;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return newStatement(PreparedStatement.class, (String) args[0],
+                            args.length == 2 && Integer.valueOf(Statement.RETURN_GENERATED_KEYS).equals(args[1]));
+                case "createStatement":
+                    return newStatement(Statement.class, null, false);
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "isReadOnly":
+                    return false;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "commit":
+                case "rollback":
+                case "setReadOnly":
+                case "clearWarnings":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    return unsupported(method);
+            }
+        }
+
+        private Object newStatement(Class<? extends Statement> type, String sql, boolean returnKeys)
+                throws SQLException {
+            StatementHandler handler = new StatementHandler(sql != null ? lookup(sql) : null, returnKeys);
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private Query query;
+        private final boolean returnKeys;
+        private Object[] params = new Object[8];
+        private int batched;
+        private int[] lastKeys = new int[0];
+        private boolean closed;
+
+        StatementHandler(Query query, boolean returnKeys) {
+            this.query = query;
+            this.returnKeys = returnKeys;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index > params.length) params = Arrays.copyOf(params, index * 2);
+                params[index - 1] = args[1];
+                return null;
+            }
+            switch (name) {
+                case "executeQuery":
+                    if (args != null) query = lookup((String) args[0]);
+                    return newResultSet(query.execute(params.clone()));
+                case "executeUpdate":
+                    lastKeys = returnKeys ? new int[]{nextGeneratedKey++} : new int[0];
+                    return 1;
+                case "addBatch":
+                    batched++;
+                    return null;
+                case "executeBatch": {
+                    int[] counts = new int[batched];
+                    Arrays.fill(counts, 1);
+                    lastKeys = new int[returnKeys ? batched : 0];
+                    for (int i = 0; i < lastKeys.length; i++) lastKeys[i] = nextGeneratedKey++;
+                    batched = 0;
+                    return counts;
+                }
+                case "getGeneratedKeys": {
+                    List<Object[]> rows = new ArrayList<>(lastKeys.length);
+                    for (int key : lastKeys) rows.add(new Object[]{key});
+                    return newResultSet(new Result(new String[]{"GENERATED_KEY"}, rows));
+                }
+                case "clearParameters":
+                    Arrays.fill(params, null);
+                    return null;
+                case "clearBatch":
+                    batched = 0;
+                    return null;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryStatement";
+                default:
+                    return unsupported(method);
+            }
+        }
+    }
+
+    private static ResultSet newResultSet(Result result) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new Cursor(result));
+    }
+
+    /**
+     * مؤشر على نتيجة استعلام (ResultSet للأمام فقط).
+     */
+    private static final class Cursor implements InvocationHandler {
+        private final Result result;
+        private int row = -1;
+        private boolean wasNull;
+        private boolean closed;
+
+        Cursor(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    return ++row < result.rows.size();
+                case "getInt": {
+                    Object v = value(args[0]);
+                    return v == null ? 0 : v instanceof Boolean ? ((Boolean) v ? 1 : 0) : ((Number) v).intValue();
+                }
+                case "getLong": {
+                    Object v = value(args[0]);
+                    return v == null ? 0L : ((Number) v).longValue();
+                }
+                case "getDouble": {
+                    Object v = value(args[0]);
+                    return v == null ? 0.0 : ((Number) v).doubleValue();
+                }
+                case "getBoolean": {
+                    Object v = value(args[0]);
+                    return v instanceof Boolean ? v : v != null && ((Number) v).intValue() != 0;
+                }
+                case "getString": {
+                    Object v = value(args[0]);
+                    return v == null ? null : v.toString();
+                }
+                case "getObject":
+                    return value(args[0]);
+                case "wasNull":
+                    return wasNull;
+                case "findColumn":
+                    return result.findColumn((String) args[0]) + 1;
+                case "getMetaData":
+                    return Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                            new Class<?>[]{ResultSetMetaData.class}, this::metaData);
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "setFetchSize":
+                    return null;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryResultSet";
+                default:
+                    return unsupported(method);
+            }
+        }
+
+        private Object value(Object column) throws SQLException {
+            if (row < 0 || row >= result.rows.size()) throw new SQLException("No current row");
+            int index = column instanceof String ? result.findColumn((String) column) : (Integer) column - 1;
+            Object v = result.rows.get(row)[index];
+            wasNull = v == null;
+            return v;
+        }
+
+        private Object metaData(Object proxy, Method method, Object[] args) throws SQLException {
+            switch (method.getName()) {
+                case "getColumnCount":
+                    return result.labels.length;
+                case "getColumnLabel":
+                case "getColumnName":
+                    return result.labels[(Integer) args[0] - 1];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "InMemoryResultSetMetaData";
+                default:
+                    return unsupported(method);
+            }
+        }
+    }
+}
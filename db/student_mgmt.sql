@@ -119,7 +119,8 @@ CREATE TABLE IF NOT EXISTS `enrollment` (
   `grade` double DEFAULT NULL,
   `teacher_id` int(11) DEFAULT NULL,
   PRIMARY KEY (`student_id`,`course_id`),
-  KEY `course_id` (`course_id`)
+  KEY `course_id` (`course_id`),
+  KEY `semester_student` (`semester_id`,`student_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 --
@@ -149,7 +150,8 @@ CREATE TABLE IF NOT EXISTS `semester` (
   `is_open` tinyint(1) NOT NULL,
   `season` varchar(20) DEFAULT NULL,
   `year` int(11) DEFAULT NULL,
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `season_year` (`season`,`year`)
 ) ENGINE=InnoDB  DEFAULT CHARSET=latin1 AUTO_INCREMENT=7 ;
 
 --
@@ -257,6 +259,15 @@ ALTER TABLE `teacher`
   ADD CONSTRAINT `fk_teacher_department` FOREIGN KEY (`department_id`) REFERENCES `department` (`id`),
   ADD CONSTRAINT `teacher_ibfk_1` FOREIGN KEY (`department_id`) REFERENCES `department` (`id`);
 
+--
+-- Materialized GPA: credit-weighted average on a 4.0 scale, kept up to date by the application
+--
+UPDATE `student` s
+  LEFT JOIN (SELECT e.student_id, SUM(COALESCE(e.grade, 0) / 100.0 * 4.0 * c.credits) / NULLIF(SUM(c.credits), 0) AS gpa
+             FROM `enrollment` e JOIN `course` c ON c.id = e.course_id
+             GROUP BY e.student_id) g ON g.student_id = s.id
+  SET s.gpa = COALESCE(g.gpa, 0);
+
 /*!40101 SET CHARACTER_SET_CLIENT=@OLD_CHARACTER_SET_CLIENT */;
 /*!40101 SET CHARACTER_SET_RESULTS=@OLD_CHARACTER_SET_RESULTS */;
 /*!40101 SET COLLATION_CONNECTION=@OLD_COLLATION_CONNECTION */;
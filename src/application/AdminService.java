@@ -2,7 +2,8 @@ package application;
 
 import domain.Admin;
 import persistence.AdminDAO;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.List;
 
 /**
  * خدمة إدارة عمليات المسؤول (Admin).
@@ -11,11 +12,11 @@ public class AdminService {
     private final AdminDAO dao;
 
     /**
-     * منشئ الخدمة مع تمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * منشئ الخدمة مع تمرير مصدر اتصالات قاعدة البيانات.
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public AdminService(Connection conn) {
-        this.dao = new AdminDAO(conn);
+    public AdminService(DataSource dataSource) {
+        this.dao = new AdminDAO(dataSource);
     }
 
     /**
@@ -36,4 +37,15 @@ public class AdminService {
         // تفويض المصادقة إلى DAO
         return dao.authenticate(username, password);
     }
+
+    /**
+     * جلب صفحة من المسؤولين مرتبة حسب المعرف.
+     * @param afterId معرف آخر مسؤول في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد المسؤولين في الصفحة
+     * @return قائمة مسؤولي الصفحة
+     * @throws Exception إذا حدث خطأ أثناء الوصول إلى البيانات
+     */
+    public List<Admin> getPage(int afterId, int limit) throws Exception {
+        return dao.getPage(afterId, limit);
+    }
 }
@@ -0,0 +1,33 @@
+package application;
+
+/**
+ * استثناء يطلق عند محاولة تسجيل طالب في مقرر مسجل فيه مسبقًا.
+ * يسمح للواجهة بالتمييز بين هذه الحالة المتوقعة وبين أخطاء قاعدة البيانات الأخرى.
+ */
+public class AlreadyEnrolledException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int studentId;
+    private final int courseId;
+
+    /**
+     * @param studentId معرف الطالب
+     * @param courseId معرف المقرر
+     */
+    public AlreadyEnrolledException(int studentId, int courseId) {
+        super("Student is already enrolled in this course.");
+        this.studentId = studentId;
+        this.courseId = courseId;
+    }
+
+    /** @return معرف الطالب */
+    public int getStudentId() {
+        return studentId;
+    }
+
+    /** @return معرف المقرر */
+    public int getCourseId() {
+        return courseId;
+    }
+}
@@ -0,0 +1,178 @@
+package application;
+
+import domain.Course;
+import domain.Department;
+import domain.Enrollment;
+import domain.Semester;
+import domain.Student;
+import domain.Teacher;
+import persistence.ConnectionPool;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * واجهة غير متزامنة فوق الخدمات: كل استدعاء ينفذ في الخلفية (على خيط افتراضي مستقل حيث يتوفر) ويعيد
+ * {@link CompletableFuture}، فتستطيع اللوحات والتقارير إطلاق استعلامات مستقلة معًا (مثل قوائم
+ * الطلاب والمقررات والفصول والمعلمين) وانتظار أبطئها بدل مجموعها.
+ *
+ * عدد الاستدعاءات المنفذة في نفس الوقت محدود بحجم مجمع الاتصالات (أو sms.async.maxConcurrency
+ * لمصدر اتصالات آخر)، والحد مشترك بين كل الكائنات على نفس مصدر الاتصالات؛ الزائد ينتظر على
+ * خيطه بدل أن ينتظر اتصالًا من المجمع حتى انتهاء مهلة الاستعارة.
+ *
+ * الخيوط الافتراضية (Virtual Threads) متاحة من Java 21 وتختار عند التشغيل؛ على إصدار أقدم تنفذ
+ * الاستدعاءات على مجمع خيوط عادية محدود بـ sms.async.threads (افتراضيًا 32) والزائد ينتظر في الطابور.
+ *
+ * المستقبل يكتمل على خيط التنفيذ؛ تحديث واجهة Swing يجب أن يمر عبر SwingUtilities.invokeLater.
+ * الفشل يكمل المستقبل بالاستثناء الأصلي.
+ */
+public class AsyncServices {
+
+    /**
+     * استدعاء ينفذ في الخلفية.
+     * @param <T> نوع النتيجة
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    private static final int DEFAULT_MAX_CONCURRENCY = Integer.getInteger("sms.async.maxConcurrency", 10);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /** حد التزامن لكل مصدر اتصالات */
+    private static final Map<DataSource, Semaphore> LIMITS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final StudentService studentService;
+    private final TeacherService teacherService;
+    private final CourseService courseService;
+    private final SemesterService semesterService;
+    private final DepartmentService departmentService;
+    private final EnrollmentService enrollmentService;
+
+    /**
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
+     */
+    public AsyncServices(DataSource dataSource) {
+        this.maxConcurrency = dataSource instanceof ConnectionPool
+                ? ((ConnectionPool) dataSource).getMaxSize() : DEFAULT_MAX_CONCURRENCY;
+        this.permits = LIMITS.computeIfAbsent(dataSource, ds -> new Semaphore(maxConcurrency, true));
+        this.studentService = new StudentService(dataSource);
+        this.teacherService = new TeacherService(dataSource);
+        this.courseService = new CourseService(dataSource);
+        this.semesterService = new SemesterService(dataSource);
+        this.departmentService = new DepartmentService(dataSource);
+        this.enrollmentService = new EnrollmentService(dataSource);
+    }
+
+    /**
+     * خيط افتراضي لكل استدعاء إذا كان الإصدار يدعمه (Java 21+)، وإلا مجمع خيوط عادية محدود.
+     * الواجهة الجديدة تستدعى انعكاسيًا حتى يبنى المشروع ويعمل على Java 17.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(1, Integer.getInteger("sms.async.threads", 32));
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), task -> {
+                        Thread thread = new Thread(task, "sms-async-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /**
+     * تنفيذ استدعاء في الخلفية ضمن حد التزامن.
+     * @param call الاستدعاء (عادة دالة خدمة)
+     * @param <T> نوع النتيجة
+     * @return مستقبل النتيجة
+     */
+    public <T> CompletableFuture<T> submit(Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            try {
+                // مستقبل ألغي قبل بدء التنفيذ لا يحتاج استعلامًا
+                if (!future.isDone()) future.complete(call.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                permits.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return مستقبل قائمة جميع الطلاب
+     */
+    public CompletableFuture<List<Student>> students() {
+        return submit(studentService::getAll);
+    }
+
+    /**
+     * @return مستقبل قائمة جميع المعلمين
+     */
+    public CompletableFuture<List<Teacher>> teachers() {
+        return submit(teacherService::getAll);
+    }
+
+    /**
+     * @return مستقبل قائمة جميع المقررات (مع أسماء المعلمين والأقسام)
+     */
+    public CompletableFuture<List<Course>> courses() {
+        return submit(courseService::getAllCourses);
+    }
+
+    /**
+     * @return مستقبل قائمة جميع الفصول الدراسية
+     */
+    public CompletableFuture<List<Semester>> semesters() {
+        return submit(semesterService::getAll);
+    }
+
+    /**
+     * @return مستقبل قائمة جميع الأقسام
+     */
+    public CompletableFuture<List<Department>> departments() {
+        return submit(departmentService::getAll);
+    }
+
+    /**
+     * @return مستقبل قائمة جميع التسجيلات مع تفاصيلها
+     */
+    public CompletableFuture<List<Enrollment>> enrollments() {
+        return submit(enrollmentService::getAll);
+    }
+
+    /**
+     * @return أقصى عدد للاستدعاءات المنفذة في نفس الوقت على مصدر الاتصالات
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+}
@@ -2,7 +2,8 @@ package application;
 
 import persistence.CourseDAO;
 import domain.Course;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,13 +11,17 @@ import java.util.List;
  */
 public class CourseService {
     private final CourseDAO courseDAO;
+    private final GpaMaintenance gpaMaintenance;
+    private final ReferenceDataCache.Regions cache;
 
     /**
-     * إنشاء الخدمة بتمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * إنشاء الخدمة بتمرير مصدر اتصالات قاعدة البيانات.
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public CourseService(Connection conn) {
-        this.courseDAO = new CourseDAO(conn);
+    public CourseService(DataSource dataSource) {
+        this.courseDAO = new CourseDAO(dataSource);
+        this.cache = ReferenceDataCache.of(dataSource);
+        this.gpaMaintenance = new GpaMaintenance(dataSource);
     }
 
     /**
@@ -27,6 +32,20 @@ public class CourseService {
     public void add(Course course) throws Exception {
         if (course == null) throw new IllegalArgumentException("Course cannot be null");
         courseDAO.add(course);
+        cache.courses.invalidateAll();
+    }
+
+    /**
+     * إضافة مجموعة كورسات دفعة واحدة (معاملة واحدة)، مع تعيين معرف كل كورس.
+     * @param courses الكورسات الجديدة
+     * @return عدد الكورسات المضافة
+     * @throws Exception في حال وجود خطأ في الإدخال أو تنفيذ العملية
+     */
+    public int addAll(List<Course> courses) throws Exception {
+        if (courses == null || courses.contains(null)) throw new IllegalArgumentException("Course cannot be null");
+        int added = courseDAO.addAll(courses);
+        cache.courses.invalidateAll();
+        return added;
     }
 
     /**
@@ -37,6 +56,9 @@ public class CourseService {
     public void update(Course course) throws Exception {
         if (course == null || course.getId() <= 0) throw new IllegalArgumentException("Invalid course");
         courseDAO.update(course);
+        cache.courses.invalidateAll();
+        // الساعات المعتمدة قد تغيرت، فتتغير معدلات الطلاب المسجلين
+        gpaMaintenance.courseChanged(course.getId());
     }
 
     /**
@@ -46,27 +68,57 @@ public class CourseService {
      */
     public void delete(int id) throws Exception {
         if (id <= 0) throw new IllegalArgumentException("Invalid course ID");
+        // تسجيلات المقرر تحذف معه (ON DELETE CASCADE)، لذا نحدد الطلاب المتأثرين قبل الحذف
+        List<Integer> students = gpaMaintenance.studentsOfCourse(id);
         courseDAO.delete(id);
+        cache.courses.invalidateAll();
+        gpaMaintenance.studentsChanged(students);
     }
 
     /**
-     * جلب جميع الكورسات.
-     * @return قائمة الكورسات
+     * جلب جميع الكورسات (من الذاكرة المؤقتة المشتركة إن كانت صالحة).
+     * @return قائمة الكورسات (نسخة يمكن تعديلها؛ الكائنات مشتركة)
      * @throws Exception في حال حدوث خطأ أثناء جلب البيانات
      */
     public List<Course> getAllCourses() throws Exception {
-        return courseDAO.getAll();
+        return new ArrayList<>(cache.courses.get("all", courseDAO::getAll));
     }
 
     /**
      * جلب كورس حسب المعرف.
      * @param id معرف الكورس
-     * @return كائن الكورس
+     * @return كائن الكورس (مشترك من الذاكرة المؤقتة؛ للقراءة فقط)
      * @throws Exception في حال معرف غير صالح أو خطأ
      */
     public Course getById(int id) throws Exception {
         if (id <= 0) throw new IllegalArgumentException("Invalid course ID");
-        return courseDAO.getById(id);
+        return cache.courses.get(id, () -> courseDAO.getById(id));
+    }
+
+    /**
+     * جلب جدول الساعات المعتمدة لجميع الكورسات في استعلام واحد (من الذاكرة المؤقتة المشتركة إن
+     * كانت صالحة؛ كل كتابة على المقررات تبطله مع بقية منطقة المقررات).
+     * @return مصفوفة مفهرسة بمعرف الكورس تحتوي عدد الساعات (0 لغير الموجود)؛ مشتركة، لا تعدل
+     * @throws Exception في حال حدوث خطأ أثناء جلب البيانات
+     */
+    public int[] getCreditsTable() throws Exception {
+        return cache.courses.get("credits", courseDAO::getCreditsTable);
+    }
+
+    /**
+     * رقم إبطال الذاكرة المؤقتة للمقررات الخاصة بمصدر اتصالات هذه الخدمة؛ يتغير مع كل كتابة على
+     * المقررات أو المعلمين، فتعرف به النسخ المشتقة (مثل جدول الساعات المحلي) أنها قديمة.
+     * @return رقم الإبطال
+     */
+    public long getCacheGeneration() {
+        return cache.courses.getGeneration();
+    }
+
+    /**
+     * إبطال الذاكرة المؤقتة للمقررات (مثلًا عند طلب مقرر أضافه عميل آخر بعد التحميل).
+     */
+    public void invalidateCache() {
+        cache.courses.invalidateAll();
     }
 
     /**
@@ -76,16 +128,28 @@ public class CourseService {
      * @throws Exception في حال خطأ
      */
     public List<Course> getAllWithTeacherAndDepartment() throws Exception {
-        return courseDAO.getAll();
+        return getAllCourses();
+    }
+
+    /**
+     * جلب صفحة من الكورسات مع معلومات المعلم والقسم، مرتبة حسب المعرف.
+     * @param afterId معرف آخر كورس في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد الكورسات في الصفحة
+     * @return قائمة كورسات الصفحة
+     * @throws Exception في حال خطأ
+     */
+    public List<Course> getPage(int afterId, int limit) throws Exception {
+        return courseDAO.getPage(afterId, limit);
     }
 
     /**
      * جلب الكورسات الخاصة بمعلم معين.
      * @param teacherId معرف المعلم
-     * @return قائمة الكورسات
+     * @return قائمة الكورسات (نسخة يمكن تعديلها؛ الكائنات مشتركة)
      * @throws Exception في حال خطأ
      */
     public List<Course> getCoursesByTeacherId(int teacherId) throws Exception {
-        return courseDAO.findByTeacherId(teacherId);
+        return new ArrayList<>(cache.courses.get("teacher:" + teacherId,
+                () -> courseDAO.findByTeacherId(teacherId)));
     }
 }
@@ -2,7 +2,8 @@ package application;
 
 import domain.Department;
 import persistence.DepartmentDAO;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,21 +11,23 @@ import java.util.List;
  */
 public class DepartmentService {
     private final DepartmentDAO departmentDAO;
+    private final ReferenceDataCache.Regions cache;
 
     /**
-     * إنشاء خدمة الأقسام بتمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * إنشاء خدمة الأقسام بتمرير مصدر اتصالات قاعدة البيانات.
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public DepartmentService(Connection conn) {
-        this.departmentDAO = new DepartmentDAO(conn);
+    public DepartmentService(DataSource dataSource) {
+        this.departmentDAO = new DepartmentDAO(dataSource);
+        this.cache = ReferenceDataCache.of(dataSource);
     }
 
     /**
-     * جلب جميع الأقسام.
-     * @return قائمة الأقسام
+     * جلب جميع الأقسام (من الذاكرة المؤقتة المشتركة إن كانت صالحة).
+     * @return قائمة الأقسام (نسخة يمكن تعديلها؛ الكائنات مشتركة)
      * @throws Exception في حال حدوث خطأ أثناء جلب البيانات
      */
     public List<Department> getAll() throws Exception {
-        return departmentDAO.getAll();
+        return new ArrayList<>(cache.departments.get("all", departmentDAO::getAll));
     }
 }
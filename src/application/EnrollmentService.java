@@ -2,53 +2,110 @@ package application;
 
 import persistence.EnrollmentDAO;
 import domain.Enrollment;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * خدمة لإدارة تسجيلات الطلاب في المقررات.
  */
 public class EnrollmentService {
     private final EnrollmentDAO enrollmentDAO;
+    private final GpaMaintenance gpaMaintenance;
 
     /**
-     * إنشاء خدمة التسجيل بتمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * إنشاء خدمة التسجيل بتمرير مصدر اتصالات قاعدة البيانات.
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public EnrollmentService(Connection conn) {
-        this.enrollmentDAO = new EnrollmentDAO(conn);
+    public EnrollmentService(DataSource dataSource) {
+        this.enrollmentDAO = new EnrollmentDAO(dataSource);
+        this.gpaMaintenance = new GpaMaintenance(dataSource);
     }
 
     /**
-     * إضافة تسجيل جديد.
+     * إضافة تسجيل جديد في عملية إدراج واحدة؛ التحقق من التسجيل المسبق يتم عبر المفتاح الأساسي
+     * في قاعدة البيانات، لذا لا يمكن لطلبين متزامنين تسجيل نفس الطالب في نفس المقرر مرتين.
+     * يعاد حساب المعدل المخزن للطالب بعد الإضافة.
      * @param e التسجيل الجديد
-     * @throws Exception إذا كان الطالب مسجلًا مسبقًا في نفس المقرر
+     * @throws AlreadyEnrolledException إذا كان الطالب مسجلًا مسبقًا في نفس المقرر
+     * @throws Exception في حالة خطأ آخر
      */
     public void add(Enrollment e) throws Exception {
-        Enrollment existing = enrollmentDAO.getByIds(e.getStudentId(), e.getCourseId());
-        if (existing != null) {
-            throw new Exception("Student is already enrolled in this course.");
+        if (!enrollmentDAO.addIfAbsent(e)) {
+            throw new AlreadyEnrolledException(e.getStudentId(), e.getCourseId());
         }
-        enrollmentDAO.add(e);
+        gpaMaintenance.studentChanged(e.getStudentId());
     }
 
     /**
-     * تحديث تسجيل موجود.
+     * تحديث تسجيل موجود مع إعادة حساب المعدل المخزن للطالب.
+     * إذا لم يكن الطالب مسجلًا في المقرر لا يتغير شيء.
      * @param e التسجيل بعد التعديل
      * @throws Exception في حالة خطأ
      */
     public void update(Enrollment e) throws Exception {
-        enrollmentDAO.update(e);
+        if (enrollmentDAO.update(e) > 0) {
+            gpaMaintenance.studentChanged(e.getStudentId());
+        }
     }
 
     /**
-     * حذف تسجيل الطالب من مقرر معين.
+     * حذف تسجيل الطالب من مقرر معين مع إعادة حساب المعدل المخزن للطالب.
      * @param studentId معرف الطالب
      * @param courseId معرف المقرر
      * @throws Exception في حالة خطأ
      */
     public void delete(int studentId, int courseId) throws Exception {
-        enrollmentDAO.delete(studentId, courseId);
+        if (enrollmentDAO.delete(studentId, courseId) > 0) {
+            gpaMaintenance.studentChanged(studentId);
+        }
+    }
+
+    /**
+     * إضافة مجموعة تسجيلات دفعة واحدة (معاملة واحدة).
+     * لا يتم التحقق من التسجيل المسبق لكل عنصر؛ أي تكرار يلغي الدفعة كاملة.
+     * @param enrollments التسجيلات الجديدة
+     * @return عدد التسجيلات المضافة
+     * @throws Exception في حالة خطأ
+     */
+    public int addAll(List<Enrollment> enrollments) throws Exception {
+        int count = enrollmentDAO.addAll(enrollments);
+        gpaMaintenance.studentsChanged(studentIds(enrollments));
+        return count;
+    }
+
+    /**
+     * تحديث مجموعة تسجيلات دفعة واحدة (مثل رصد الدرجات النهائية).
+     * @param enrollments التسجيلات بعد التعديل
+     * @return عدد التسجيلات المحدثة
+     * @throws Exception في حالة خطأ
+     */
+    public int updateAll(List<Enrollment> enrollments) throws Exception {
+        int count = enrollmentDAO.updateAll(enrollments);
+        gpaMaintenance.studentsChanged(studentIds(enrollments));
+        return count;
+    }
+
+    /**
+     * حذف مجموعة تسجيلات دفعة واحدة.
+     * @param enrollments التسجيلات المراد حذفها (يكفي معرف الطالب والمقرر)
+     * @return عدد التسجيلات المحذوفة
+     * @throws Exception في حالة خطأ
+     */
+    public int deleteAll(List<Enrollment> enrollments) throws Exception {
+        int count = enrollmentDAO.deleteAll(enrollments);
+        gpaMaintenance.studentsChanged(studentIds(enrollments));
+        return count;
+    }
+
+    /** معرفات الطلاب المتأثرين بدفعة تسجيلات (بدون تكرار) */
+    private static Set<Integer> studentIds(List<Enrollment> enrollments) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (Enrollment e : enrollments) ids.add(e.getStudentId());
+        return ids;
     }
 
     /**
@@ -60,6 +117,36 @@ public class EnrollmentService {
         return enrollmentDAO.getAll();
     }
 
+    /**
+     * جلب صفحة من التسجيلات مرتبة حسب (الطالب، المقرر)، تبدأ بعد التسجيل المحدد.
+     * @param afterStudentId معرف الطالب في آخر تسجيل من الصفحة السابقة (0 للصفحة الأولى)
+     * @param afterCourseId معرف المقرر في آخر تسجيل من الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد التسجيلات في الصفحة
+     * @return قائمة تسجيلات الصفحة
+     * @throws Exception في حالة خطأ
+     */
+    public List<Enrollment> getPage(int afterStudentId, int afterCourseId, int limit) throws Exception {
+        return enrollmentDAO.getPage(afterStudentId, afterCourseId, limit);
+    }
+
+    /**
+     * المرور على كل التسجيلات كتدفق بذاكرة ثابتة (مرتبة حسب الطالب). يجب إغلاق التدفق بعد الاستخدام.
+     * @return تدفق التسجيلات
+     * @throws Exception في حالة خطأ
+     */
+    public Stream<Enrollment> stream() throws Exception {
+        return enrollmentDAO.stream();
+    }
+
+    /**
+     * تنفيذ إجراء لكل تسجيل دون تحميل كل التسجيلات في الذاكرة.
+     * @param action الإجراء المنفذ لكل تسجيل
+     * @throws Exception في حالة خطأ
+     */
+    public void forEach(Consumer<? super Enrollment> action) throws Exception {
+        enrollmentDAO.forEach(action);
+    }
+
     /**
      * جلب تسجيل معين بواسطة معرف الطالب والمقرر.
      * @param studentId معرف الطالب
@@ -0,0 +1,75 @@
+package application;
+
+import persistence.EnrollmentDAO;
+import persistence.StudentDAO;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * صيانة عمود المعدل التراكمي المخزن (student.gpa).
+ *
+ * المعدل يحسب في قاعدة البيانات بعبارة UPDATE ... JOIN واحدة (مجموع النقاط المرجحة بالساعات على
+ * مجموع الساعات)، ويعاد حسابه فقط للطلاب الذين تأثروا بعملية الكتابة: الطالب صاحب التسجيل المضاف
+ * أو المعدل أو المحذوف، أو طلاب المقرر عند تغيير ساعاته أو حذفه. بذلك تقرأ القوائم والتقارير قيمة
+ * جاهزة بدل حساب المعدل عند كل عرض.
+ */
+public class GpaMaintenance {
+    private final StudentDAO studentDAO;
+    private final EnrollmentDAO enrollmentDAO;
+
+    /**
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
+     */
+    public GpaMaintenance(DataSource dataSource) {
+        this.studentDAO = new StudentDAO(dataSource);
+        this.enrollmentDAO = new EnrollmentDAO(dataSource);
+    }
+
+    /**
+     * إعادة حساب معدل طالب تغيرت تسجيلاته.
+     * @param studentId معرف الطالب
+     * @throws Exception في حالة خطأ
+     */
+    public void studentChanged(int studentId) throws Exception {
+        studentDAO.recomputeGpa(List.of(studentId));
+    }
+
+    /**
+     * إعادة حساب معدلات مجموعة طلاب تغيرت تسجيلاتهم.
+     * @param studentIds معرفات الطلاب (بدون تكرار)
+     * @throws Exception في حالة خطأ
+     */
+    public void studentsChanged(Collection<Integer> studentIds) throws Exception {
+        studentDAO.recomputeGpa(studentIds);
+    }
+
+    /**
+     * إعادة حساب معدلات طلاب مقرر تغيرت ساعاته المعتمدة.
+     * @param courseId معرف المقرر
+     * @throws Exception في حالة خطأ
+     */
+    public void courseChanged(int courseId) throws Exception {
+        studentDAO.recomputeGpaForCourse(courseId);
+    }
+
+    /**
+     * الطلاب المسجلون في مقرر؛ تستدعى قبل حذف المقرر لأن تسجيلاته تحذف معه.
+     * @param courseId معرف المقرر
+     * @return معرفات الطلاب
+     * @throws Exception في حالة خطأ
+     */
+    public List<Integer> studentsOfCourse(int courseId) throws Exception {
+        return enrollmentDAO.findStudentIdsByCourse(courseId);
+    }
+
+    /**
+     * إعادة حساب معدلات كل الطلاب (لإصلاح القيم القديمة مرة واحدة).
+     * @return عدد الطلاب
+     * @throws Exception في حالة خطأ
+     */
+    public int rebuildAll() throws Exception {
+        return studentDAO.recomputeAllGpa();
+    }
+}
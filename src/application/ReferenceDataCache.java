@@ -0,0 +1,241 @@
+package application;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * ذاكرة مؤقتة مشتركة (Read-through) للبيانات المرجعية بطيئة التغير: الأقسام، المعلمون، الفصول
+ * والمقررات. الخدمات تقرأ عبرها، فكل اللوحات والتقارير تتشارك نتيجة استعلام واحد بدل أن تعيد
+ * كل منها الاستعلام عند كل تحميل.
+ *
+ * المناطق خاصة بمصدر الاتصالات ({@link #of(DataSource)}): الخدمات المنشأة على نفس المصدر (مجمع
+ * الاتصالات) تتشارك مناطقه، وخدمات على مصدر آخر (قاعدة بيانات أخرى) لا ترى بياناته.
+ * لكل نوع منطقة مستقلة ({@link Regions#departments}، {@link Regions#teachers}، ...) لها:
+ * <ul>
+ *   <li>مدة صلاحية للعنصر (TTL) عبر sms.cache.&lt;name&gt;.ttlMs؛ العنصر المنتهي يعاد تحميله عند طلبه</li>
+ *   <li>حد لعدد العناصر عبر sms.cache.&lt;name&gt;.maxEntries مع إخراج الأقدم استخدامًا (LRU)</li>
+ *   <li>عدادات للإصابات والإخفاقات والإخراج والإبطال عبر {@link #getStats()}</li>
+ * </ul>
+ *
+ * عمليات الكتابة في الخدمات تبطل المنطقة كاملة ({@link #invalidateAll()})؛ تحميل بدأ قبل الإبطال
+ * لا تخزن نتيجته حتى لا تعود بيانات قديمة. التحميل يتم خارج القفل، لذا قد يحمل طلبان متزامنان
+ * نفس المفتاح مرة لكل منهما. القيم المخزنة (بما فيها الكائنات داخل القوائم) لا تنسخ بل تعاد نفسها
+ * لكل المستدعين، فهي للقراءة فقط: تعديل كائن مرجعي يتم بنسخة جديدة تمرر إلى الخدمة التي تبطل المنطقة.
+ * آمنة للاستخدام من عدة خيوط.
+ */
+public final class ReferenceDataCache {
+
+    /**
+     * مناطق مصدر اتصالات واحد.
+     */
+    public static final class Regions {
+        /** الأقسام (لا تتغير من داخل التطبيق) */
+        public final ReferenceDataCache departments = new ReferenceDataCache("departments", 30 * 60_000L, 16);
+
+        /** المعلمون */
+        public final ReferenceDataCache teachers = new ReferenceDataCache("teachers", 5 * 60_000L, 64);
+
+        /** الفصول الدراسية */
+        public final ReferenceDataCache semesters = new ReferenceDataCache("semesters", 5 * 60_000L, 256);
+
+        /** المقررات (تتضمن أسماء المعلمين والأقسام) */
+        public final ReferenceDataCache courses = new ReferenceDataCache("courses", 5 * 60_000L, 256);
+
+        private Regions() {
+        }
+
+        /**
+         * @return جميع المناطق
+         */
+        public List<ReferenceDataCache> all() {
+            return List.of(departments, teachers, semesters, courses);
+        }
+
+        /**
+         * @return لقطات عدادات جميع المناطق
+         */
+        public List<Stats> allStats() {
+            List<Stats> stats = new ArrayList<>(4);
+            for (ReferenceDataCache cache : all()) stats.add(cache.getStats());
+            return stats;
+        }
+    }
+
+    /** المناطق لكل مصدر اتصالات؛ المصدر غير المستخدم تحذف مناطقه معه */
+    private static final Map<DataSource, Regions> REGIONS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * تحميل القيمة عند عدم وجودها في الذاكرة المؤقتة.
+     * @param <V> نوع القيمة
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    /** لقطة من عدادات منطقة */
+    public static final class Stats {
+        private final String name;
+        private final long hits, misses, evictions, expirations, invalidations;
+        private final int size;
+
+        private Stats(String name, long hits, long misses, long evictions, long expirations,
+                      long invalidations, int size) {
+            this.name = name;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+            this.size = size;
+        }
+
+        /** @return اسم المنطقة */
+        public String getName() { return name; }
+
+        /** @return عدد الطلبات التي وجدت قيمة صالحة */
+        public long getHits() { return hits; }
+
+        /** @return عدد الطلبات التي احتاجت تحميلًا (بما فيها المنتهية صلاحيتها) */
+        public long getMisses() { return misses; }
+
+        /** @return عدد العناصر المخرجة لتجاوز الحد */
+        public long getEvictions() { return evictions; }
+
+        /** @return عدد العناصر التي انتهت صلاحيتها عند طلبها */
+        public long getExpirations() { return expirations; }
+
+        /** @return عدد مرات إبطال المنطقة */
+        public long getInvalidations() { return invalidations; }
+
+        /** @return عدد العناصر المخزنة حاليًا */
+        public int getSize() { return size; }
+
+        /** @return نسبة الإصابة (0 إذا لم تكن هناك طلبات) */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: size=%d hits=%d misses=%d (%.0f%%) evictions=%d expirations=%d invalidations=%d",
+                    name, size, hits, misses, getHitRate() * 100, evictions, expirations, invalidations);
+        }
+    }
+
+    private static final class CacheEntry {
+        final Object value;
+        final long expiresAt;
+
+        CacheEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    // محمية بـ this؛ ترتيب الوصول يجعل أول عنصر هو الأقدم استخدامًا
+    private final LinkedHashMap<Object, CacheEntry> entries;
+    private volatile long generation;
+    private long hits, misses, evictions, expirations, invalidations;
+
+    private ReferenceDataCache(String name, long defaultTtlMillis, int defaultMaxEntries) {
+        this.name = name;
+        this.ttlNanos = Long.getLong("sms.cache." + name + ".ttlMs", defaultTtlMillis) * 1_000_000L;
+        this.maxEntries = Math.max(1, Integer.getInteger("sms.cache." + name + ".maxEntries", defaultMaxEntries));
+        this.entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                if (size() <= ReferenceDataCache.this.maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @param dataSource مصدر الاتصالات الذي تحمل منه القيم
+     * @return مناطق هذا المصدر (تنشأ عند أول طلب)
+     */
+    public static Regions of(DataSource dataSource) {
+        return REGIONS.computeIfAbsent(dataSource, ds -> new Regions());
+    }
+
+    /**
+     * @return اسم المنطقة
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * قراءة قيمة، مع تحميلها وتخزينها إذا لم تكن موجودة أو انتهت صلاحيتها.
+     * @param key المفتاح (يجب أن يكون فريدًا لنوع القيمة داخل المنطقة)
+     * @param loader تحميل القيمة من قاعدة البيانات
+     * @param <V> نوع القيمة
+     * @return القيمة (مشتركة بين المستدعين؛ للقراءة فقط)
+     * @throws Exception في حال فشل التحميل
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(Object key, Loader<V> loader) throws Exception {
+        long loadGeneration;
+        synchronized (this) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits++;
+                    return (V) entry.value;
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        V value = loader.load();
+        synchronized (this) {
+            // تجاهل النتيجة إذا أبطلت المنطقة أثناء التحميل
+            if (generation == loadGeneration) {
+                entries.put(key, new CacheEntry(value, System.nanoTime() + ttlNanos));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * إبطال كل عناصر المنطقة (تستدعى بعد أي كتابة على النوع المخزن).
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        generation++;
+        invalidations++;
+    }
+
+    /**
+     * رقم الإبطال الحالي: يزداد مع كل {@link #invalidateAll()}، فتستطيع نسخة محلية مشتقة من بيانات
+     * المنطقة معرفة أنها قديمة بقراءة واحدة دون قفل.
+     * @return رقم الإبطال
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return لقطة من عدادات المنطقة
+     */
+    public synchronized Stats getStats() {
+        return new Stats(name, hits, misses, evictions, expirations, invalidations, entries.size());
+    }
+}
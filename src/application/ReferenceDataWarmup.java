@@ -0,0 +1,71 @@
+package application;
+
+import infrastructure.StartupReport;
+
+import javax.sql.DataSource;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * تحميل مسبق للبيانات المرجعية (المعلمين، المقررات، الفصول، الأقسام) بالتوازي في الخلفية
+ * عبر {@link AsyncServices} بعد تسجيل الدخول، حتى تكون الاتصالات مفتوحة وخطط الاستعلامات والبيانات ساخنة عند فتح التبويبات.
+ * الطلاب لا يحملون مسبقًا: ليس لهم منطقة في الذاكرة المؤقتة، فتحميلهم يستهلك اتصالًا وذاكرة دون فائدة.
+ *
+ * القراءة تمر عبر الخدمات، فتملأ {@link ReferenceDataCache} وتجد اللوحات البيانات المرجعية جاهزة دون
+ * استعلام. مع sms.startupReport تطبع عدادات الذاكرة المؤقتة بعد الانتهاء.
+ *
+ * يُفعَّل بخاصية النظام sms.warmup=true. الأخطاء لا توقف التطبيق بل تُطبع فقط.
+ */
+public class ReferenceDataWarmup {
+
+    private final AsyncServices services;
+    private final ReferenceDataCache.Regions cache;
+
+    /**
+     * إنشاء أداة التحميل المسبق.
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
+     */
+    public ReferenceDataWarmup(DataSource dataSource) {
+        this.services = new AsyncServices(dataSource);
+        this.cache = ReferenceDataCache.of(dataSource);
+    }
+
+    /**
+     * @return true إذا كان التحميل المسبق مفعلًا عبر sms.warmup
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("sms.warmup");
+    }
+
+    /**
+     * بدء التحميل المسبق لكل أنواع البيانات المرجعية بالتوازي.
+     * @return مستقبل يكتمل عند انتهاء جميع عمليات التحميل (بنجاح أو بفشل)
+     */
+    public CompletableFuture<Void> start() {
+        long start = System.nanoTime();
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(
+                load("teachers", services.teachers()),
+                load("courses", services.courses()),
+                load("semesters", services.semesters()),
+                load("departments", services.departments()));
+
+        return all.whenComplete((v, e) -> {
+            StartupReport.record("warm-up finished", start);
+            for (ReferenceDataCache.Stats stats : cache.allStats()) {
+                StartupReport.mark("cache " + stats);
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> load(String name, CompletableFuture<?> load) {
+        long start = System.nanoTime();
+        return load.handle((result, e) -> {
+            if (e == null) {
+                StartupReport.record("warm-up " + name, start);
+            } else {
+                System.err.println("⚠️ Warm-up of " + name + " failed: " + e.getMessage());
+            }
+            return null;
+        });
+    }
+}
@@ -2,7 +2,8 @@ package application;
 
 import persistence.SemesterDAO;
 import domain.Semester;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -11,14 +12,16 @@ import java.util.List;
  */
 public class SemesterService {
     private final SemesterDAO dao;
+    private final ReferenceDataCache.Regions cache;
 
     /**
-     * Constructs a SemesterService with a database connection.
+     * Constructs a SemesterService with a database connection pool.
      * 
-     * @param conn the database connection to be used by the DAO
+     * @param dataSource the connection pool to be used by the DAO
      */
-    public SemesterService(Connection conn) {
-        this.dao = new SemesterDAO(conn);
+    public SemesterService(DataSource dataSource) {
+        this.dao = new SemesterDAO(dataSource);
+        this.cache = ReferenceDataCache.of(dataSource);
     }
 
     /**
@@ -29,6 +32,7 @@ public class SemesterService {
      */
     public void add(Semester s) throws Exception {
         dao.add(s);
+        cache.semesters.invalidateAll();
     }
 
     /**
@@ -39,6 +43,7 @@ public class SemesterService {
      */
     public void update(Semester s) throws Exception {
         dao.update(s);
+        cache.semesters.invalidateAll();
     }
 
     /**
@@ -49,26 +54,27 @@ public class SemesterService {
      */
     public void delete(int id) throws Exception {
         dao.delete(id);
+        cache.semesters.invalidateAll();
     }
 
     /**
-     * Retrieves a list of all semesters from the database.
+     * Retrieves a list of all semesters, served from the shared reference data cache while valid.
      * 
-     * @return a List of Semester objects
+     * @return a List of Semester objects (a copy of the list; the semesters themselves are shared)
      * @throws Exception if there is an error during the retrieval
      */
     public List<Semester> getAll() throws Exception {
-        return dao.getAll();
+        return new ArrayList<>(cache.semesters.get("all", dao::getAll));
     }
 
     /**
-     * Retrieves a semester by its ID.
+     * Retrieves a semester by its ID, served from the shared reference data cache while valid.
      * 
      * @param id the ID of the semester to retrieve
-     * @return the Semester object with the specified ID
+     * @return the Semester object with the specified ID (shared; do not modify)
      * @throws Exception if there is an error during the retrieval
      */
     public Semester getById(int id) throws Exception {
-        return dao.getById(id);
+        return cache.semesters.get(id, () -> dao.getById(id));
     }
 }
@@ -4,9 +4,12 @@ import persistence.StudentDAO;
 import persistence.EnrollmentDAO;
 import domain.Student;
 import domain.Enrollment;
+import domain.SemesterResult;
 
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * خدمة لإدارة بيانات الطلاب والتسجيلات الخاصة بهم.
@@ -16,11 +19,11 @@ public class StudentService {
     private final EnrollmentDAO enrollmentDAO;
 
     /**
-     * إنشاء الخدمة باستخدام اتصال قاعدة البيانات.
+     * إنشاء الخدمة باستخدام مصدر اتصالات قاعدة البيانات.
      */
-    public StudentService(Connection conn) {
-        this.studentDAO = new StudentDAO(conn);
-        this.enrollmentDAO = new EnrollmentDAO(conn);
+    public StudentService(DataSource dataSource) {
+        this.studentDAO = new StudentDAO(dataSource);
+        this.enrollmentDAO = new EnrollmentDAO(dataSource);
     }
 
     /**
@@ -30,6 +33,14 @@ public class StudentService {
         studentDAO.addStudent(student);
     }
 
+    /**
+     * إضافة مجموعة طلاب دفعة واحدة (معاملة واحدة)، مع تعيين معرف كل طالب.
+     * @return عدد الطلاب المضافين
+     */
+    public int addAll(List<Student> students) throws Exception {
+        return studentDAO.addAll(students);
+    }
+
     /**
      * تحديث بيانات طالب موجود.
      */
@@ -58,6 +69,34 @@ public class StudentService {
         return studentDAO.getAll();
     }
 
+    /**
+     * جلب طالب بمعرفه، أو null إذا لم يوجد.
+     */
+    public Student getById(int id) throws Exception {
+        return studentDAO.getStudentById(id);
+    }
+
+    /**
+     * جلب صفحة من الطلاب مرتبة حسب المعرف، تبدأ بعد المعرف afterId (0 للصفحة الأولى).
+     */
+    public List<Student> getPage(int afterId, int limit) throws Exception {
+        return studentDAO.getPage(afterId, limit);
+    }
+
+    /**
+     * المرور على جميع الطلاب كتدفق بذاكرة ثابتة. يجب إغلاق التدفق بعد الاستخدام.
+     */
+    public Stream<Student> stream() throws Exception {
+        return studentDAO.stream();
+    }
+
+    /**
+     * تنفيذ إجراء لكل طالب دون تحميل جميع الطلاب في الذاكرة.
+     */
+    public void forEach(Consumer<? super Student> action) throws Exception {
+        studentDAO.forEach(action);
+    }
+
     /**
      * الحصول على تسجيلات الطالب حسب اسمه.
      */
@@ -78,4 +117,11 @@ public class StudentService {
     public List<Enrollment> getEnrollmentsByStudentAndSemester(String studentName, String season, int year) throws Exception {
         return studentDAO.getEnrollmentsByStudentAndSemester(studentName, season, year);
     }
+
+    /**
+     * الحصول على نتائج فصل دراسي (المقررات، مجموع الساعات والمعدل) للطلاب المطابقين للاسم.
+     */
+    public List<SemesterResult> getSemesterResults(String studentName, String season, int year) throws Exception {
+        return studentDAO.getSemesterResults(studentName, season, year);
+    }
 }
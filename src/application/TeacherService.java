@@ -2,10 +2,11 @@ package application;
 
 import persistence.TeacherDAO;
 import domain.Teacher;
+import infrastructure.ChangeEvent;
 import infrastructure.TeacherNotifier;
 import infrastructure.TeacherObserver;
 
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,57 +15,70 @@ import java.util.List;
  */
 public class TeacherService {
     private final TeacherDAO teacherDAO;
-    private final List<TeacherObserver> observers = new ArrayList<>();
+    private final ReferenceDataCache.Regions cache;
 
-    public TeacherService(Connection conn) {
-        this.teacherDAO = new TeacherDAO(conn);
+    public TeacherService(DataSource dataSource) {
+        this.teacherDAO = new TeacherDAO(dataSource);
+        this.cache = ReferenceDataCache.of(dataSource);
     }
 
-    // تسجيل مراقب محلي
+    // تسجيل مراقب (عبر TeacherNotifier: إعلام غير متزامن ومجمع، والمراقب يحفظ بمرجع ضعيف)
     public void addObserver(TeacherObserver observer) {
-        observers.add(observer);
+        TeacherNotifier.register(observer);
     }
 
-    // إزالة مراقب محلي
+    // إزالة مراقب
     public void removeObserver(TeacherObserver observer) {
-        observers.remove(observer);
+        TeacherNotifier.unregister(observer);
     }
 
-    // إعلام جميع المراقبين المحليين
-    private void notifyObservers() {
-        for (TeacherObserver observer : observers) {
-            observer.onTeacherListChanged();
-        }
-    }
-
-    // إضافة معلم جديد وتنبيه المراقبين
+    // إضافة معلم جديد (يعين معرفه المولد) وتنبيه المراقبين بحدث إضافة
     public void add(Teacher t) throws Exception {
-        teacherDAO.addTeacher(t);
-        notifyObservers();
-        TeacherNotifier.notifyAllObservers(getAll());
+        int id = teacherDAO.addTeacher(t);
+        cache.teachers.invalidateAll();
+        TeacherNotifier.notifyChange(ChangeEvent.created(id, snapshot(t)));
     }
 
-    // تحديث معلم موجود وتنبيه المراقبين
+    // تحديث معلم موجود وتنبيه المراقبين بحدث تعديل
     public void update(Teacher t) throws Exception {
         teacherDAO.updateTeacher(t);
-        notifyObservers();
-        TeacherNotifier.notifyAllObservers(getAll());
+        invalidateCaches();
+        TeacherNotifier.notifyChange(ChangeEvent.updated(t.getId(), snapshot(t)));
     }
 
-    // حذف معلم وتنبيه المراقبين
+    // حذف معلم وتنبيه المراقبين بحدث حذف
     public void delete(int id) throws Exception {
         teacherDAO.deleteTeacher(id);
-        notifyObservers();
-        TeacherNotifier.notifyAllObservers(getAll());
+        invalidateCaches();
+        TeacherNotifier.notifyChange(ChangeEvent.deleted(id));
     }
 
-    // جلب جميع المعلمين
+    // جلب جميع المعلمين (من الذاكرة المؤقتة المشتركة إن كانت صالحة؛ القائمة نسخة والكائنات مشتركة)
     public List<Teacher> getAll() throws Exception {
-        return teacherDAO.getAll();
+        return new ArrayList<>(cache.teachers.get("all", teacherDAO::getAll));
+    }
+
+    // جلب صفحة من المعلمين مرتبة حسب المعرف، تبدأ بعد المعرف afterId (0 للصفحة الأولى)
+    public List<Teacher> getPage(int afterId, int limit) throws Exception {
+        return teacherDAO.getPage(afterId, limit);
     }
 
     // البحث عن معلمين حسب الاسم
     public List<Teacher> searchByName(String keyword) throws Exception {
         return teacherDAO.searchByName(keyword);
     }
+
+    // المقررات المخزنة تحمل أسماء المعلمين، فتبطل مع المعلمين عند التعديل أو الحذف
+    private void invalidateCaches() {
+        cache.teachers.invalidateAll();
+        cache.courses.invalidateAll();
+    }
+
+    // نسخة مستقلة ترسل مع الحدث حتى لا يغيرها المستدعي بعد النشر (اسم القسم اختياري هنا)
+    private static Teacher snapshot(Teacher t) {
+        Teacher copy = new Teacher(t.getId(), t.getName(), t.getEmail(), t.getGender(), t.getAge(),
+                t.getDepartmentId(), t.getSalary());
+        if (t.getDepartmentName() != null) copy.setDepartmentName(t.getDepartmentName());
+        return copy;
+    }
 }
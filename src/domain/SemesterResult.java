@@ -0,0 +1,89 @@
+package domain;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * نتيجة طالب في فصل دراسي: المقررات المسجلة مع الدرجات، ومجموع الساعات المعتمدة والمعدل
+ * كما حسبتها قاعدة البيانات.
+ */
+public class SemesterResult {
+
+    /**
+     * سطر مقرر في النتيجة.
+     */
+    public static class Line {
+        private final String courseName;
+        private final String teacherName;
+        private final int credits;
+        private final double grade;
+
+        /**
+         * @param courseName اسم المقرر
+         * @param teacherName اسم المعلم (قد يكون null)
+         * @param credits الساعات المعتمدة للمقرر
+         * @param grade الدرجة (NULL في قاعدة البيانات تقرأ 0)؛ القيمة السالبة تعرض N/A
+         */
+        public Line(String courseName, String teacherName, int credits, double grade) {
+            this.courseName = courseName;
+            this.teacherName = teacherName;
+            this.credits = credits;
+            this.grade = grade;
+        }
+
+        /** @return اسم المقرر */
+        public String getCourseName() { return courseName; }
+
+        /** @return اسم المعلم (قد يكون null) */
+        public String getTeacherName() { return teacherName; }
+
+        /** @return الساعات المعتمدة */
+        public int getCredits() { return credits; }
+
+        /** @return الدرجة، أو قيمة سالبة إن لم ترصد بعد */
+        public double getGrade() { return grade; }
+
+        /** @return هل رصدت الدرجة */
+        public boolean isGraded() { return grade >= 0; }
+    }
+
+    private final int studentId;
+    private final String studentName;
+    private final List<Line> lines = new ArrayList<>();
+    private int totalCredits;
+    private double gpa;
+
+    /**
+     * @param studentId معرف الطالب
+     * @param studentName اسم الطالب
+     */
+    public SemesterResult(int studentId, String studentName) {
+        this.studentId = studentId;
+        this.studentName = studentName;
+    }
+
+    /** @return معرف الطالب */
+    public int getStudentId() { return studentId; }
+
+    /** @return اسم الطالب */
+    public String getStudentName() { return studentName; }
+
+    /** @return أسطر المقررات (للقراءة فقط) */
+    public List<Line> getLines() { return Collections.unmodifiableList(lines); }
+
+    /** @param line إضافة سطر مقرر */
+    public void addLine(Line line) { lines.add(line); }
+
+    /** @return مجموع الساعات المعتمدة المسجلة في الفصل */
+    public int getTotalCredits() { return totalCredits; }
+
+    /** @param totalCredits تعيين مجموع الساعات المعتمدة */
+    public void setTotalCredits(int totalCredits) { this.totalCredits = totalCredits; }
+
+    /** @return متوسط درجات الفصل من 100 (الدرجة غير المرصودة تحسب 0، والسالبة لا تحسب) */
+    public double getGpa() { return gpa; }
+
+    /** @param gpa تعيين المعدل */
+    public void setGpa(double gpa) { this.gpa = gpa; }
+}
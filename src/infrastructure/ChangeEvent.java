@@ -0,0 +1,86 @@
+package infrastructure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * حدث تغيير لعنصر واحد: إضافة أو تعديل (مع العنصر بعد التغيير) أو حذف (بالمعرف فقط).
+ * يسمح للمراقب بتعديل الصف أو العنصر المتأثر فقط بدل إعادة تحميل القائمة كاملة.
+ *
+ * @param <T> نوع العنصر
+ */
+public final class ChangeEvent<T> {
+
+    /** نوع التغيير */
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    /**
+     * الحد الأقصى للتغييرات المجمعة في دفعة واحدة؛ بعده يكون إعادة التحميل الكامل أرخص من تطبيقها
+     * واحدًا واحدًا، فتندمج الدفعة في إشعار بدون تغييرات (null).
+     */
+    public static final int MAX_BATCH = Integer.getInteger("sms.events.maxBatch", 256);
+
+    private final Type type;
+    private final int id;
+    private final T entity;
+
+    private ChangeEvent(Type type, int id, T entity) {
+        this.type = type;
+        this.id = id;
+        this.entity = entity;
+    }
+
+    /**
+     * @param id معرف العنصر الجديد
+     * @param entity العنصر بعد الإضافة
+     * @return حدث إضافة
+     */
+    public static <T> ChangeEvent<T> created(int id, T entity) {
+        return new ChangeEvent<>(Type.CREATED, id, entity);
+    }
+
+    /**
+     * @param id معرف العنصر
+     * @param entity العنصر بعد التعديل
+     * @return حدث تعديل
+     */
+    public static <T> ChangeEvent<T> updated(int id, T entity) {
+        return new ChangeEvent<>(Type.UPDATED, id, entity);
+    }
+
+    /**
+     * @param id معرف العنصر المحذوف
+     * @return حدث حذف
+     */
+    public static <T> ChangeEvent<T> deleted(int id) {
+        return new ChangeEvent<>(Type.DELETED, id, null);
+    }
+
+    /** @return نوع التغيير */
+    public Type getType() { return type; }
+
+    /** @return معرف العنصر */
+    public int getId() { return id; }
+
+    /** @return العنصر بعد التغيير، أو null للحذف */
+    public T getEntity() { return entity; }
+
+    /**
+     * دمج تغييرات دفعتين متتاليتين بالترتيب (لاستخدامه مع {@link EventBus.Topic}).
+     * null يعني "تغير كل شيء" ويبتلع أي تغييرات معه، وكذلك تجاوز {@link #MAX_BATCH}.
+     * @param earlier التغييرات الأقدم (تعدل في مكانها إن كانت ArrayList)
+     * @param later التغييرات الأحدث
+     * @return التغييرات المدمجة، أو null
+     */
+    public static <T> List<ChangeEvent<T>> merge(List<ChangeEvent<T>> earlier, List<ChangeEvent<T>> later) {
+        if (earlier == null || later == null || earlier.size() + later.size() > MAX_BATCH) return null;
+        List<ChangeEvent<T>> all = earlier instanceof ArrayList ? earlier : new ArrayList<>(earlier);
+        all.addAll(later);
+        return all;
+    }
+
+    @Override
+    public String toString() {
+        return type + "#" + id;
+    }
+}
@@ -1,31 +1,33 @@
 package infrastructure;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * CourseNotifier هو فئة مساعدة تدير قائمة المراقبين المهتمين بتحديثات قائمة المقررات.
- * تتبع نمط تصميم المراقب (Observer).
+ * CourseNotifier هو فئة مساعدة تدير المراقبين المهتمين بتحديثات قائمة المقررات.
+ * تتبع نمط تصميم المراقب (Observer)، والإعلام يمر عبر {@link EventBus} بشكل غير متزامن ومجمع.
  */
 public class CourseNotifier {
-    // قائمة ثابتة لتخزين جميع المراقبين المسجلين
-    private static final List<CourseObserver> observers = new ArrayList<>();
+    private static final EventBus.Topic<Void> TOPIC = new EventBus.Topic<>("courses");
 
     /**
-     * تسجيل مراقب جديد ليتم إعلامه عند تغيير قائمة المقررات.
+     * تسجيل مراقب جديد ليتم إعلامه عند تغيير قائمة المقررات (يحفظ بمرجع ضعيف).
      * @param observer مراقب المقررات المراد تسجيله
      */
     public static void register(CourseObserver observer) {
-        observers.add(observer);
+        EventBus.getDefault().subscribe(TOPIC, observer, (o, payload) -> o.onCourseListChanged());
+    }
+
+    /**
+     * إلغاء تسجيل مراقب.
+     * @param observer المراقب المراد إزالته
+     */
+    public static void unregister(CourseObserver observer) {
+        EventBus.getDefault().unsubscribe(TOPIC, observer);
     }
 
     /**
      * إعلام جميع المراقبين المسجلين بتغيير قائمة المقررات.
-     * يستدعي طريقة onCourseListChanged() لكل مراقب.
+     * يستدعي طريقة onCourseListChanged() لكل مراقب مرة واحدة لكل دفعة تغييرات.
      */
     public static void notifyAllObservers() {
-        for (CourseObserver observer : observers) {
-            observer.onCourseListChanged();
-        }
+        EventBus.getDefault().publish(TOPIC);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package infrastructure;
+
+/**
+ * استراتيجية للحصول على عدد الساعات المعتمدة لمقرر معين.
+ * تستخدمها حاسبة المعدل التراكمي بدل جلب المقرر كاملًا من قاعدة البيانات لكل تسجيل.
+ */
+public interface CreditsResolver {
+    /**
+     * إرجاع عدد الساعات المعتمدة للمقرر.
+     * @param courseId معرف المقرر
+     * @return عدد الساعات المعتمدة، أو 0 إذا لم يكن المقرر موجودًا
+     * @throws Exception إذا حدث خطأ أثناء جلب البيانات
+     */
+    int getCredits(int courseId) throws Exception;
+}
@@ -0,0 +1,221 @@
+package infrastructure;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+
+/**
+ * ناقل أحداث يجمع إشعارات التغيير ويسلمها للمراقبين بشكل غير متزامن.
+ *
+ * النشر لا يستدعي المراقبين على خيط الكاتب: يسجل الموضوع كمعلق (مع آخر حمولة منشورة) ويجدول
+ * التسليم بعد نافذة تجميع قصيرة ({@link #DEFAULT_WINDOW_MS}). كل ما ينشر على نفس الموضوع خلال
+ * النافذة يندمج في تسليم واحد، فدفعة من 100 تعديل تؤدي إلى تحديث واحد لكل مراقب بدل 100.
+ * النافذة تبدأ مع أول حدث بعد آخر تسليم، فلا يتأخر التسليم أكثر من نافذة واحدة مهما طالت الدفعة.
+ * الموضوع الذي له دالة دمج (مثل قوائم {@link ChangeEvent}) يجمع حمولات الدفعة بدل الاحتفاظ بآخرها.
+ *
+ * المراقبون محفوظون بمراجع ضعيفة: اللوحة التي لم تعد مستخدمة تجمع كنفايات وتزال من القائمة تلقائيًا.
+ * لذلك يجب ألا يحتفظ المعالج بمرجع للمراقب نفسه؛ يتلقاه كمعامل أول (مثل
+ * {@code StudentObserver::onStudentListChanged}).
+ *
+ * المراقبون من مكونات Swing يستدعون على خيط الأحداث (EDT) دفعة واحدة لكل تسليم؛ غيرهم يستدعون
+ * على خيط الناقل. يمكن النشر والاشتراك من أي خيط.
+ */
+public final class EventBus {
+
+    /** نافذة التجميع الافتراضية بالمللي ثانية */
+    public static final long DEFAULT_WINDOW_MS = Long.getLong("sms.events.windowMs", 150);
+
+    private static final EventBus DEFAULT = new EventBus(DEFAULT_WINDOW_MS);
+
+    /**
+     * موضوع أحداث بنوع حمولة محدد.
+     * @param <P> نوع الحمولة (Void إن لم تكن هناك حمولة)
+     */
+    public static final class Topic<P> {
+        private final String name;
+        private final BinaryOperator<P> merger;
+
+        /**
+         * موضوع تسلم فيه آخر حمولة منشورة في الدفعة.
+         * @param name اسم الموضوع (للتشخيص فقط؛ المواضيع تقارن بالهوية)
+         */
+        public Topic(String name) {
+            this(name, (earlier, later) -> later);
+        }
+
+        /**
+         * @param name اسم الموضوع (للتشخيص فقط؛ المواضيع تقارن بالهوية)
+         * @param merger دمج الحمولة المعلقة مع حمولة جديدة في نفس الدفعة (الأقدم أولًا)
+         */
+        public Topic(String name, BinaryOperator<P> merger) {
+            this.name = name;
+            this.merger = merger;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /** اشتراك مراقب في موضوع */
+    private static final class Subscription<S, P> {
+        final WeakReference<S> subscriber;
+        final BiConsumer<? super S, ? super P> handler;
+        final boolean onEdt;
+
+        Subscription(S subscriber, BiConsumer<? super S, ? super P> handler) {
+            this.subscriber = new WeakReference<>(subscriber);
+            this.handler = handler;
+            this.onEdt = subscriber instanceof Component;
+        }
+
+        /** @return مهمة التسليم، أو null إذا جمع المراقب */
+        Runnable delivery(Object payload) {
+            S s = subscriber.get();
+            if (s == null) return null;
+            @SuppressWarnings("unchecked")
+            P p = (P) payload;
+            return () -> handler.accept(s, p);
+        }
+    }
+
+    // محمية بـ this
+    private final Map<Topic<?>, List<Subscription<?, ?>>> subscriptions = new HashMap<>();
+    private final Map<Topic<?>, Object> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+
+    private final long windowMillis;
+    private final ScheduledExecutorService dispatcher;
+
+    /**
+     * @return الناقل المشترك للتطبيق
+     */
+    public static EventBus getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param windowMillis نافذة التجميع بالمللي ثانية (0 للتسليم عند أول فرصة)
+     */
+    public EventBus(long windowMillis) {
+        if (windowMillis < 0) throw new IllegalArgumentException("windowMillis must not be negative");
+        this.windowMillis = windowMillis;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sms-event-bus");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * اشتراك مراقب في موضوع. اشتراك نفس المراقب مرتين في نفس الموضوع يستبدل المعالج.
+     * @param topic الموضوع
+     * @param subscriber المراقب (يحفظ بمرجع ضعيف)
+     * @param handler المعالج؛ يتلقى المراقب وآخر حمولة منشورة في الدفعة
+     * @param <S> نوع المراقب
+     * @param <P> نوع الحمولة
+     */
+    public synchronized <S, P> void subscribe(Topic<P> topic, S subscriber, BiConsumer<? super S, ? super P> handler) {
+        List<Subscription<?, ?>> list = subscriptions.computeIfAbsent(topic, t -> new ArrayList<>());
+        removeSubscriber(list, subscriber);
+        list.add(new Subscription<>(subscriber, handler));
+    }
+
+    /**
+     * إلغاء اشتراك مراقب في موضوع.
+     * @param topic الموضوع
+     * @param subscriber المراقب
+     */
+    public synchronized void unsubscribe(Topic<?> topic, Object subscriber) {
+        List<Subscription<?, ?>> list = subscriptions.get(topic);
+        if (list != null) removeSubscriber(list, subscriber);
+    }
+
+    /**
+     * نشر حدث بدون حمولة.
+     * @param topic الموضوع
+     */
+    public void publish(Topic<?> topic) {
+        publishPayload(topic, null);
+    }
+
+    /**
+     * نشر حدث مع حمولة؛ إذا نشر الموضوع أكثر من مرة في نفس الدفعة تدمج الحمولات بدالة دمج الموضوع
+     * (افتراضيًا تسلم آخر حمولة فقط).
+     * @param topic الموضوع
+     * @param payload الحمولة (قد تكون null)
+     * @param <P> نوع الحمولة
+     */
+    public <P> void publish(Topic<P> topic, P payload) {
+        publishPayload(topic, payload);
+    }
+
+    private synchronized <P> void publishPayload(Topic<P> topic, P payload) {
+        if (pending.containsKey(topic)) {
+            @SuppressWarnings("unchecked")
+            P earlier = (P) pending.get(topic);
+            payload = topic.merger.apply(earlier, payload);
+        }
+        pending.put(topic, payload);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            dispatcher.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** تسليم الدفعة المعلقة: كل مراقب يستدعى مرة واحدة لكل موضوع نشر */
+    private void flush() {
+        List<Runnable> direct = new ArrayList<>();
+        List<Runnable> edt = new ArrayList<>();
+        synchronized (this) {
+            flushScheduled = false;
+            for (Map.Entry<Topic<?>, Object> event : pending.entrySet()) {
+                List<Subscription<?, ?>> list = subscriptions.get(event.getKey());
+                if (list == null) continue;
+                for (Iterator<Subscription<?, ?>> it = list.iterator(); it.hasNext(); ) {
+                    Subscription<?, ?> subscription = it.next();
+                    Runnable delivery = subscription.delivery(event.getValue());
+                    if (delivery == null) {
+                        it.remove();
+                    } else {
+                        (subscription.onEdt ? edt : direct).add(delivery);
+                    }
+                }
+            }
+            pending.clear();
+        }
+        // التسليم خارج القفل حتى يستطيع المراقب النشر أو الاشتراك أثناء معالجة الحدث
+        deliverAll(direct);
+        if (!edt.isEmpty()) SwingUtilities.invokeLater(() -> deliverAll(edt));
+    }
+
+    private static void deliverAll(List<Runnable> deliveries) {
+        for (Runnable delivery : deliveries) {
+            try {
+                delivery.run();
+            } catch (RuntimeException e) {
+                // فشل مراقب واحد لا يمنع تسليم الحدث لبقية المراقبين
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static void removeSubscriber(List<Subscription<?, ?>> list, Object subscriber) {
+        list.removeIf(s -> {
+            Object current = s.subscriber.get();
+            return current == null || current == subscriber;
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package infrastructure;
+
+import application.CourseService;
+
+/**
+ * تنفيذ لـ CreditsResolver يحمّل جدول الساعات المعتمدة لجميع المقررات مرة واحدة
+ * (استعلام واحد) ويحتفظ به في مصفوفة أعداد صحيحة مفهرسة بمعرف المقرر.
+ *
+ * الجدول مرتبط برقم إبطال منطقة المقررات في الذاكرة المؤقتة ({@link CourseService#getCacheGeneration()})،
+ * والتي تبطلها كل عمليات الكتابة في CourseService على نفس مصدر الاتصالات (من أي لوحة أو تقرير)؛ يعاد التحميل عند أول طلب بعد الإبطال. الرقم يقرأ
+ * قبل التحميل، فجدول حُمّل أثناء إبطال يبقى مرتبطًا بالرقم القديم ويعاد تحميله في الطلب التالي.
+ */
+public class PreloadedCreditsResolver implements CreditsResolver {
+    private final CourseService courseService;
+
+    /** الجدول مع رقمي الإبطال (العام والمحلي) اللذين حُمّل عندهما */
+    private static final class Table {
+        final int[] credits;
+        final long generation;
+        final long localGeneration;
+
+        Table(int[] credits, long generation, long localGeneration) {
+            this.credits = credits;
+            this.generation = generation;
+            this.localGeneration = localGeneration;
+        }
+    }
+
+    /** null يعني أن الجدول لم يحمل بعد */
+    private volatile Table table;
+
+    /** رقم الإبطال المحلي عبر {@link #invalidate()} */
+    private volatile long localGeneration;
+
+    /** هل أعيد تحميل الجدول بسبب معرف خارج النطاق منذ آخر تحميل عادي (لتجنب إعادة التحميل المتكرر) */
+    private volatile boolean reloadedForMiss = false;
+
+    /**
+     * إنشاء المحلل.
+     * @param courseService الخدمة المستخدمة لتحميل جدول الساعات
+     */
+    public PreloadedCreditsResolver(CourseService courseService) {
+        this.courseService = courseService;
+    }
+
+    /**
+     * إرجاع الساعات المعتمدة للمقرر من الجدول المحمل مسبقًا.
+     * إذا كان المعرف خارج الجدول (مقرر أضيف بعد التحميل) يعاد التحميل مرة واحدة فقط حتى الإبطال التالي.
+     * @param courseId معرف المقرر
+     * @return عدد الساعات المعتمدة، أو 0 إذا لم يكن المقرر موجودًا
+     * @throws Exception إذا فشل تحميل الجدول
+     */
+    @Override
+    public int getCredits(int courseId) throws Exception {
+        if (courseId <= 0) return 0;
+        int[] credits = current();
+        if (courseId >= credits.length && !reloadedForMiss) {
+            reloadedForMiss = true;
+            // المقرر غير معروف للذاكرة المؤقتة المشتركة أيضًا (أضيف من عميل آخر)، فيلزم تحميل جديد
+            courseService.invalidateCache();
+            credits = reload();
+        }
+        return courseId < credits.length ? credits[courseId] : 0;
+    }
+
+    /**
+     * تحميل الجدول مسبقًا قبل دفعة حسابات (مثلًا قبل حساب المعدلات لجميع الطلاب).
+     * @throws Exception إذا فشل تحميل الجدول
+     */
+    public void preload() throws Exception {
+        current();
+    }
+
+    /**
+     * إبطال الجدول الحالي بحيث يعاد تحميله عند الطلب التالي.
+     */
+    public synchronized void invalidate() {
+        localGeneration++;
+    }
+
+    /** الجدول الحالي، مع إعادة تحميله إذا لم يحمل أو أبطل منذ تحميله */
+    private int[] current() throws Exception {
+        Table t = table;
+        if (t != null && t.generation == courseService.getCacheGeneration()
+                && t.localGeneration == localGeneration) {
+            return t.credits;
+        }
+        reloadedForMiss = false;
+        return reload();
+    }
+
+    private synchronized int[] reload() throws Exception {
+        // الرقمان يقرآن قبل التحميل: إبطال أثناءه يجعل الجدول الناتج قديمًا فيعاد تحميله لاحقًا
+        long generation = courseService.getCacheGeneration();
+        long local = localGeneration;
+        int[] credits = courseService.getCreditsTable();
+        table = new Table(credits, generation, local);
+        return credits;
+    }
+}
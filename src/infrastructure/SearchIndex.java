@@ -0,0 +1,182 @@
+package infrastructure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * فهرس بحث في الذاكرة يعتمد على المقاطع الثلاثية (Trigrams) للبحث عن نص داخل حقول نصية
+ * (مثل الاسم والبريد الإلكتروني) دون الرجوع إلى قاعدة البيانات.
+ *
+ * نتيجة البحث تطابق LIKE '%نص%' في MySQL (غير حساس لحالة الأحرف) على أي من الحقول المفهرسة،
+ * وتعاد العناصر بنفس ترتيبها في القائمة الأصلية. الفهرس غير قابل للتعديل ويعاد بناؤه
+ * عند تغير البيانات (عادة عند إعادة التحميل بعد إشعار من Notifier).
+ *
+ * @param <T> نوع العناصر المفهرسة
+ */
+public class SearchIndex<T> {
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private final List<T> items;
+
+    /** النصوص المفهرسة بعد التحويل إلى أحرف صغيرة: texts[i] حقول العنصر i */
+    private final String[][] texts;
+
+    /** لكل مقطع ثلاثي: أرقام العناصر (تصاعديًا) التي تحتوي عليه */
+    private final Map<Long, int[]> postings;
+
+    /**
+     * بناء الفهرس.
+     * @param items العناصر المراد فهرستها
+     * @param fields دوال استخراج الحقول النصية لكل عنصر (القيم null تعامل كنص فارغ)
+     */
+    @SafeVarargs
+    public SearchIndex(List<T> items, Function<T, String>... fields) {
+        this.items = new ArrayList<>(items);
+        this.texts = new String[this.items.size()][fields.length];
+
+        Map<Long, IntList> building = new HashMap<>();
+        for (int i = 0; i < this.items.size(); i++) {
+            T item = this.items.get(i);
+            for (int f = 0; f < fields.length; f++) {
+                String text = normalize(fields[f].apply(item));
+                texts[i][f] = text;
+                for (int k = 0; k + 3 <= text.length(); k++) {
+                    building.computeIfAbsent(trigram(text, k), key -> new IntList()).addUnique(i);
+                }
+            }
+        }
+
+        this.postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, IntList> e : building.entrySet()) {
+            postings.put(e.getKey(), e.getValue().toArray());
+        }
+    }
+
+    /**
+     * @param <T> نوع العناصر
+     * @return فهرس فارغ
+     */
+    public static <T> SearchIndex<T> empty() {
+        return new SearchIndex<>(Collections.emptyList());
+    }
+
+    /**
+     * البحث عن العناصر التي يحتوي أحد حقولها على النص المعطى.
+     * @param query نص البحث؛ النص الفارغ يعيد جميع العناصر
+     * @return العناصر المطابقة بترتيبها الأصلي
+     */
+    public List<T> search(String query) {
+        int[] positions = searchPositions(query);
+        List<T> result = new ArrayList<>(positions.length);
+        for (int i : positions) {
+            result.add(items.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * البحث مع إرجاع مواقع العناصر المطابقة في القائمة الأصلية بدل العناصر نفسها
+     * (مفيد لعرض جزء من بيانات جدول مبنية بنفس الترتيب).
+     * @param query نص البحث؛ النص الفارغ يعيد جميع المواقع
+     * @return مواقع العناصر المطابقة تصاعديًا
+     */
+    public int[] searchPositions(String query) {
+        String q = normalize(query).trim();
+        if (q.isEmpty()) {
+            int[] all = new int[items.size()];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+            return all;
+        }
+
+        if (q.length() < 3) {
+            // النصوص القصيرة جدًا لا تكوّن مقطعًا ثلاثيًا؛ يكفي المسح الخطي
+            IntList result = new IntList();
+            for (int i = 0; i < items.size(); i++) {
+                if (matches(i, q)) result.addUnique(i);
+            }
+            return result.toArray();
+        }
+
+        // جمع قوائم المقاطع والبدء بأقصرها لتقليل كلفة التقاطع
+        int[][] lists = new int[q.length() - 2][];
+        for (int k = 0; k + 3 <= q.length(); k++) {
+            int[] p = postings.getOrDefault(trigram(q, k), NO_POSTINGS);
+            if (p.length == 0) return new int[0];
+            lists[k] = p;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] candidates = lists[0];
+        for (int l = 1; l < lists.length && candidates.length > 0; l++) {
+            candidates = intersect(candidates, lists[l]);
+        }
+
+        // التحقق النهائي لأن وجود كل المقاطع لا يعني وجود النص متصلًا
+        IntList result = new IntList();
+        for (int i : candidates) {
+            if (matches(i, q)) result.addUnique(i);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * @return عدد العناصر المفهرسة
+     */
+    public int size() {
+        return items.size();
+    }
+
+    private boolean matches(int i, String q) {
+        for (String text : texts[i]) {
+            if (text.contains(q)) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String s, int k) {
+        return ((long) s.charAt(k) << 32) | ((long) s.charAt(k + 1) << 16) | s.charAt(k + 2);
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** قائمة أعداد صحيحة قابلة للنمو بدون تغليف (boxing) */
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        /** إضافة رقم العنصر ما لم يكن آخر رقم مضاف (الأرقام تضاف تصاعديًا) */
+        void addUnique(int value) {
+            if (size > 0 && data[size - 1] == value) return;
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -1,34 +1,38 @@
 // infrastructure/SemesterNotifier.java
 package infrastructure;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import domain.Semester;
-import presentation.EnrollmentGUI;
-import presentation.SemesterGUI;
 
 /**
  * SemesterNotifier هي فئة مساعدة تتبع نمط تصميم المراقب.
- * تدير قائمة من SemesterObservers وتخطرهم عند تغيير قائمة الفصول الدراسية.
+ * تدير SemesterObservers عبر {@link EventBus} وتخطرهم عند تغيير قائمة الفصول الدراسية،
+ * بشكل غير متزامن ومجمع.
  */
 public class SemesterNotifier {
-    private static final List<SemesterObserver> observers = new ArrayList<>();
+    private static final EventBus.Topic<List<Semester>> TOPIC = new EventBus.Topic<>("semesters");
 
     /**
-     * تسجيل EnrollmentGUI كمراقب.
-     * @param enrollmentGUI نسخة EnrollmentGUI المراد تسجيلها
+     * تسجيل مراقب (يحفظ بمرجع ضعيف).
+     * @param observer المراقب المراد تسجيله
      */
-    public static void register(EnrollmentGUI enrollmentGUI) {
-        observers.add((SemesterObserver) enrollmentGUI);
+    public static void register(SemesterObserver observer) {
+        EventBus.getDefault().subscribe(TOPIC, observer, (o, list) -> {
+            if (list == null) {
+                o.onSemesterListChanged();
+            } else {
+                o.onSemesterListChanged(list);
+            }
+        });
     }
 
     /**
-     * تسجيل SemesterGUI كمراقب.
-     * @param semesterGUI نسخة SemesterGUI المراد تسجيلها
+     * إلغاء تسجيل مراقب.
+     * @param observer المراقب المراد إزالته
      */
-    public static void register(SemesterGUI semesterGUI) {
-        observers.add((SemesterObserver) semesterGUI);
+    public static void unregister(SemesterObserver observer) {
+        EventBus.getDefault().unsubscribe(TOPIC, observer);
     }
 
     /**
@@ -36,20 +40,16 @@ public class SemesterNotifier {
      * سيقوم كل مراقب بالرد عن طريق تحديث عرضه أو بياناته وفقًا لذلك.
      */
     public static void notifyAllObservers() {
-        for (SemesterObserver observer : observers) {
-            observer.onSemesterListChanged();
-        }
+        EventBus.getDefault().publish(TOPIC);
     }
 
     /**
      * إعلام جميع المراقبين المسجلين بتغيير قائمة الفصول الدراسية،
-     * مع تمرير القائمة المحدثة إليهم.
+     * مع تمرير القائمة المحدثة إليهم (آخر قائمة في الدفعة فقط).
      *
      * @param updatedList قائمة الفصول الدراسية الجديدة
      */
     public static void notifyAllObservers(List<Semester> updatedList) {
-        for (SemesterObserver observer : observers) {
-            observer.onSemesterListChanged(updatedList);
-        }
+        EventBus.getDefault().publish(TOPIC, updatedList);
     }
 }
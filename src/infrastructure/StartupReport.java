@@ -0,0 +1,59 @@
+package infrastructure;
+
+import java.time.Instant;
+
+/**
+ * تقرير توقيت بدء التشغيل لقياس زمن الإقلاع البارد.
+ *
+ * يُفعَّل بخاصية النظام sms.startupReport=true، وعندها تطبع كل مرحلة سطرًا في الكونسول
+ * يحتوي على الزمن منذ بدء تشغيل العملية، ومدة المرحلة إن وجدت.
+ * عند تعطيله لا تفعل الدوال شيئًا.
+ */
+public final class StartupReport {
+
+    private static final boolean ENABLED = Boolean.getBoolean("sms.startupReport");
+
+    // وقت بدء العملية (أو وقت تحميل هذه الفئة إذا لم يكن متاحًا)
+    private static final Instant PROCESS_START =
+            ProcessHandle.current().info().startInstant().orElseGet(Instant::now);
+
+    private StartupReport() {
+    }
+
+    /**
+     * @return true إذا كان التقرير مفعلًا
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * تسجيل الوصول إلى مرحلة معينة من بدء التشغيل.
+     * @param phase اسم المرحلة
+     */
+    public static void mark(String phase) {
+        if (!ENABLED) return;
+        print(phase, -1);
+    }
+
+    /**
+     * تسجيل مرحلة مع مدتها.
+     * @param phase اسم المرحلة
+     * @param startNanos قيمة System.nanoTime() عند بداية المرحلة
+     */
+    public static void record(String phase, long startNanos) {
+        if (!ENABLED) return;
+        print(phase, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static void print(String phase, long durationMillis) {
+        long uptime = Instant.now().toEpochMilli() - PROCESS_START.toEpochMilli();
+        StringBuilder line = new StringBuilder("[startup] +")
+                .append(uptime).append(" ms  ").append(phase);
+        if (durationMillis >= 0) {
+            line.append(" (").append(durationMillis).append(" ms)");
+        }
+        line.append("  [").append(Thread.currentThread().getName()).append(']');
+        System.out.println(line);
+    }
+}
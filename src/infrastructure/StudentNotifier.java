@@ -1,31 +1,28 @@
 package infrastructure;
 
-import java.util.ArrayList;
-import java.util.List;
-import presentation.EnrollmentGUI;
-import presentation.StudentGUI;
-
 /**
  * StudentNotifier هي فئة مساعدة تتبع نمط تصميم المراقب.
- * تدير قائمة من StudentObservers وتخطرهم عند تغيير قائمة الطلاب.
+ * تدير StudentObservers عبر {@link EventBus} وتخطرهم عند تغيير قائمة الطلاب.
+ *
+ * الإعلام غير متزامن ومجمع: عدة تغييرات متتالية تنتج استدعاءً واحدًا لكل مراقب.
  */
 public class StudentNotifier {
-    private static final List<StudentObserver> observers = new ArrayList<>();
+    private static final EventBus.Topic<Void> TOPIC = new EventBus.Topic<>("students");
 
     /**
-     * تسجيل EnrollmentGUI كمراقب.
-     * @param enrollmentGUI نسخة EnrollmentGUI المراد تسجيلها
+     * تسجيل مراقب (يحفظ بمرجع ضعيف).
+     * @param observer المراقب المراد تسجيله
      */
-    public static void register(EnrollmentGUI enrollmentGUI) {
-        observers.add((StudentObserver) enrollmentGUI);
+    public static void register(StudentObserver observer) {
+        EventBus.getDefault().subscribe(TOPIC, observer, (o, payload) -> o.onStudentListChanged());
     }
 
     /**
-     * تسجيل StudentGUI كمراقب.
-     * @param studentGUI نسخة StudentGUI المراد تسجيلها
+     * إلغاء تسجيل مراقب.
+     * @param observer المراقب المراد إزالته
      */
-    public static void register(StudentGUI studentGUI) {
-        observers.add((StudentObserver) studentGUI);
+    public static void unregister(StudentObserver observer) {
+        EventBus.getDefault().unsubscribe(TOPIC, observer);
     }
 
     /**
@@ -33,8 +30,6 @@ public class StudentNotifier {
      * سيقوم كل مراقب بالرد عن طريق تحديث عرضه أو بياناته وفقًا لذلك.
      */
     public static void notifyAllObservers() {
-        for (StudentObserver observer : observers) {
-            observer.onStudentListChanged();
-        }
+        EventBus.getDefault().publish(TOPIC);
     }
-}
\ No newline at end of file
+}
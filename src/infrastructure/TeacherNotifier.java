@@ -6,26 +6,55 @@ import java.util.List;
 
 /**
  * TeacherNotifier هي فئة مساعدة تتبع نمط المراقب.
- * تسمح لأجزاء مختلفة من التطبيق بتلقي إشعارات عند تحديث قائمة المعلمين.
+ * تسمح لأجزاء مختلفة من التطبيق بتلقي إشعارات عند تحديث قائمة المعلمين، عبر {@link EventBus}
+ * بشكل غير متزامن ومجمع.
+ *
+ * التغييرات الفردية تنشر كأحداث {@link ChangeEvent} وتسلم مجمعة بترتيبها عبر
+ * {@link TeacherObserver#onTeacherChanges(List)}؛ الإشعار العام (أو دفعة كبيرة جدًا) يسلم عبر
+ * {@link TeacherObserver#onTeacherListChanged()} فيعيد المراقب التحميل بنفسه.
  */
 public class TeacherNotifier {
-    private static final List<TeacherObserver> observers = new ArrayList<>();
+    // الحمولة null تعني إعادة تحميل كاملة
+    private static final EventBus.Topic<List<ChangeEvent<Teacher>>> TOPIC =
+            new EventBus.Topic<>("teachers", ChangeEvent::merge);
 
     /**
-     * تسجيل مراقب جديد ليتم إعلامه عند تغيير قائمة المعلمين.
+     * تسجيل مراقب جديد ليتم إعلامه عند تغيير قائمة المعلمين (يحفظ بمرجع ضعيف).
      * @param observer المراقب الذي يريد تلقي التحديثات
      */
     public static void register(TeacherObserver observer) {
-        observers.add(observer);
+        EventBus.getDefault().subscribe(TOPIC, observer, (o, changes) -> {
+            if (changes == null) {
+                o.onTeacherListChanged();
+            } else {
+                o.onTeacherChanges(changes);
+            }
+        });
     }
 
     /**
-     * إعلام جميع المراقبين المسجلين بقائمة المعلمين المحدثة.
-     * @param updatedList أحدث قائمة من كائنات Teacher ليتم بثها للمراقبين
+     * إلغاء تسجيل مراقب.
+     * @param observer المراقب المراد إزالته
      */
-    public static void notifyAllObservers(List<Teacher> updatedList) {
-        for (TeacherObserver observer : observers) {
-            observer.onTeacherListChanged(updatedList);
-        }
+    public static void unregister(TeacherObserver observer) {
+        EventBus.getDefault().unsubscribe(TOPIC, observer);
     }
-}
\ No newline at end of file
+
+    /**
+     * إعلام جميع المراقبين بتغيير قائمة المعلمين دون تفاصيل؛ كل مراقب يعيد التحميل بنفسه مرة واحدة
+     * لكل دفعة تغييرات.
+     */
+    public static void notifyAllObservers() {
+        EventBus.getDefault().publish(TOPIC);
+    }
+
+    /**
+     * إعلام جميع المراقبين بتغيير معلم واحد.
+     * @param change حدث التغيير
+     */
+    public static void notifyChange(ChangeEvent<Teacher> change) {
+        List<ChangeEvent<Teacher>> changes = new ArrayList<>(1);
+        changes.add(change);
+        EventBus.getDefault().publish(TOPIC, changes);
+    }
+}
@@ -19,4 +19,13 @@ public interface TeacherObserver {
      * مفيد للحالات التي يمكن فيها للمراقب جلب أحدث البيانات بنفسه.
      */
     void onTeacherListChanged();
+
+    /**
+     * يتم استدعاؤها مع تغييرات محددة (إضافة/تعديل/حذف) بترتيب حدوثها، ليطبقها المراقب على الصفوف
+     * المتأثرة فقط. التنفيذ الافتراضي يعيد التحميل كاملًا.
+     * @param changes التغييرات منذ آخر إشعار
+     */
+    default void onTeacherChanges(List<ChangeEvent<Teacher>> changes) {
+        onTeacherListChanged();
+    }
 }
\ No newline at end of file
@@ -10,14 +10,23 @@ import application.CourseService;
  * بناءً على ساعات معتمدة للمقررات.
  */
 public class WeightedGradeCalculator implements GradeCalculator {
-    private CourseService courseService;
+    private final CreditsResolver creditsResolver;
 
     /**
      * مُنشئ لتهيئة الحاسبة مع نسخة CourseService.
+     * يتم تحميل جدول الساعات المعتمدة مرة واحدة بدل جلب كل مقرر على حدة.
      * @param courseService الخدمة المستخدمة للوصول إلى بيانات المقرر
      */
     public WeightedGradeCalculator(CourseService courseService) {
-        this.courseService = courseService;
+        this(new PreloadedCreditsResolver(courseService));
+    }
+
+    /**
+     * مُنشئ لتهيئة الحاسبة باستراتيجية محددة لجلب الساعات المعتمدة.
+     * @param creditsResolver الاستراتيجية المستخدمة للحصول على ساعات كل مقرر
+     */
+    public WeightedGradeCalculator(CreditsResolver creditsResolver) {
+        this.creditsResolver = creditsResolver;
     }
 
     /**
@@ -37,7 +46,7 @@ public class WeightedGradeCalculator implements GradeCalculator {
 
         for (Enrollment e : enrollments) {
             double grade = e.getGrade();
-            int credits = courseService.getById(e.getCourseId()).getCredits();
+            int credits = creditsResolver.getCredits(e.getCourseId());
             double normalizedGrade = (grade / 100.0) * 4.0;
             totalPoints += normalizedGrade * credits;
             totalCredits += credits;
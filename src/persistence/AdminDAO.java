@@ -1,8 +1,8 @@
 package persistence;
 
 import domain.Admin;
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -10,14 +10,26 @@ import java.util.List;
  * في قاعدة البيانات عبر استعلامات SQL.
  */
 public class AdminDAO {
-    private final Connection conn;
+
+    /** تحويل صف من جدول المسؤول */
+    private static final RowMapper<Admin> ADMIN = new RowMapper<>((rs, col) -> new Admin(
+            rs.getInt(col[0]),
+            rs.getString(col[1]),
+            rs.getString(col[2]),
+            rs.getString(col[3]),
+            rs.getInt(col[4]),
+            rs.getString(col[5]),
+            rs.getString(col[6])
+    ), "id", "name", "email", "gender", "age", "username", "password");
+
+    private final DataSource dataSource;
 
     /**
      * إنشاء كائن AdminDAO مع تمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات النشط
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
      */
-    public AdminDAO(Connection conn) {
-        this.conn = conn;
+    public AdminDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     /**
@@ -27,7 +39,8 @@ public class AdminDAO {
      */
     public void insert(Admin admin) throws SQLException {
         String sql = "INSERT INTO admin (name, email, gender, age, username, password) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, admin.getName());
             stmt.setString(2, admin.getEmail());
             stmt.setString(3, admin.getGender());
@@ -46,7 +59,8 @@ public class AdminDAO {
      */
     public boolean existsByUsername(String username) throws SQLException {
         String sql = "SELECT COUNT(*) FROM admin WHERE username = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
             return rs.next() && rs.getInt(1) > 0;
@@ -62,23 +76,14 @@ public class AdminDAO {
      */
     public Admin authenticate(String username, String password) throws SQLException {
         String sql = "SELECT * FROM admin WHERE username = ? AND password = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             stmt.setString(2, password);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Admin(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("username"),
-                    rs.getString("password")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ADMIN.first(rs);
             }
         }
-        return null;
     }
 
     /**
@@ -88,7 +93,8 @@ public class AdminDAO {
      */
     public void update(Admin admin) throws SQLException {
         String sql = "UPDATE admin SET name = ?, email = ?, gender = ?, age = ?, password = ? WHERE username = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, admin.getName());
             stmt.setString(2, admin.getEmail());
             stmt.setString(3, admin.getGender());
@@ -106,7 +112,8 @@ public class AdminDAO {
      */
     public void delete(String username) throws SQLException {
         String sql = "DELETE FROM admin WHERE username = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
             stmt.executeUpdate();
         }
@@ -118,23 +125,32 @@ public class AdminDAO {
      * @throws SQLException في حال حدوث خطأ في استعلام SQL
      */
     public List<Admin> getAll() throws SQLException {
-        List<Admin> list = new ArrayList<>();
         String sql = "SELECT * FROM admin";
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                list.add(new Admin(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("username"),
-                    rs.getString("password")
-                ));
+            return ADMIN.list(rs);
+        }
+    }
+
+    /**
+     * جلب صفحة من المسؤولين مرتبة حسب المعرف باستخدام البحث بالمفتاح (Keyset):
+     * تبدأ الصفحة بعد آخر معرف في الصفحة السابقة بدل OFFSET.
+     * @param afterId معرف آخر مسؤول في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد المسؤولين في الصفحة
+     * @return مسؤولو الصفحة؛ صفحة أقصر من limit تعني نهاية الجدول
+     * @throws SQLException في حال حدوث خطأ في استعلام SQL
+     */
+    public List<Admin> getPage(int afterId, int limit) throws SQLException {
+        String sql = "SELECT * FROM admin WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ADMIN.list(rs);
             }
         }
-        return list;
     }
 
     /**
@@ -145,21 +161,12 @@ public class AdminDAO {
      */
     public Admin getByUsername(String username) throws SQLException {
         String sql = "SELECT * FROM admin WHERE username = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, username);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Admin(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("username"),
-                    rs.getString("password")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                return ADMIN.first(rs);
             }
         }
-        return null;
     }
 }
@@ -0,0 +1,137 @@
+package persistence;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * أداة مشتركة بين كائنات DAO لتنفيذ عمليات الكتابة على دفعات (JDBC batch).
+ *
+ * تنفذ كل العناصر على اتصال واحد وداخل معاملة واحدة: إما أن تنجح جميعها أو يتم التراجع عنها كلها.
+ * ترسل العناصر على دفعات بحجم محدد عبر addBatch/executeBatch؛ مع الخيار
+ * rewriteBatchedStatements=true في عنوان الاتصال يعيد MySQL كتابة كل دفعة INSERT
+ * كجملة واحدة متعددة القيم.
+ */
+final class BatchWriter {
+
+    /** حجم الدفعة الافتراضي (قابل للتعديل عبر sms.batch.size) */
+    static final int DEFAULT_BATCH_SIZE = Integer.getInteger("sms.batch.size", 500);
+
+    /**
+     * ربط قيم عنصر واحد بمعاملات الجملة.
+     * @param <T> نوع العنصر
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * استقبال المفتاح المولد لعنصر بعد إدراجه.
+     * @param <T> نوع العنصر
+     */
+    @FunctionalInterface
+    interface KeyConsumer<T> {
+        void accept(T item, int generatedKey);
+    }
+
+    private BatchWriter() {
+    }
+
+    /**
+     * تنفيذ الجملة لكل العناصر على دفعات داخل معاملة واحدة.
+     * @param dataSource مصدر الاتصالات
+     * @param sql جملة SQL ذات المعاملات
+     * @param items العناصر
+     * @param batchSize حجم الدفعة
+     * @param binder دالة ربط قيم العنصر
+     * @param <T> نوع العنصر
+     * @return عدد الصفوف المتأثرة (الدفعات التي لا يعرف عددها تحسب صفًا لكل عنصر)
+     * @throws SQLException في حال فشل أي عنصر (يتم التراجع عن المعاملة كاملة)
+     */
+    static <T> int execute(DataSource dataSource, String sql, Collection<? extends T> items,
+                           int batchSize, Binder<? super T> binder) throws SQLException {
+        return execute(dataSource, sql, items, batchSize, binder, null);
+    }
+
+    /**
+     * تنفيذ جملة INSERT لكل العناصر على دفعات داخل معاملة واحدة مع تعيين المفاتيح المولدة.
+     * @param dataSource مصدر الاتصالات
+     * @param sql جملة INSERT ذات المعاملات
+     * @param items العناصر
+     * @param batchSize حجم الدفعة
+     * @param binder دالة ربط قيم العنصر
+     * @param keyConsumer يستقبل المفتاح المولد لكل عنصر بنفس ترتيب الإدراج، أو null؛ عند التراجع
+     *                    يستقبل كل عنصر المفتاح 0 (غير محفوظ) حتى لا تبقى مفاتيح دفعات سابقة
+     *                    لم تعد موجودة في قاعدة البيانات
+     * @param <T> نوع العنصر
+     * @return عدد الصفوف المتأثرة
+     * @throws SQLException في حال فشل أي عنصر (يتم التراجع عن المعاملة كاملة)
+     */
+    static <T> int execute(DataSource dataSource, String sql, Collection<? extends T> items,
+                           int batchSize, Binder<? super T> binder,
+                           KeyConsumer<? super T> keyConsumer) throws SQLException {
+        if (items.isEmpty()) return 0;
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = keyConsumer != null
+                    ? conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : conn.prepareStatement(sql)) {
+                int affected = 0;
+                List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+                for (T item : items) {
+                    binder.bind(stmt, item);
+                    stmt.addBatch();
+                    chunk.add(item);
+                    if (chunk.size() == batchSize) {
+                        affected += flush(stmt, chunk, keyConsumer);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    affected += flush(stmt, chunk, keyConsumer);
+                }
+                conn.commit();
+                return affected;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                if (keyConsumer != null) {
+                    for (T item : items) keyConsumer.accept(item, 0);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static <T> int flush(PreparedStatement stmt, List<T> chunk,
+                                 KeyConsumer<? super T> keyConsumer) throws SQLException {
+        int affected = 0;
+        for (int count : stmt.executeBatch()) {
+            affected += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        if (keyConsumer != null) {
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                int i = 0;
+                while (keys.next() && i < chunk.size()) {
+                    keyConsumer.accept(chunk.get(i++), keys.getInt(1));
+                }
+            }
+        }
+        return affected;
+    }
+}
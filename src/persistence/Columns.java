@@ -0,0 +1,74 @@
+package persistence;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * مجموعة أعمدة يقرؤها تحويل صفوف، تحل أسماؤها (Labels) إلى مواقع مرة واحدة لكل نتيجة من
+ * {@link ResultSetMetaData} بدل أن يبحث المشغل عن الاسم (دون تمييز حالة الأحرف) عند قراءة كل خلية.
+ *
+ * المواقع المحلولة تعاد كمصفوفة بنفس ترتيب الأسماء المعطاة للمنشئ: {@code rs.getInt(col[0])}
+ * تقرأ العمود الأول في القائمة. عند تكرار الاسم في النتيجة يستخدم أول عمود كما يفعل MySQL Connector/J.
+ *
+ * الكائن ثابت وآمن للمشاركة بين الخيوط، لذا يعرف عادة كثابت في DAO.
+ */
+public final class Columns {
+
+    private final String[] labels;
+    private final Map<String, Integer> positions;
+
+    /**
+     * @param labels أسماء الأعمدة كما تظهر في النتيجة (الاسم المستعار إن وجد)
+     */
+    public Columns(String... labels) {
+        this.labels = labels.clone();
+        this.positions = new HashMap<>(labels.length * 2);
+        for (int i = 0; i < labels.length; i++) {
+            if (positions.putIfAbsent(labels[i].toLowerCase(Locale.ROOT), i) != null) {
+                throw new IllegalArgumentException("Duplicate column label: " + labels[i]);
+            }
+        }
+    }
+
+    /**
+     * @return عدد الأعمدة
+     */
+    public int size() {
+        return labels.length;
+    }
+
+    /**
+     * حل مواقع الأعمدة في نتيجة استعلام (مرة واحدة قبل المرور على الصفوف).
+     * @param rs النتيجة
+     * @return موقع كل عمود (يبدأ من 1) بترتيب الأسماء
+     * @throws SQLException إذا لم يوجد أحد الأعمدة في النتيجة
+     */
+    public int[] resolve(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int[] columns = new int[labels.length];
+        int found = 0;
+        for (int i = 1, n = meta.getColumnCount(); i <= n && found < columns.length; i++) {
+            Integer position = positions.get(meta.getColumnLabel(i).toLowerCase(Locale.ROOT));
+            if (position != null && columns[position] == 0) {
+                columns[position] = i;
+                found++;
+            }
+        }
+        if (found < columns.length) {
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] == 0) throw new SQLException("Column '" + labels[i] + "' not found");
+            }
+        }
+        return columns;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(labels);
+    }
+}
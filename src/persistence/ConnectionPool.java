@@ -0,0 +1,443 @@
+package persistence;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * مجمع اتصالات (Connection Pool) مدمج يطبق واجهة DataSource.
+ *
+ * يحتفظ بعدد محدود من الاتصالات الفعلية ويعيد استخدامها بدلًا من فتح اتصال جديد
+ * مع كل عملية. يدعم:
+ * <ul>
+ *   <li>حدًا أقصى لعدد الاتصالات المستعارة في نفس الوقت</li>
+ *   <li>إغلاق الاتصالات الخاملة بعد مدة محددة (مع الإبقاء على حد أدنى منها)</li>
+ *   <li>التحقق من صلاحية الاتصال عند الاستعارة</li>
+ *   <li>كشف التسريب: طباعة مكان استعارة أي اتصال لم يُعد خلال المدة المحددة</li>
+ *   <li>ذاكرة مؤقتة للجمل المجهزة لكل اتصال فعلي ({@link StatementCache})، تبقى معه بين الاستعارات</li>
+ * </ul>
+ *
+ * يجب إغلاق الاتصال المستعار (close) لإعادته إلى المجمع، ويفضل استخدام try-with-resources.
+ */
+public class ConnectionPool implements DataSource {
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final int minIdle;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+
+    /** عدادات ذاكرة الجمل المجهزة لكل الاتصالات */
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+
+    /** الاتصالات الخاملة الجاهزة للاستعارة (الأحدث استخدامًا في المقدمة) */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+    /** الاتصالات المستعارة حاليًا مع معلومات الاستعارة لكشف التسريب */
+    private final Map<PooledConnectionHandler, Borrow> borrowed = new ConcurrentHashMap<>();
+
+    /** يحد عدد الاتصالات المستعارة في نفس الوقت */
+    private final Semaphore permits;
+
+    /** خيط الصيانة الدوري (إخلاء الخاملة وكشف التسريب) */
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed = false;
+    private volatile int loginTimeout = 0;
+    private volatile PrintWriter logWriter;
+
+    /**
+     * إنشاء مجمع اتصالات.
+     *
+     * @param url عنوان قاعدة البيانات
+     * @param user اسم المستخدم
+     * @param password كلمة المرور
+     * @param maxSize الحد الأقصى لعدد الاتصالات (≥ 1)
+     * @param minIdle الحد الأدنى للاتصالات الخاملة التي لا يتم إخلاؤها
+     * @param idleTimeoutMillis مدة الخمول قبل إغلاق الاتصال
+     * @param borrowTimeoutMillis أقصى مدة انتظار لاستعارة اتصال عند امتلاء المجمع
+     * @param leakThresholdMillis المدة التي يعتبر بعدها الاتصال المستعار تسريبًا (0 لتعطيل الكشف)
+     * @throws IllegalArgumentException إذا كانت القيم غير صالحة
+     */
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, int minIdle,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis) {
+        this(url, user, password, maxSize, minIdle, idleTimeoutMillis, borrowTimeoutMillis, leakThresholdMillis, 0);
+    }
+
+    /**
+     * إنشاء مجمع اتصالات مع ذاكرة مؤقتة للجمل المجهزة.
+     *
+     * @param url عنوان قاعدة البيانات
+     * @param user اسم المستخدم
+     * @param password كلمة المرور
+     * @param maxSize الحد الأقصى لعدد الاتصالات (≥ 1)
+     * @param minIdle الحد الأدنى للاتصالات الخاملة التي لا يتم إخلاؤها
+     * @param idleTimeoutMillis مدة الخمول قبل إغلاق الاتصال
+     * @param borrowTimeoutMillis أقصى مدة انتظار لاستعارة اتصال عند امتلاء المجمع
+     * @param leakThresholdMillis المدة التي يعتبر بعدها الاتصال المستعار تسريبًا (0 لتعطيل الكشف)
+     * @param statementCacheSize أقصى عدد للجمل المجهزة المحفوظة لكل اتصال (0 لتعطيل الذاكرة)
+     * @throws IllegalArgumentException إذا كانت القيم غير صالحة
+     */
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, int minIdle,
+                          long idleTimeoutMillis, long borrowTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (url == null || url.isBlank()) throw new IllegalArgumentException("URL is required");
+        if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+        if (minIdle < 0 || minIdle > maxSize) throw new IllegalArgumentException("Invalid minimum idle size");
+        if (statementCacheSize < 0) throw new IllegalArgumentException("Statement cache size must not be negative");
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = minIdle;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationTimeoutSeconds = 2;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sms-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, 30_000));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * استعارة اتصال من المجمع. يتم فتح اتصال جديد فقط إذا لم يوجد اتصال خامل صالح.
+     *
+     * @return اتصال يعاد إلى المجمع عند استدعاء close()
+     * @throws SQLException إذا انتهت مهلة الانتظار أو فشل فتح الاتصال
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            IdleConnection reused = takeValidIdle();
+            PooledConnectionHandler handler = reused != null
+                    ? new PooledConnectionHandler(reused.connection, reused.statements)
+                    : new PooledConnectionHandler(openPhysical());
+            borrowed.put(handler, new Borrow(leakThresholdMillis > 0 ? new Throwable("Connection borrowed here") : null));
+            return wrap(handler);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * لا يدعم المجمع الاستعارة باسم مستخدم مختلف.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool is bound to a single set of credentials");
+    }
+
+    /**
+     * فتح اتصالات مسبقًا حتى الوصول إلى الحد الأدنى للاتصالات الخاملة.
+     * مفيد عند بدء التشغيل لتجنب تكلفة المصافحة عند أول استعلام.
+     *
+     * @throws SQLException في حال فشل فتح أحد الاتصالات
+     */
+    public void prefill() throws SQLException {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() + borrowed.size() >= Math.max(minIdle, 1)) return;
+            }
+            Connection c = openPhysical();
+            synchronized (idle) {
+                idle.addLast(new IdleConnection(c, newStatementCache(c)));
+            }
+        }
+    }
+
+    /**
+     * إغلاق المجمع وجميع الاتصالات الخاملة. الاتصالات المستعارة تُغلق عند إعادتها.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            for (IdleConnection ic : idle) closeQuietly(ic.connection);
+            idle.clear();
+        }
+    }
+
+    /** @return عدد الاتصالات المستعارة حاليًا */
+    public int getActiveCount() { return borrowed.size(); }
+
+    /** @return عدد الاتصالات الخاملة حاليًا */
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /** @return الحد الأقصى لحجم المجمع */
+    public int getMaxSize() { return maxSize; }
+
+    /** @return عدد مرات إعادة استخدام جملة مجهزة من الذاكرة المؤقتة */
+    public long getStatementCacheHits() { return statementCounters.hits.sum(); }
+
+    /** @return عدد الجمل المجهزة من جديد (غير موجودة في الذاكرة المؤقتة) */
+    public long getStatementCacheMisses() { return statementCounters.misses.sum(); }
+
+    /** @return عدد الجمل المغلقة لتجاوز حد الذاكرة المؤقتة */
+    public long getStatementCacheEvictions() { return statementCounters.evictions.sum(); }
+
+    private Connection openPhysical() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private StatementCache newStatementCache(Connection physical) {
+        return new StatementCache(physical, statementCacheSize, statementCounters);
+    }
+
+    /**
+     * أخذ اتصال خامل صالح من المجمع، مع إغلاق أي اتصال يفشل في التحقق.
+     */
+    private IdleConnection takeValidIdle() {
+        while (true) {
+            IdleConnection ic;
+            synchronized (idle) {
+                ic = idle.pollFirst();
+            }
+            if (ic == null) return null;
+            if (isUsable(ic.connection)) return ic;
+            closeQuietly(ic.connection);
+        }
+    }
+
+    /**
+     * التحقق من صلاحية الاتصال قبل تسليمه.
+     */
+    private boolean isUsable(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * إعادة الاتصال الفعلي إلى المجمع بعد إغلاقه منطقيًا من المستخدم.
+     */
+    private void release(PooledConnectionHandler handler) {
+        if (borrowed.remove(handler) == null) return;
+        Connection physical = handler.physical;
+        try {
+            // الجمل التي لم يغلقها المستخدم تعاد إلى الذاكرة (وتغلق نتائجها) قبل إعادة الاتصال
+            handler.statements.releaseAll();
+            if (closed || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            // إعادة الاتصال إلى حالته الافتراضية قبل إعادة استخدامه
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) physical.setReadOnly(false);
+            physical.clearWarnings();
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(physical, handler.statements));
+            }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * مهمة الصيانة الدورية: إخلاء الاتصالات الخاملة القديمة والإبلاغ عن التسريبات.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        synchronized (idle) {
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > minIdle) {
+                IdleConnection ic = it.next();
+                if (now - ic.since >= idleTimeoutMillis) {
+                    it.remove();
+                    closeQuietly(ic.connection);
+                }
+            }
+        }
+
+        if (leakThresholdMillis <= 0) return;
+        for (Borrow b : borrowed.values()) {
+            if (!b.reported && now - b.since >= leakThresholdMillis) {
+                b.reported = true;
+                System.err.println("⚠️ Possible connection leak: connection held for " + (now - b.since) + " ms");
+                if (b.origin != null) b.origin.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * تغليف الاتصال الفعلي بوكيل (Proxy) يعيده إلى المجمع عند close() بدل إغلاقه.
+     */
+    private Connection wrap(PooledConnectionHandler handler) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler);
+    }
+
+    private static void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    // --- واجهة DataSource ---
+
+    @Override
+    public PrintWriter getLogWriter() { return logWriter; }
+
+    @Override
+    public void setLogWriter(PrintWriter out) { this.logWriter = out; }
+
+    @Override
+    public void setLoginTimeout(int seconds) { this.loginTimeout = seconds; }
+
+    @Override
+    public int getLoginTimeout() { return loginTimeout; }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) return iface.cast(this);
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * اتصال خامل مع جمله المجهزة المحفوظة ووقت آخر استخدام.
+     */
+    private static final class IdleConnection {
+        final Connection connection;
+        final StatementCache statements;
+        final long since = System.currentTimeMillis();
+
+        IdleConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * معلومات استعارة اتصال: الوقت ومكان الاستدعاء (لكشف التسريب).
+     */
+    private static final class Borrow {
+        final long since = System.currentTimeMillis();
+        final Throwable origin;
+        volatile boolean reported = false;
+
+        Borrow(Throwable origin) {
+            this.origin = origin;
+        }
+    }
+
+    /**
+     * معالج الوكيل للاتصال المستعار: يعترض close() وisClosed() ويمنع الاستخدام بعد الإعادة،
+     * ويمرر prepareStatement عبر ذاكرة الجمل المجهزة للاتصال الفعلي.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private final StatementCache statements;
+        private boolean returned = false;
+
+        PooledConnectionHandler(Connection physical) {
+            this(physical, newStatementCache(physical));
+        }
+
+        PooledConnectionHandler(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            if (returned) throw new SQLException("Connection has already been returned to the pool");
+            if (method.getName().equals("prepareStatement")) {
+                PreparedStatement cached = statements.prepare((Connection) proxy, method, args);
+                if (cached != null) return cached;
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,22 +1,52 @@
 package persistence;
 
 import domain.Course;
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * فئة DAO للتعامل مع جدول المقررات الدراسية (course) في قاعدة البيانات.
  */
 public class CourseDAO {
-    private final Connection conn;
+
+    /** تحويل صف من استعلام يتضمن teacher_name وdepartment_name إلى كائن مقرر */
+    private static final RowMapper<Course> COURSE_WITH_NAMES = new RowMapper<>((rs, col) -> {
+        Course c = new Course(
+            rs.getInt(col[0]),
+            rs.getString(col[1]),
+            rs.getString(col[2]),
+            rs.getInt(col[3]),
+            rs.getInt(col[4]),
+            rs.getInt(col[5])
+        );
+        c.setTeacherName(rs.getString(col[6]));
+        c.setDepartmentName(rs.getString(col[7]));
+        return c;
+    }, "id", "name", "description", "credits", "teacher_id", "department_id", "teacher_name", "department_name");
+
+    private final DataSource dataSource;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
 
     /**
      * إنشاء كائن CourseDAO مع تمرير اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
      */
-    public CourseDAO(Connection conn) {
-        this.conn = conn;
+    public CourseDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
     }
 
     /**
@@ -26,7 +56,8 @@ public class CourseDAO {
      */
     public void add(Course course) throws SQLException {
         String sql = "INSERT INTO course (name, description, credits, teacher_id, department_id) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, course.getName());
             stmt.setString(2, course.getDescription());
             stmt.setInt(3, course.getCredits());
@@ -36,6 +67,24 @@ public class CourseDAO {
         }
     }
 
+    /**
+     * إضافة مجموعة مقررات على دفعات داخل معاملة واحدة.
+     * يتم تعيين المعرف المولد لكل مقرر بعد الإضافة.
+     * @param courses المقررات الجديدة
+     * @return عدد المقررات المضافة
+     * @throws SQLException في حال فشل أي إضافة (يتم التراجع عن الكل)
+     */
+    public int addAll(Collection<Course> courses) throws SQLException {
+        String sql = "INSERT INTO course (name, description, credits, teacher_id, department_id) VALUES (?, ?, ?, ?, ?)";
+        return BatchWriter.execute(dataSource, sql, courses, batchSize, (stmt, course) -> {
+            stmt.setString(1, course.getName());
+            stmt.setString(2, course.getDescription());
+            stmt.setInt(3, course.getCredits());
+            stmt.setInt(4, course.getTeacherId());
+            stmt.setInt(5, course.getDepartmentId());
+        }, Course::setId);
+    }
+
     /**
      * تحديث بيانات مقرر موجود في قاعدة البيانات.
      * @param course كائن Course يحتوي البيانات المحدثة (يجب أن يحتوي على معرف id صحيح)
@@ -43,7 +92,8 @@ public class CourseDAO {
      */
     public void update(Course course) throws SQLException {
         String sql = "UPDATE course SET name=?, description=?, credits=?, teacher_id=?, department_id=? WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, course.getName());
             stmt.setString(2, course.getDescription());
             stmt.setInt(3, course.getCredits());
@@ -61,7 +111,8 @@ public class CourseDAO {
      */
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM course WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             stmt.executeUpdate();
         }
@@ -73,29 +124,41 @@ public class CourseDAO {
      * @throws SQLException في حال حدوث خطأ في تنفيذ الاستعلام
      */
     public List<Course> getAll() throws SQLException {
-        List<Course> list = new ArrayList<>();
         String sql = "SELECT c.*, t.name AS teacher_name, d.name AS department_name " +
                      "FROM course c " +
                      "LEFT JOIN teacher t ON c.teacher_id = t.id " +
                      "LEFT JOIN department d ON c.department_id = d.id";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                Course c = new Course(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("description"),
-                    rs.getInt("credits"),
-                    rs.getInt("teacher_id"),
-                    rs.getInt("department_id")
-                );
-                c.setTeacherName(rs.getString("teacher_name"));
-                c.setDepartmentName(rs.getString("department_name"));
-                list.add(c);
+            return COURSE_WITH_NAMES.list(rs);
+        }
+    }
+
+    /**
+     * جلب صفحة من المقررات (مع أسماء المعلمين والأقسام) مرتبة حسب المعرف باستخدام البحث بالمفتاح (Keyset):
+     * تبدأ الصفحة بعد آخر معرف في الصفحة السابقة بدل OFFSET.
+     * @param afterId معرف آخر مقرر في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد المقررات في الصفحة
+     * @return مقررات الصفحة؛ صفحة أقصر من limit تعني نهاية الجدول
+     * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
+     */
+    public List<Course> getPage(int afterId, int limit) throws SQLException {
+        String sql = "SELECT c.*, t.name AS teacher_name, d.name AS department_name " +
+                     "FROM course c " +
+                     "LEFT JOIN teacher t ON c.teacher_id = t.id " +
+                     "LEFT JOIN department d ON c.department_id = d.id " +
+                     "WHERE c.id > ? ORDER BY c.id LIMIT ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return COURSE_WITH_NAMES.list(rs);
             }
         }
-        return list;
     }
 
     /**
@@ -111,25 +174,48 @@ public class CourseDAO {
                      "LEFT JOIN department d ON c.department_id = d.id " +
                      "WHERE c.id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Course c = new Course(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getInt("credits"),
-                        rs.getInt("teacher_id"),
-                        rs.getInt("department_id")
-                    );
-                    c.setTeacherName(rs.getString("teacher_name"));
-                    c.setDepartmentName(rs.getString("department_name"));
-                    return c;
+                return COURSE_WITH_NAMES.first(rs);
+            }
+        }
+    }
+
+    /**
+     * جلب جدول الساعات المعتمدة لجميع المقررات في استعلام واحد خفيف (بدون JOIN).
+     * الجدول مفهرس بمعرف المقرر: table[id] = عدد الساعات، و0 للمعرفات غير الموجودة.
+     * @return مصفوفة الساعات المعتمدة مفهرسة بمعرف المقرر
+     * @throws SQLException في حال حدوث خطأ في تنفيذ الاستعلام
+     */
+    public int[] getCreditsTable() throws SQLException {
+        String sql = "SELECT id, credits FROM course";
+        int[] ids = new int[64];
+        int[] credits = new int[64];
+        int count = 0;
+        int maxId = 0;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                    credits = Arrays.copyOf(credits, count * 2);
                 }
+                ids[count] = rs.getInt(1);
+                credits[count] = rs.getInt(2);
+                maxId = Math.max(maxId, ids[count]);
+                count++;
             }
         }
-        return null;
+
+        int[] table = new int[maxId + 1];
+        for (int i = 0; i < count; i++) {
+            table[ids[i]] = credits[i];
+        }
+        return table;
     }
 
     /**
@@ -139,31 +225,18 @@ public class CourseDAO {
      * @throws SQLException في حال حدوث خطأ في تنفيذ الاستعلام
      */
     public List<Course> findByTeacherId(int teacherId) throws SQLException {
-        List<Course> list = new ArrayList<>();
         String sql = "SELECT c.*, t.name AS teacher_name, d.name AS department_name " +
                      "FROM course c " +
                      "LEFT JOIN teacher t ON c.teacher_id = t.id " +
                      "LEFT JOIN department d ON c.department_id = d.id " +
                      "WHERE c.teacher_id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, teacherId);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Course c = new Course(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("description"),
-                        rs.getInt("credits"),
-                        rs.getInt("teacher_id"),
-                        rs.getInt("department_id")
-                    );
-                    c.setTeacherName(rs.getString("teacher_name"));
-                    c.setDepartmentName(rs.getString("department_name"));
-                    list.add(c);
-                }
+                return COURSE_WITH_NAMES.list(rs);
             }
         }
-        return list;
     }
 }
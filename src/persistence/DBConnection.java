@@ -1,29 +1,82 @@
 package persistence;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
  * فئة لإدارة اتصالات قاعدة البيانات.
- * تحتوي على معلومات الاتصال وتوفير اتصال جديد عند الطلب.
+ * تحتوي على معلومات الاتصال وتوفر مجمع اتصالات مشترك (Connection Pool) لكل التطبيق.
+ *
+ * يمكن تعديل الإعدادات عبر خصائص النظام (System properties) مثل:
+ * sms.db.url، sms.db.user، sms.db.password، sms.pool.maxSize، sms.pool.statementCacheSize، sms.batch.size.
  */
 public class DBConnection {
     // عنوان URL لقاعدة البيانات (مع اسم قاعدة البيانات student_mgmt)
-    private static final String URL = "jdbc:mysql://localhost:3306/student_mgmt";
+    // rewriteBatchedStatements يجعل MySQL يدمج دفعات INSERT في جملة واحدة متعددة القيم
+    // useServerPrepStmts يجهز الجمل في الخادم مرة واحدة (مع ذاكرة الجمل في المجمع لا يعاد التحليل
+    // ولا التخطيط عند التكرار)، وcachePrepStmts يحفظ ما يغلق منها فعليًا في ذاكرة المشغل
+    private static final String URL = System.getProperty("sms.db.url",
+            "jdbc:mysql://localhost:3306/student_mgmt?rewriteBatchedStatements=true"
+                    + "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSqlLimit=2048");
 
     // اسم المستخدم للاتصال بقاعدة البيانات
-    private static final String USER = "root";
+    private static final String USER = System.getProperty("sms.db.user", "root");
 
     // كلمة المرور للاتصال بقاعدة البيانات
-    private static final String PASSWORD = "";
+    private static final String PASSWORD = System.getProperty("sms.db.password", "");
+
+    // إعدادات المجمع
+    private static final int POOL_MAX_SIZE = Integer.getInteger("sms.pool.maxSize", 10);
+    private static final int POOL_MIN_IDLE = Integer.getInteger("sms.pool.minIdle", 2);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("sms.pool.idleTimeoutMs", 5 * 60_000L);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("sms.pool.borrowTimeoutMs", 10_000L);
+    private static final long POOL_LEAK_THRESHOLD_MS = Long.getLong("sms.pool.leakThresholdMs", 60_000L);
+    private static final int POOL_STATEMENT_CACHE_SIZE = Integer.getInteger("sms.pool.statementCacheSize", 64);
+
+    // المجمع المشترك، يتم إنشاؤه عند أول طلب
+    private static volatile ConnectionPool pool;
+
+    /**
+     * الحصول على مصدر البيانات المشترك (مجمع الاتصالات).
+     * جميع الخدمات وكائنات DAO تستعير منه اتصالًا لكل عملية.
+     *
+     * @return مجمع الاتصالات المشترك
+     */
+    public static DataSource getDataSource() {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DBConnection.class) {
+                p = pool;
+                if (p == null) {
+                    p = new ConnectionPool(URL, USER, PASSWORD,
+                            POOL_MAX_SIZE, POOL_MIN_IDLE,
+                            POOL_IDLE_TIMEOUT_MS, POOL_BORROW_TIMEOUT_MS, POOL_LEAK_THRESHOLD_MS,
+                            POOL_STATEMENT_CACHE_SIZE);
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * فتح الحد الأدنى من الاتصالات في المجمع مسبقًا، حتى لا يدفع أول استعلام تكلفة المصافحة.
+     *
+     * @throws SQLException في حال فشل الاتصال بقاعدة البيانات
+     */
+    public static void prefill() throws SQLException {
+        ((ConnectionPool) getDataSource()).prefill();
+    }
 
     /**
-     * إنشاء وفتح اتصال جديد بقاعدة البيانات.
-     * @return كائن Connection يمثل الاتصال المفتوح
+     * استعارة اتصال من المجمع المشترك.
+     * يجب إغلاق الاتصال بعد الاستخدام لإعادته إلى المجمع.
+     *
+     * @return كائن Connection مستعار من المجمع
      * @throws SQLException في حال فشل الاتصال بقاعدة البيانات
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return getDataSource().getConnection();
     }
 }
@@ -1,23 +1,54 @@
 package persistence;
 
 import domain.Department;
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * فئة للوصول إلى بيانات الأقسام في قاعدة البيانات.
- * توفر عمليات الاستعلام عن جميع الأقسام أو قسم معين بواسطة المعرف.
+ * توفر عمليات الاستعلام عن جميع الأقسام أو قسم معين بواسطة المعرف، وإضافة الأقسام دفعة واحدة.
  */
 public class DepartmentDAO {
-    private final Connection conn;
+
+    /** تحويل صف من جدول القسم */
+    private static final RowMapper<Department> DEPARTMENT = new RowMapper<>(
+            (rs, col) -> new Department(rs.getInt(col[0]), rs.getString(col[1])), "id", "name");
+
+    private final DataSource dataSource;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
 
     /**
      * إنشاء DAO مع ربط الاتصال بقاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات المفتوح
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
+     */
+    public DepartmentDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * إضافة مجموعة أقسام على دفعات داخل معاملة واحدة.
+     * يتم تعيين المعرف المولد لكل قسم بعد الإضافة.
+     * @param departments الأقسام الجديدة
+     * @return عدد الأقسام المضافة
+     * @throws SQLException في حالة فشل أي إضافة (يتم التراجع عن الكل)
      */
-    public DepartmentDAO(Connection conn) {
-        this.conn = conn;
+    public int addAll(Collection<Department> departments) throws SQLException {
+        String sql = "INSERT INTO department (name) VALUES (?)";
+        return BatchWriter.execute(dataSource, sql, departments, batchSize,
+                (stmt, d) -> stmt.setString(1, d.getName()), Department::setId);
     }
 
     /**
@@ -26,16 +57,13 @@ public class DepartmentDAO {
      * @throws SQLException في حالة حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public List<Department> getAll() throws SQLException {
-        List<Department> list = new ArrayList<>();
         String sql = "SELECT * FROM department";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                list.add(new Department(rs.getInt("id"), rs.getString("name")));
-            }
+            return DEPARTMENT.list(rs);
         }
-        return list;
     }
 
     /**
@@ -46,14 +74,12 @@ public class DepartmentDAO {
      */
     public Department getById(int id) throws SQLException {
         String sql = "SELECT * FROM department WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Department(rs.getInt("id"), rs.getString("name"));
-                }
+                return DEPARTMENT.first(rs);  // null إذا لم يتم العثور على القسم
             }
         }
-        return null; // إذا لم يتم العثور على القسم
     }
 }
@@ -1,23 +1,80 @@
 package persistence;
 
 import domain.*;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * فئة للوصول إلى بيانات التسجيلات في قاعدة البيانات.
  * توفر عمليات إضافة، تحديث، حذف، واستعلام عن التسجيلات مع تفاصيل مرتبطة.
  */
 public class EnrollmentDAO {
-    private final Connection conn;
+    /** رمز خطأ MySQL لتكرار قيمة مفتاح فريد (ER_DUP_ENTRY) */
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    /** أعمدة استعلامات التسجيل مع تفاصيلها؛ المواقع في مصفوفة المواقع المحلولة بالثوابت التالية */
+    private static final Columns ENROLLMENT = new Columns(
+            "student_id", "student_name", "student_email", "student_gender", "student_age", "major", "gpa",
+            "semester_id", "season", "year", "is_open",
+            "teacher_id", "teacher_name", "teacher_email", "teacher_gender", "teacher_age", "department_id", "salary",
+            "course_id", "course_name", "course_department", "grade");
+    private static final int STUDENT_ID = 0, STUDENT_NAME = 1, STUDENT_EMAIL = 2, STUDENT_GENDER = 3,
+            STUDENT_AGE = 4, MAJOR = 5, GPA = 6;
+    private static final int SEMESTER_ID = 7, SEASON = 8, YEAR = 9, IS_OPEN = 10;
+    private static final int TEACHER_ID = 11, TEACHER_NAME = 12, TEACHER_EMAIL = 13, TEACHER_GENDER = 14,
+            TEACHER_AGE = 15, DEPARTMENT_ID = 16, SALARY = 17;
+    private static final int COURSE_ID = 18, COURSE_NAME = 19, COURSE_DEPARTMENT = 20, GRADE = 21;
+
+    private final DataSource dataSource;
+
+    /** خريطة هوية مشتركة بين الاستعلامات (اختيارية)، وإلا تُنشأ خريطة جديدة لكل استعلام */
+    private volatile IdentityMap sessionIdentityMap;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
+
+    /** حجم الجلب لعمليات القراءة المتدفقة */
+    private volatile int fetchSize = ResultSetStream.DEFAULT_FETCH_SIZE;
 
     /**
      * إنشاء DAO مع ربط الاتصال بقاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات المفتوح
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
+     */
+    public EnrollmentDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تفعيل خريطة هوية مشتركة بين جميع استعلامات هذا الكائن (جلسة)،
+     * بحيث يعاد استخدام نفس كائنات الطلاب والمعلمين والمقررات والفصول عبر الاستعلامات.
+     * يجب استدعاء clear() على الخريطة عند تغير تلك البيانات.
+     * @param identityMap الخريطة المشتركة، أو null للعودة إلى خريطة جديدة لكل استعلام
      */
-    public EnrollmentDAO(Connection conn) {
-        this.conn = conn;
+    public void setSessionIdentityMap(IdentityMap identityMap) {
+        this.sessionIdentityMap = identityMap;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * تحديد حجم الجلب لعمليات القراءة المتدفقة (الافتراضي sms.stream.fetchSize أو Integer.MIN_VALUE
+     * الذي يعني صفًا بصف في MySQL؛ القيم الموجبة تتطلب useCursorFetch=true في عنوان الاتصال).
+     * @param fetchSize حجم الجلب
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     /**
@@ -27,7 +84,8 @@ public class EnrollmentDAO {
      */
     public void add(Enrollment e) throws SQLException {
         String sql = "INSERT INTO enrollment (student_id, course_id, grade, semester_id, teacher_id) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, e.getStudentId());
             stmt.setInt(2, e.getCourseId());
             stmt.setDouble(3, e.getGrade());
@@ -37,20 +95,49 @@ public class EnrollmentDAO {
         }
     }
 
+    /**
+     * إضافة تسجيل جديد ما لم يكن الطالب مسجلًا في نفس المقرر، في رحلة واحدة إلى قاعدة البيانات.
+     * يعتمد على المفتاح الأساسي (student_id, course_id) بدل استعلام تحقق مسبق، لذا تبقى العملية
+     * ذرية عند تسجيل نفس الطالب من أكثر من جهاز في نفس الوقت، وإعادة المحاولة آمنة.
+     * @param e كائن التسجيل الجديد
+     * @return true إذا تمت الإضافة، false إذا كان التسجيل موجودًا مسبقًا
+     * @throws SQLException في حالة أي خطأ آخر (مثل معرف طالب أو مقرر غير موجود)
+     */
+    public boolean addIfAbsent(Enrollment e) throws SQLException {
+        try {
+            add(e);
+            return true;
+        } catch (SQLException ex) {
+            if (isDuplicateKey(ex)) return false;
+            throw ex;
+        }
+    }
+
+    /**
+     * التحقق من أن الخطأ ناتج عن تكرار المفتاح الأساسي وليس عن قيد آخر
+     * (قيود المفاتيح الأجنبية تشترك في نفس SQLState 23000).
+     */
+    private static boolean isDuplicateKey(SQLException ex) {
+        return ex.getErrorCode() == MYSQL_DUPLICATE_ENTRY
+                || (ex.getErrorCode() == 0 && "23505".equals(ex.getSQLState()));
+    }
+
     /**
      * تحديث بيانات تسجيل موجود في قاعدة البيانات.
      * @param e كائن التسجيل مع البيانات المحدثة
+     * @return عدد الصفوف المحدثة (0 إذا لم يكن الطالب مسجلًا في المقرر)
      * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
      */
-    public void update(Enrollment e) throws SQLException {
+    public int update(Enrollment e) throws SQLException {
         String sql = "UPDATE enrollment SET grade = ?, semester_id = ?, teacher_id = ? WHERE student_id = ? AND course_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setDouble(1, e.getGrade());
             stmt.setInt(2, e.getSemester().getId());
             stmt.setInt(3, e.getTeacher().getId());
             stmt.setInt(4, e.getStudentId());
             stmt.setInt(5, e.getCourseId());
-            stmt.executeUpdate();
+            return stmt.executeUpdate();
         }
     }
 
@@ -58,15 +145,189 @@ public class EnrollmentDAO {
      * حذف تسجيل من قاعدة البيانات بناءً على معرف الطالب والمقرر.
      * @param studentId معرف الطالب
      * @param courseId معرف المقرر
+     * @return عدد الصفوف المحذوفة (0 إذا لم يوجد التسجيل)
      * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
      */
-    public void delete(int studentId, int courseId) throws SQLException {
+    public int delete(int studentId, int courseId) throws SQLException {
         String sql = "DELETE FROM enrollment WHERE student_id = ? AND course_id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
-            stmt.executeUpdate();
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * إضافة مجموعة تسجيلات على دفعات داخل معاملة واحدة.
+     * @param enrollments التسجيلات الجديدة
+     * @return عدد الصفوف المضافة
+     * @throws SQLException في حالة فشل أي تسجيل (يتم التراجع عن الكل)
+     */
+    public int addAll(Collection<Enrollment> enrollments) throws SQLException {
+        String sql = "INSERT INTO enrollment (student_id, course_id, grade, semester_id, teacher_id) VALUES (?, ?, ?, ?, ?)";
+        return BatchWriter.execute(dataSource, sql, enrollments, batchSize, (stmt, e) -> {
+            stmt.setInt(1, e.getStudentId());
+            stmt.setInt(2, e.getCourseId());
+            stmt.setDouble(3, e.getGrade());
+            stmt.setInt(4, e.getSemester().getId());
+            stmt.setInt(5, e.getTeacher().getId());
+        });
+    }
+
+    /**
+     * تحديث مجموعة تسجيلات (مثل رصد الدرجات النهائية) على دفعات داخل معاملة واحدة.
+     * @param enrollments التسجيلات مع البيانات المحدثة
+     * @return عدد الصفوف المحدثة
+     * @throws SQLException في حالة فشل أي تحديث (يتم التراجع عن الكل)
+     */
+    public int updateAll(Collection<Enrollment> enrollments) throws SQLException {
+        String sql = "UPDATE enrollment SET grade = ?, semester_id = ?, teacher_id = ? WHERE student_id = ? AND course_id = ?";
+        return BatchWriter.execute(dataSource, sql, enrollments, batchSize, (stmt, e) -> {
+            stmt.setDouble(1, e.getGrade());
+            stmt.setInt(2, e.getSemester().getId());
+            stmt.setInt(3, e.getTeacher().getId());
+            stmt.setInt(4, e.getStudentId());
+            stmt.setInt(5, e.getCourseId());
+        });
+    }
+
+    /**
+     * حذف مجموعة تسجيلات (بمعرف الطالب والمقرر لكل تسجيل) على دفعات داخل معاملة واحدة.
+     * @param enrollments التسجيلات المراد حذفها
+     * @return عدد الصفوف المحذوفة
+     * @throws SQLException في حالة فشل أي حذف (يتم التراجع عن الكل)
+     */
+    public int deleteAll(Collection<Enrollment> enrollments) throws SQLException {
+        String sql = "DELETE FROM enrollment WHERE student_id = ? AND course_id = ?";
+        return BatchWriter.execute(dataSource, sql, enrollments, batchSize, (stmt, e) -> {
+            stmt.setInt(1, e.getStudentId());
+            stmt.setInt(2, e.getCourseId());
+        });
+    }
+
+    /**
+     * جلب صفحة من التسجيلات مع تفاصيلها مرتبة حسب المفتاح الأساسي (student_id, course_id)
+     * باستخدام البحث بالمفتاح المركب (Keyset): تبدأ الصفحة بعد آخر تسجيل في الصفحة السابقة بدل OFFSET،
+     * فيقرأ MySQL صفوف الصفحة فقط من الفهرس الأساسي مهما تقدمت الصفحات.
+     * @param afterStudentId معرف الطالب في آخر تسجيل من الصفحة السابقة (0 للصفحة الأولى)
+     * @param afterCourseId معرف المقرر في آخر تسجيل من الصفحة السابقة (0 للصفحة الأولى)
+     * الصفوف غير الصالحة لا تضاف إلى الصفحة، فيكمل الجلب بعد آخر صف مقروء حتى تمتلئ الصفحة،
+     * لذلك لا تقصر الصفحة عن limit إلا في نهاية الجدول.
+     * @param limit الحد الأقصى لعدد التسجيلات في الصفحة
+     * @return تسجيلات الصفحة؛ صفحة أقصر من limit تعني نهاية الجدول
+     * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
+     */
+    public List<Enrollment> getPage(int afterStudentId, int afterCourseId, int limit) throws SQLException {
+        List<Enrollment> list = new ArrayList<>(Math.min(limit, 1024));
+        String sql = "SELECT e.*, s.season, s.year, s.is_open, t.id AS teacher_id, t.name AS teacher_name, " +
+                     "t.email AS teacher_email, t.gender AS teacher_gender, t.age AS teacher_age, " +
+                     "t.department_id, t.salary, st.name AS student_name, st.email AS student_email, " +
+                     "st.gender AS student_gender, st.age AS student_age, st.major, st.gpa, " +
+                     "c.name AS course_name, c.department_id AS course_department " +
+                     "FROM enrollment e " +
+                     "JOIN semester s ON e.semester_id = s.id " +
+                     "JOIN teacher t ON e.teacher_id = t.id " +
+                     "JOIN student st ON e.student_id = st.id " +
+                     "JOIN course c ON e.course_id = c.id " +
+                     "WHERE e.student_id > ? OR (e.student_id = ? AND e.course_id > ?) " +
+                     "ORDER BY e.student_id, e.course_id LIMIT ?";
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            IdentityMap identityMap = identityMapForQuery();
+            int studentId = afterStudentId, courseId = afterCourseId;
+            while (list.size() < limit) {
+                int wanted = limit - list.size();
+                stmt.setInt(1, studentId);
+                stmt.setInt(2, studentId);
+                stmt.setInt(3, courseId);
+                stmt.setInt(4, wanted);
+                int rows = 0;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    int[] col = null;
+                    while (rs.next()) {
+                        if (col == null) col = ENROLLMENT.resolve(rs);
+                        rows++;
+                        studentId = rs.getInt(col[STUDENT_ID]);
+                        courseId = rs.getInt(col[COURSE_ID]);
+                        Enrollment enrollment = mapEnrollment(rs, col, identityMap);
+                        if (enrollment != null) list.add(enrollment);
+                    }
+                }
+                if (rows < wanted) break;  // نهاية الجدول
+            }
+        }
+        return list;
+    }
+
+    /**
+     * جلب معرفات الطلاب المسجلين في مقرر معين (عبر فهرس course_id).
+     * @param courseId معرف المقرر
+     * @return معرفات الطلاب
+     * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
+     */
+    public List<Integer> findStudentIdsByCourse(int courseId) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        String sql = "SELECT student_id FROM enrollment WHERE course_id = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, courseId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
         }
+        return ids;
+    }
+
+    /**
+     * المرور على جميع التسجيلات مع تفاصيلها كتدفق دون تحميلها في الذاكرة (للتصدير وإعادة حساب
+     * المعدلات والتقارير على ملايين التسجيلات). التسجيلات مرتبة حسب الطالب (ترتيب المفتاح الأساسي)،
+     * ولا يحتفظ التدفق إلا بالطالب الحالي إضافة إلى المعلمين والمقررات والفصول المشتركة.
+     *
+     * يبقى الاتصال مستعارًا حتى إغلاق التدفق، لذا يجب استخدامه داخل try-with-resources.
+     * أخطاء القراءة أثناء المرور تطلق كـ {@link UncheckedSQLException}.
+     * @return تدفق التسجيلات (يجب إغلاقه)
+     * @throws SQLException في حالة فشل تنفيذ الاستعلام
+     */
+    public Stream<Enrollment> stream() throws SQLException {
+        String sql = "SELECT e.*, s.season, s.year, s.is_open, t.id AS teacher_id, t.name AS teacher_name, " +
+                     "t.email AS teacher_email, t.gender AS teacher_gender, t.age AS teacher_age, " +
+                     "t.department_id, t.salary, st.name AS student_name, st.email AS student_email, " +
+                     "st.gender AS student_gender, st.age AS student_age, st.major, st.gpa, " +
+                     "c.name AS course_name, c.department_id AS course_department " +
+                     "FROM enrollment e " +
+                     "JOIN semester s ON e.semester_id = s.id " +
+                     "JOIN teacher t ON e.teacher_id = t.id " +
+                     "JOIN student st ON e.student_id = st.id " +
+                     "JOIN course c ON e.course_id = c.id " +
+                     "ORDER BY e.student_id, e.course_id";
+
+        IdentityMap identityMap = new IdentityMap();
+        int[] currentStudent = {-1};
+        int[][] resolved = new int[1][];
+        return ResultSetStream.open(dataSource, sql, fetchSize, rs -> {
+            int[] col = resolved[0];
+            if (col == null) col = resolved[0] = ENROLLMENT.resolve(rs);
+            int studentId = rs.getInt(col[STUDENT_ID]);
+            if (studentId != currentStudent[0]) {
+                identityMap.forgetStudents();
+                currentStudent[0] = studentId;
+            }
+            return mapEnrollment(rs, col, identityMap);
+        });
+    }
+
+    /**
+     * تنفيذ إجراء لكل تسجيل دون تحميل الجدول في الذاكرة (انظر {@link #stream()}).
+     * لا يجوز استدعاء عمليات قاعدة بيانات أخرى من داخل الإجراء على نفس الاتصال.
+     * @param action الإجراء المنفذ لكل تسجيل
+     * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ أو القراءة
+     */
+    public void forEach(Consumer<? super Enrollment> action) throws SQLException {
+        ResultSetStream.forEach(stream(), action);
     }
 
     /**
@@ -87,14 +348,10 @@ public class EnrollmentDAO {
                      "JOIN student st ON e.student_id = st.id " +
                      "JOIN course c ON e.course_id = c.id";
 
-        try (Statement stmt = conn.createStatement(); 
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement(); 
              ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Enrollment enrollment = mapEnrollment(rs);
-                if(enrollment != null) {
-                    list.add(enrollment);
-                }
-            }
+            mapEnrollments(rs, identityMapForQuery(), list);
         }
         return list;
     }
@@ -119,12 +376,13 @@ public class EnrollmentDAO {
                      "JOIN course c ON e.course_id = c.id " +
                      "WHERE e.student_id = ? AND e.course_id = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, studentId);
             stmt.setInt(2, courseId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapEnrollment(rs);
+                    return mapEnrollment(rs, ENROLLMENT.resolve(rs), identityMapForQuery());
                 }
             }
         }
@@ -151,15 +409,11 @@ public class EnrollmentDAO {
                      "JOIN course c ON e.course_id = c.id " +
                      "WHERE st.name LIKE ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + name + "%");
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Enrollment enrollment = mapEnrollment(rs);
-                    if(enrollment != null) {
-                        list.add(enrollment);
-                    }
-                }
+                mapEnrollments(rs, identityMapForQuery(), list);
             }
         }
         return list;
@@ -187,81 +441,117 @@ public class EnrollmentDAO {
                      "JOIN course c ON e.course_id = c.id " +
                      "WHERE c.name LIKE ? AND s.season = ? AND s.year = ?";
 
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + courseName + "%");
             stmt.setString(2, season);
             stmt.setInt(3, year);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    Enrollment enrollment = mapEnrollment(rs);
-                    if(enrollment != null) {
-                        list.add(enrollment);
-                    }
-                }
+                mapEnrollments(rs, identityMapForQuery(), list);
             }
         }
         return list;
     }
 
+    /**
+     * إرجاع خريطة الهوية المستخدمة لاستعلام واحد: الخريطة المشتركة إن وجدت، وإلا خريطة جديدة.
+     */
+    private IdentityMap identityMapForQuery() {
+        IdentityMap session = sessionIdentityMap;
+        return session != null ? session : new IdentityMap();
+    }
+
+    /**
+     * تحويل كل صفوف النتيجة إلى تسجيلات (مع حل مواقع الأعمدة مرة واحدة) وإضافتها إلى القائمة.
+     * @param rs النتيجة (قبل أول صف)
+     * @param identityMap خريطة الهوية الخاصة بالاستعلام الحالي
+     * @param list القائمة التي تضاف إليها التسجيلات الصالحة
+     * @throws SQLException في حالة حدوث خطأ في القراءة من ResultSet
+     */
+    private void mapEnrollments(ResultSet rs, IdentityMap identityMap, List<Enrollment> list) throws SQLException {
+        if (!rs.next()) return;
+        int[] col = ENROLLMENT.resolve(rs);
+        do {
+            Enrollment enrollment = mapEnrollment(rs, col, identityMap);
+            if (enrollment != null) {
+                list.add(enrollment);
+            }
+        } while (rs.next());
+    }
+
+    // دوال إنشاء الكيانات من صف التسجيل؛ لا تلتقط متغيرات فتنشأ مرة واحدة بدل أربع دوال لكل صف
+
+    private static final IdentityMap.Loader<Student> STUDENT_LOADER = (rs, col) -> {
+        String studentName = rs.getString(col[STUDENT_NAME]);
+        String studentEmail = rs.getString(col[STUDENT_EMAIL]);
+
+        if (studentName == null || studentName.isBlank()) {
+            throw new IllegalArgumentException("student_name is null or blank");
+        }
+
+        if (studentEmail == null || studentEmail.isBlank()) {
+            throw new IllegalArgumentException("student_email is null or blank");
+        }
+
+        return new Student(
+            rs.getInt(col[STUDENT_ID]),
+            studentName,
+            studentEmail,
+            rs.getString(col[STUDENT_GENDER]),
+            rs.getInt(col[STUDENT_AGE]),
+            rs.getString(col[MAJOR]),
+            rs.getDouble(col[GPA])
+        );
+    };
+
+    private static final IdentityMap.Loader<Semester> SEMESTER_LOADER = (rs, col) -> new Semester(
+        rs.getInt(col[SEMESTER_ID]),
+        rs.getString(col[SEASON]),
+        rs.getInt(col[YEAR]),
+        rs.getBoolean(col[IS_OPEN])
+    );
+
+    private static final IdentityMap.Loader<Teacher> TEACHER_LOADER = (rs, col) -> new Teacher(
+        rs.getInt(col[TEACHER_ID]),
+        rs.getString(col[TEACHER_NAME]),
+        rs.getString(col[TEACHER_EMAIL]),
+        rs.getString(col[TEACHER_GENDER]),
+        rs.getInt(col[TEACHER_AGE]),
+        rs.getInt(col[DEPARTMENT_ID]),
+        rs.getDouble(col[SALARY])
+    );
+
+    private static final IdentityMap.Loader<Course> COURSE_LOADER = (rs, col) -> {
+        Course c = new Course();
+        c.setId(rs.getInt(col[COURSE_ID]));
+        c.setName(rs.getString(col[COURSE_NAME]));
+        c.setDepartmentId(rs.getInt(col[COURSE_DEPARTMENT]));
+        return c;
+    };
+
     /**
      * دالة مساعدة لتحويل صف من ResultSet إلى كائن Enrollment مع التفاصيل المرتبطة.
+     * يعاد استخدام كائنات الطالب والمعلم والمقرر والفصل عبر خريطة الهوية إذا سبق إنشاؤها
+     * لنفس المعرف، فلا تُقرأ أعمدتها ولا تُنشأ كائنات مكررة.
      * تتجاهل السجلات غير الصالحة مع طباعة تحذير.
      * @param rs كائن ResultSet الحالي
+     * @param col مواقع أعمدة {@link #ENROLLMENT} في النتيجة
+     * @param identityMap خريطة الهوية الخاصة بالاستعلام الحالي
      * @return كائن Enrollment أو null إذا كانت البيانات غير صالحة
      * @throws SQLException في حالة حدوث خطأ في القراءة من ResultSet
      */
-    private Enrollment mapEnrollment(ResultSet rs) throws SQLException {
+    private Enrollment mapEnrollment(ResultSet rs, int[] col, IdentityMap identityMap) throws SQLException {
         try {
-            String studentName = rs.getString("student_name");
-            String studentEmail = rs.getString("student_email");
-
-            if (studentName == null || studentName.isBlank()) {
-                System.err.println("⚠️ Skipping record: student_name is null or blank");
-                return null;
-            }
-
-            if (studentEmail == null || studentEmail.isBlank()) {
-                System.err.println("⚠️ Skipping record: student_email is null or blank");
-                return null;
-            }
-
-            Semester semester = new Semester(
-                rs.getInt("semester_id"),
-                rs.getString("season"),
-                rs.getInt("year"),
-                rs.getBoolean("is_open")
-            );
-
-            Teacher teacher = new Teacher(
-                rs.getInt("teacher_id"),
-                rs.getString("teacher_name"),
-                rs.getString("teacher_email"),
-                rs.getString("teacher_gender"),
-                rs.getInt("teacher_age"),
-                rs.getInt("department_id"),
-                rs.getDouble("salary")
-            );
-
-            Student student = new Student(
-                rs.getInt("student_id"),
-                studentName,
-                studentEmail,
-                rs.getString("student_gender"),
-                rs.getInt("student_age"),
-                rs.getString("major"),
-                rs.getDouble("gpa")
-            );
-
-            Course course = new Course();
-            course.setId(rs.getInt("course_id"));
-            course.setName(rs.getString("course_name"));
-            course.setDepartmentId(rs.getInt("course_department"));
+            Student student = identityMap.student(rs.getInt(col[STUDENT_ID]), rs, col, STUDENT_LOADER);
+            Semester semester = identityMap.semester(rs.getInt(col[SEMESTER_ID]), rs, col, SEMESTER_LOADER);
+            Teacher teacher = identityMap.teacher(rs.getInt(col[TEACHER_ID]), rs, col, TEACHER_LOADER);
+            Course course = identityMap.course(rs.getInt(col[COURSE_ID]), rs, col, COURSE_LOADER);
 
             Enrollment enrollment = new Enrollment();
             enrollment.setStudent(student);
             enrollment.setCourse(course);
-            enrollment.setGrade(rs.getDouble("grade"));
+            enrollment.setGrade(rs.getDouble(col[GRADE]));
             enrollment.setSemester(semester);
             enrollment.setTeacher(teacher);
 
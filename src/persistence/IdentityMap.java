@@ -0,0 +1,125 @@
+package persistence;
+
+import domain.Course;
+import domain.Semester;
+import domain.Student;
+import domain.Teacher;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * خريطة هوية (Identity Map) للكيانات التي يتم إنشاؤها من نتائج الاستعلامات.
+ *
+ * عند قراءة صفوف مرتبطة (JOIN) يتكرر نفس الطالب أو المعلم أو المقرر أو الفصل في صفوف كثيرة؛
+ * بدل إنشاء كائن جديد لكل صف يتم إرجاع الكائن الذي أنشئ أول مرة لنفس المعرف.
+ *
+ * تستخدم عادة لاستعلام واحد فقط، ويمكن مشاركتها بين عدة استعلامات (جلسة) مع استدعاء
+ * clear() عند تغير البيانات الأصلية حتى لا تُعرض قيم قديمة.
+ */
+public class IdentityMap {
+
+    /**
+     * دالة إنشاء كيان من الصف الحالي، تستدعى فقط إذا لم يكن الكيان موجودًا في الخريطة.
+     * تستقبل الصف ومواقع الأعمدة كمعاملات بدل التقاطها، فتعرف الدالة مرة واحدة كثابت ولا ينشأ
+     * كائن دالة جديد لكل صف.
+     * @param <T> نوع الكيان
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load(ResultSet rs, int[] col) throws SQLException;
+    }
+
+    private final Map<Integer, Student> students = new HashMap<>();
+    private final Map<Integer, Teacher> teachers = new HashMap<>();
+    private final Map<Integer, Course> courses = new HashMap<>();
+    private final Map<Integer, Semester> semesters = new HashMap<>();
+
+    /**
+     * إرجاع الطالب بالمعرف المحدد، أو إنشاؤه وتخزينه إذا لم يكن موجودًا.
+     * @param id معرف الطالب
+     * @param rs النتيجة موضوعة على الصف الحالي
+     * @param col مواقع الأعمدة التي تقرؤها دالة الإنشاء
+     * @param loader دالة إنشاء الطالب من الصف الحالي
+     * @return كائن الطالب المشترك لهذا المعرف
+     * @throws SQLException في حال فشل القراءة من ResultSet
+     */
+    public synchronized Student student(int id, ResultSet rs, int[] col, Loader<Student> loader) throws SQLException {
+        return resolve(students, id, rs, col, loader);
+    }
+
+    /**
+     * إرجاع المعلم بالمعرف المحدد، أو إنشاؤه وتخزينه إذا لم يكن موجودًا.
+     * @param id معرف المعلم
+     * @param rs النتيجة موضوعة على الصف الحالي
+     * @param col مواقع الأعمدة التي تقرؤها دالة الإنشاء
+     * @param loader دالة إنشاء المعلم من الصف الحالي
+     * @return كائن المعلم المشترك لهذا المعرف
+     * @throws SQLException في حال فشل القراءة من ResultSet
+     */
+    public synchronized Teacher teacher(int id, ResultSet rs, int[] col, Loader<Teacher> loader) throws SQLException {
+        return resolve(teachers, id, rs, col, loader);
+    }
+
+    /**
+     * إرجاع المقرر بالمعرف المحدد، أو إنشاؤه وتخزينه إذا لم يكن موجودًا.
+     * @param id معرف المقرر
+     * @param rs النتيجة موضوعة على الصف الحالي
+     * @param col مواقع الأعمدة التي تقرؤها دالة الإنشاء
+     * @param loader دالة إنشاء المقرر من الصف الحالي
+     * @return كائن المقرر المشترك لهذا المعرف
+     * @throws SQLException في حال فشل القراءة من ResultSet
+     */
+    public synchronized Course course(int id, ResultSet rs, int[] col, Loader<Course> loader) throws SQLException {
+        return resolve(courses, id, rs, col, loader);
+    }
+
+    /**
+     * إرجاع الفصل الدراسي بالمعرف المحدد، أو إنشاؤه وتخزينه إذا لم يكن موجودًا.
+     * @param id معرف الفصل الدراسي
+     * @param rs النتيجة موضوعة على الصف الحالي
+     * @param col مواقع الأعمدة التي تقرؤها دالة الإنشاء
+     * @param loader دالة إنشاء الفصل من الصف الحالي
+     * @return كائن الفصل المشترك لهذا المعرف
+     * @throws SQLException في حال فشل القراءة من ResultSet
+     */
+    public synchronized Semester semester(int id, ResultSet rs, int[] col, Loader<Semester> loader) throws SQLException {
+        return resolve(semesters, id, rs, col, loader);
+    }
+
+    /**
+     * إفراغ الخريطة بالكامل (مثلًا بعد تعديل بيانات الطلاب أو المقررات).
+     */
+    public synchronized void clear() {
+        students.clear();
+        teachers.clear();
+        courses.clear();
+        semesters.clear();
+    }
+
+    /**
+     * إفراغ الطلاب فقط مع الإبقاء على المعلمين والمقررات والفصول (الأقل عددًا).
+     * يستخدم عند المرور على التسجيلات مرتبة حسب الطالب، بحيث لا يحتفظ إلا بالطالب الحالي.
+     */
+    public synchronized void forgetStudents() {
+        students.clear();
+    }
+
+    /**
+     * @return عدد الكيانات المخزنة حاليًا من جميع الأنواع
+     */
+    public synchronized int size() {
+        return students.size() + teachers.size() + courses.size() + semesters.size();
+    }
+
+    private static <T> T resolve(Map<Integer, T> map, int id, ResultSet rs, int[] col,
+                                 Loader<T> loader) throws SQLException {
+        T existing = map.get(id);
+        if (existing != null) return existing;
+        T created = loader.load(rs, col);
+        map.put(id, created);
+        return created;
+    }
+}
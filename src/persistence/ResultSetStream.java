@@ -0,0 +1,136 @@
+package persistence;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * أداة مشتركة بين كائنات DAO لقراءة نتائج استعلام كتدفق (Stream) صفًا بصف،
+ * بدل تحميل الجدول كاملًا في قائمة، بحيث تبقى الذاكرة ثابتة مهما كان عدد الصفوف.
+ *
+ * تستخدم جملة للأمام فقط وللقراءة فقط (TYPE_FORWARD_ONLY, CONCUR_READ_ONLY) مع حجم جلب
+ * قابل للضبط؛ القيمة الافتراضية Integer.MIN_VALUE تجعل MySQL Connector/J يرسل الصفوف واحدًا
+ * تلو الآخر بدل تخزين النتيجة كاملة في ذاكرة العميل.
+ *
+ * الاتصال يبقى مستعارًا من المجمع حتى إغلاق التدفق، ولا يمكن تنفيذ استعلام آخر عليه خلال ذلك،
+ * لذا يجب إغلاق التدفق دائمًا (try-with-resources) وعدم استدعاء DAO آخر على نفس الاتصال أثناء المرور.
+ */
+final class ResultSetStream {
+
+    /** حجم الجلب الافتراضي (قابل للتعديل عبر sms.stream.fetchSize) */
+    static final int DEFAULT_FETCH_SIZE = Integer.getInteger("sms.stream.fetchSize", Integer.MIN_VALUE);
+
+    /**
+     * تحويل الصف الحالي إلى كائن.
+     * @param <T> نوع الكائن
+     */
+    @FunctionalInterface
+    interface Mapper<T> {
+        /**
+         * @param rs النتيجة موضوعة على الصف الحالي
+         * @return الكائن، أو null لتجاهل الصف
+         */
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    /**
+     * تنفيذ الاستعلام وإرجاع تدفق كسول على نتائجه. يغلق الاتصال والجملة والنتيجة عند إغلاق التدفق.
+     * @param dataSource مصدر الاتصالات
+     * @param sql جملة SELECT بدون معاملات
+     * @param fetchSize حجم الجلب
+     * @param mapper دالة تحويل الصف
+     * @param <T> نوع العناصر
+     * @return تدفق العناصر (يجب إغلاقه)
+     * @throws SQLException إذا فشل تنفيذ الاستعلام
+     */
+    static <T> Stream<T> open(DataSource dataSource, String sql, int fetchSize, Mapper<T> mapper)
+            throws SQLException {
+        Connection conn = dataSource.getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(rs, stmt, conn, e);
+            throw e;
+        }
+
+        ResultSet results = rs;
+        PreparedStatement statement = stmt;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    while (results.next()) {
+                        T item = mapper.map(results);
+                        if (item != null) {
+                            action.accept(item);
+                            return true;
+                        }
+                    }
+                    return false;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            SQLException failure = closeQuietly(results, statement, conn, null);
+            if (failure != null) throw new UncheckedSQLException(failure);
+        });
+    }
+
+    /**
+     * تنفيذ الإجراء لكل عنصر في التدفق ثم إغلاقه، مع إعادة أخطاء قاعدة البيانات كـ SQLException.
+     * @param stream التدفق المفتوح
+     * @param action الإجراء
+     * @param <T> نوع العناصر
+     * @throws SQLException إذا فشلت القراءة
+     */
+    static <T> void forEach(Stream<T> stream, Consumer<? super T> action) throws SQLException {
+        try (Stream<T> s = stream) {
+            s.forEach(action);
+        } catch (UncheckedSQLException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * إغلاق الموارد بالترتيب العكسي مع الاستمرار رغم الأخطاء.
+     * @return أول خطأ حدث أثناء الإغلاق (أو null)، مضافًا إلى primary إن وجد
+     */
+    private static SQLException closeQuietly(ResultSet rs, PreparedStatement stmt, Connection conn,
+                                             Exception primary) {
+        SQLException failure = null;
+        AutoCloseable[] resources = {rs, stmt, conn};
+        for (AutoCloseable resource : resources) {
+            if (resource == null) continue;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (primary != null) {
+                    primary.addSuppressed(e);
+                } else if (failure == null) {
+                    failure = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        return failure;
+    }
+}
@@ -0,0 +1,97 @@
+package persistence;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * تحويل صفوف نتيجة استعلام إلى كائنات بالقراءة بموقع العمود بدل اسمه.
+ *
+ * يحل أسماء الأعمدة إلى مواقع مرة واحدة لكل نتيجة (انظر {@link Columns})، ثم يستدعي دالة القراءة
+ * لكل صف مع المواقع المحلولة، فلا يتكرر البحث عن الاسم في كل خلية. ثابت وآمن للمشاركة بين الخيوط.
+ *
+ * مثال:
+ * <pre>
+ * RowMapper&lt;Department&gt; DEPARTMENT = new RowMapper&lt;&gt;(
+ *         (rs, col) -&gt; new Department(rs.getInt(col[0]), rs.getString(col[1])),
+ *         "id", "name");
+ * </pre>
+ * @param <T> نوع الكائن
+ */
+public final class RowMapper<T> {
+
+    /**
+     * قراءة الصف الحالي بمواقع الأعمدة المحلولة.
+     * @param <T> نوع الكائن
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        /**
+         * @param rs النتيجة موضوعة على الصف الحالي
+         * @param col مواقع الأعمدة بترتيب الأسماء المعطاة لـ {@link RowMapper}
+         * @return الكائن، أو null لتجاهل الصف
+         */
+        T read(ResultSet rs, int[] col) throws SQLException;
+    }
+
+    private final Columns columns;
+    private final Reader<T> reader;
+
+    /**
+     * @param reader دالة قراءة الصف
+     * @param labels أسماء الأعمدة التي تقرؤها الدالة، بترتيب مواقعها في مصفوفة col
+     */
+    public RowMapper(Reader<T> reader, String... labels) {
+        this.columns = new Columns(labels);
+        this.reader = reader;
+    }
+
+    /**
+     * @return الأعمدة التي يقرؤها التحويل
+     */
+    public Columns getColumns() {
+        return columns;
+    }
+
+    /**
+     * تحويل كل الصفوف المتبقية في النتيجة (الصفوف التي تعيد لها الدالة null تتجاهل).
+     * @param rs النتيجة (قبل أول صف)
+     * @return الكائنات بترتيب الصفوف
+     * @throws SQLException في حال فشل القراءة
+     */
+    public List<T> list(ResultSet rs) throws SQLException {
+        List<T> list = new ArrayList<>();
+        if (!rs.next()) return list;
+        int[] col = columns.resolve(rs);
+        do {
+            T item = reader.read(rs, col);
+            if (item != null) list.add(item);
+        } while (rs.next());
+        return list;
+    }
+
+    /**
+     * تحويل أول صف في النتيجة.
+     * @param rs النتيجة (قبل أول صف)
+     * @return الكائن، أو null إذا كانت النتيجة فارغة
+     * @throws SQLException في حال فشل القراءة
+     */
+    public T first(ResultSet rs) throws SQLException {
+        return rs.next() ? reader.read(rs, columns.resolve(rs)) : null;
+    }
+
+    /**
+     * دالة تحويل صف بصف لنتيجة واحدة (كما في {@link ResultSetStream})، تحل المواقع عند أول صف
+     * وتعيد استخدامها لبقية الصفوف؛ لذا يجب إنشاء دالة جديدة لكل نتيجة.
+     * @return دالة تحويل الصف الحالي
+     */
+    ResultSetStream.Mapper<T> forResultSet() {
+        int[][] resolved = new int[1][];
+        return rs -> {
+            int[] col = resolved[0];
+            if (col == null) col = resolved[0] = columns.resolve(rs);
+            return reader.read(rs, col);
+        };
+    }
+}
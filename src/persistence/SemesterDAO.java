@@ -1,8 +1,9 @@
 package persistence;
 
 import domain.Semester;
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -10,14 +11,35 @@ import java.util.List;
  * توفر عمليات إضافة، تحديث، حذف، واستعلام عن الفصول الدراسية.
  */
 public class SemesterDAO {
-    private final Connection conn;
+
+    /** تحويل صف من جدول الفصل الدراسي */
+    private static final RowMapper<Semester> SEMESTER = new RowMapper<>((rs, col) -> new Semester(
+            rs.getInt(col[0]),
+            rs.getString(col[1]),
+            rs.getInt(col[2]),
+            rs.getBoolean(col[3])
+    ), "id", "season", "year", "is_open");
+
+    private final DataSource dataSource;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
 
     /**
      * إنشاء DAO مع ربط الاتصال بقاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات المفتوح
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
+     */
+    public SemesterDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
      */
-    public SemesterDAO(Connection conn) {
-        this.conn = conn;
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
     }
 
     /**
@@ -27,7 +49,8 @@ public class SemesterDAO {
      */
     public void add(Semester semester) throws SQLException {
         String sql = "INSERT INTO semester (season, year, is_open) VALUES (?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, semester.getSeason());
             stmt.setInt(2, semester.getYear());
             stmt.setBoolean(3, semester.isOpen());
@@ -35,6 +58,22 @@ public class SemesterDAO {
         }
     }
 
+    /**
+     * إضافة مجموعة فصول دراسية على دفعات داخل معاملة واحدة.
+     * يتم تعيين المعرف المولد لكل فصل بعد الإضافة.
+     * @param semesters الفصول الجديدة
+     * @return عدد الفصول المضافة
+     * @throws SQLException في حالة فشل أي إضافة (يتم التراجع عن الكل)
+     */
+    public int addAll(Collection<Semester> semesters) throws SQLException {
+        String sql = "INSERT INTO semester (season, year, is_open) VALUES (?, ?, ?)";
+        return BatchWriter.execute(dataSource, sql, semesters, batchSize, (stmt, semester) -> {
+            stmt.setString(1, semester.getSeason());
+            stmt.setInt(2, semester.getYear());
+            stmt.setBoolean(3, semester.isOpen());
+        }, Semester::setId);
+    }
+
     /**
      * تحديث بيانات فصل دراسي موجود.
      * @param semester كائن الفصل الدراسي مع البيانات المحدثة
@@ -42,7 +81,8 @@ public class SemesterDAO {
      */
     public void update(Semester semester) throws SQLException {
         String sql = "UPDATE semester SET season = ?, year = ?, is_open = ? WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, semester.getSeason());
             stmt.setInt(2, semester.getYear());
             stmt.setBoolean(3, semester.isOpen());
@@ -58,7 +98,8 @@ public class SemesterDAO {
      */
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM semester WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             stmt.executeUpdate();
         }
@@ -70,20 +111,12 @@ public class SemesterDAO {
      * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
      */
     public List<Semester> getAll() throws SQLException {
-        List<Semester> list = new ArrayList<>();
         String sql = "SELECT * FROM semester";
-        try (Statement stmt = conn.createStatement();
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                list.add(new Semester(
-                    rs.getInt("id"),
-                    rs.getString("season"),
-                    rs.getInt("year"),
-                    rs.getBoolean("is_open")
-                ));
-            }
+            return SEMESTER.list(rs);
         }
-        return list;
     }
 
     /**
@@ -94,20 +127,13 @@ public class SemesterDAO {
      */
     public Semester getById(int id) throws SQLException {
         String sql = "SELECT * FROM semester WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return new Semester(
-                        rs.getInt("id"),
-                        rs.getString("season"),
-                        rs.getInt("year"),
-                        rs.getBoolean("is_open")
-                    );
-                }
+                return SEMESTER.first(rs);
             }
         }
-        return null;
     }
 
     /**
@@ -117,21 +143,13 @@ public class SemesterDAO {
      * @throws SQLException في حالة حدوث خطأ أثناء التنفيذ
      */
     public List<Semester> searchByName(String name) throws SQLException {
-        List<Semester> list = new ArrayList<>();
         String sql = "SELECT * FROM semester WHERE season LIKE ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + name + "%");
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    list.add(new Semester(
-                        rs.getInt("id"),
-                        rs.getString("season"),
-                        rs.getInt("year"),
-                        rs.getBoolean("is_open")
-                    ));
-                }
+                return SEMESTER.list(rs);
             }
         }
-        return list;
     }
 }
@@ -0,0 +1,269 @@
+package persistence;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ذاكرة مؤقتة للجمل المجهزة (PreparedStatement) لاتصال فعلي واحد في {@link ConnectionPool}،
+ * مفتاحها نص SQL (مع نوع النتيجة وطلب المفاتيح المولدة).
+ *
+ * عند إغلاق الجملة منطقيًا (close) لا تغلق فعليًا: تغلق نتيجتها المفتوحة وتمسح معاملاتها ودفعتها
+ * وتعود إلى الذاكرة، فيعيد الاستدعاء التالي بنفس SQL على نفس الاتصال استخدامها دون تحليل جديد
+ * في المشغل، ودون تجهيز جديد في MySQL عند تفعيل useServerPrepStmts. الذاكرة محدودة الحجم
+ * وتغلق الجملة الأقدم استخدامًا (LRU) عند تجاوز الحد.
+ *
+ * الجملة المستعارة تؤخذ من الذاكرة حتى إغلاقها، فطلب نفس SQL مرتين قبل الإغلاق يجهز جملة ثانية.
+ * الجملة التي فشل تنفيذها أو غيرت إعدادًا لا يعاد ضبطه تلقائيًا تغلق فعليًا بدل إعادتها.
+ *
+ * غير آمنة للاستخدام من عدة خيوط: يستخدمها الخيط الذي استعار الاتصال فقط.
+ */
+final class StatementCache {
+
+    /** عدادات مشتركة بين ذاكرات كل اتصالات المجمع */
+    static final class Counters {
+        final LongAdder hits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        final LongAdder evictions = new LongAdder();
+    }
+
+    /** مفتاح الجملة: SQL مع خصائص التجهيز التي تغير الجملة الناتجة */
+    private static final class Key {
+        final String sql;
+        final int resultSetType;
+        final int concurrency;
+        final int autoGeneratedKeys;
+
+        Key(String sql, int resultSetType, int concurrency, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.concurrency = concurrency;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return sql.equals(k.sql) && resultSetType == k.resultSetType
+                    && concurrency == k.concurrency && autoGeneratedKeys == k.autoGeneratedKeys;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((sql.hashCode() * 31 + resultSetType) * 31 + concurrency) * 31 + autoGeneratedKeys;
+        }
+    }
+
+    private final Connection physical;
+    private final Counters counters;
+    private final int maxSize;
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+    private final List<Lease> leased = new ArrayList<>();
+
+    /**
+     * @param physical الاتصال الفعلي
+     * @param maxSize أقصى عدد للجمل المحفوظة (0 لتعطيل الذاكرة)
+     * @param counters عدادات المجمع
+     */
+    StatementCache(Connection physical, int maxSize, Counters counters) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.statements = new LinkedHashMap<Key, PreparedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+                counters.evictions.increment();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * تجهيز جملة عبر الذاكرة إن كان شكل الاستدعاء قابلًا للتخزين.
+     * @param logical الاتصال المنطقي (يعاد من getConnection() للجملة)
+     * @param method دالة prepareStatement المستدعاة
+     * @param args معاملاتها
+     * @return جملة منطقية، أو null إذا لم يكن الاستدعاء قابلًا للتخزين (ينفذ مباشرة على الاتصال)
+     * @throws SQLException في حال فشل التجهيز
+     */
+    PreparedStatement prepare(Connection logical, Method method, Object[] args) throws SQLException {
+        if (maxSize == 0) return null;
+        Key key = keyOf(method, args);
+        if (key == null) return null;
+
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null && !statement.isClosed()) {
+            counters.hits.increment();
+        } else {
+            counters.misses.increment();
+            statement = prepare(key);
+        }
+        Lease lease = new Lease(key, statement, logical);
+        leased.add(lease);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, lease);
+    }
+
+    /**
+     * إغلاق منطقي لكل الجمل التي لم يغلقها المستخدم (عند إعادة الاتصال إلى المجمع).
+     */
+    void releaseAll() {
+        for (Lease lease : new ArrayList<>(leased)) {
+            lease.close();
+        }
+    }
+
+    private static Key keyOf(Method method, Object[] args) {
+        Class<?>[] types = method.getParameterTypes();
+        if (types.length == 1) {
+            return new Key((String) args[0], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                    Statement.NO_GENERATED_KEYS);
+        }
+        if (types.length == 2 && types[1] == int.class) {
+            return new Key((String) args[0], ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY,
+                    (Integer) args[1]);
+        }
+        if (types.length == 3) {
+            return new Key((String) args[0], (Integer) args[1], (Integer) args[2], Statement.NO_GENERATED_KEYS);
+        }
+        return null;  // أسماء أو مواقع أعمدة المفاتيح، أو holdability: نادرة فلا تخزن
+    }
+
+    private PreparedStatement prepare(Key key) throws SQLException {
+        if (key.autoGeneratedKeys != Statement.NO_GENERATED_KEYS) {
+            return physical.prepareStatement(key.sql, key.autoGeneratedKeys);
+        }
+        return physical.prepareStatement(key.sql, key.resultSetType, key.concurrency);
+    }
+
+    /**
+     * إعادة جملة بعد إغلاقها منطقيًا؛ إن وجدت جملة أخرى بنفس المفتاح تغلق هذه فعليًا.
+     */
+    private void checkIn(Lease lease) {
+        leased.remove(lease);
+        PreparedStatement statement = lease.statement;
+        if (lease.discard || !reset(lease) || statements.containsKey(lease.key)) {
+            closeQuietly(statement);
+            return;
+        }
+        statements.put(lease.key, statement);
+    }
+
+    /** إعادة الجملة إلى حالتها بعد التجهيز؛ false إذا فشل ذلك */
+    private boolean reset(Lease lease) {
+        PreparedStatement statement = lease.statement;
+        try {
+            if (statement.isClosed() || physical.isClosed()) return false;
+            if (lease.results != null) lease.results.close();
+            if (lease.keys != null) lease.keys.close();
+            statement.clearParameters();
+            if (lease.batched) statement.clearBatch();
+            if (lease.configured) {
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+                statement.setQueryTimeout(0);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * جملة مستعارة من الذاكرة: تعترض close() لإعادتها، وتتتبع ما يجب إعادة ضبطه.
+     */
+    private final class Lease implements InvocationHandler {
+        final Key key;
+        final PreparedStatement statement;
+        final Connection logical;
+        ResultSet results;
+        ResultSet keys;
+        boolean batched;
+        boolean configured;
+        boolean discard;
+        boolean closed;
+
+        Lease(Key key, PreparedStatement statement, Connection logical) {
+            this.key = key;
+            this.statement = statement;
+            this.logical = logical;
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            checkIn(this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return logical;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+            if (closed) throw new SQLException("Statement is closed");
+
+            if (method.getDeclaringClass() == Statement.class && name.startsWith("set")) {
+                if (name.equals("setFetchSize") || name.equals("setMaxRows") || name.equals("setQueryTimeout")) {
+                    configured = true;
+                } else {
+                    discard = true;  // إعداد نادر لا يعاد ضبطه: لا تعاد الجملة إلى الذاكرة
+                }
+            } else if (name.equals("addBatch")) {
+                batched = true;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                // حالة الجملة بعد الخطأ غير معروفة (اتصال مقطوع، جدول معدل...)
+                discard = true;
+                throw e.getCause();
+            }
+            if (name.equals("getGeneratedKeys")) {
+                keys = (ResultSet) result;
+            } else if (result instanceof ResultSet) {
+                results = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+}
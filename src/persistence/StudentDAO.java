@@ -2,22 +2,71 @@ package persistence;
 
 import domain.*;
 import domain.Student;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * فئة للوصول إلى بيانات الطلاب في قاعدة البيانات
  */
 public class StudentDAO {
-    private final Connection conn;
+
+    /** تحويل صف من جدول الطالب */
+    private static final RowMapper<Student> STUDENT = new RowMapper<>((rs, col) -> new Student(
+            rs.getInt(col[0]),
+            rs.getString(col[1]),
+            rs.getString(col[2]),
+            rs.getString(col[3]),
+            rs.getInt(col[4]),
+            rs.getString(col[5]),
+            rs.getDouble(col[6])
+    ), "id", "name", "email", "gender", "age", "major", "gpa");
+
+    /** أعمدة تسجيلات الطالب في فصل (انظر {@link #getEnrollmentsByStudentAndSemester}) */
+    private static final Columns STUDENT_SEMESTER_ENROLLMENT = new Columns(
+            "grade", "student_name", "course_name", "credits", "teacher_name", "season", "year");
+
+    /** أعمدة نتائج الفصل (انظر {@link #getSemesterResults}) */
+    private static final Columns SEMESTER_RESULT = new Columns(
+            "student_id", "student_name", "course_id", "course_name", "teacher_name", "credits", "grade", "gpa");
+
+    private final DataSource dataSource;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
+
+    /** حجم الجلب لعمليات القراءة المتدفقة */
+    private volatile int fetchSize = ResultSetStream.DEFAULT_FETCH_SIZE;
 
     /**
      * منشئ الفئة يأخذ اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات المفتوح
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
      */
-    public StudentDAO(Connection conn) {
-        this.conn = conn;
+    public StudentDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * تحديد حجم الجلب لعمليات القراءة المتدفقة (الافتراضي sms.stream.fetchSize أو Integer.MIN_VALUE
+     * الذي يعني صفًا بصف في MySQL؛ القيم الموجبة تتطلب useCursorFetch=true في عنوان الاتصال).
+     * @param fetchSize حجم الجلب
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
     }
 
     /**
@@ -27,7 +76,8 @@ public class StudentDAO {
      */
     public void addStudent(Student s) throws SQLException {
         String sql = "INSERT INTO student (name, email, gender, age, major, gpa) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, s.getName());
             stmt.setString(2, s.getEmail());
             stmt.setString(3, s.getGender());
@@ -38,46 +88,95 @@ public class StudentDAO {
         }
     }
 
+    /**
+     * إضافة مجموعة طلاب (مثل دفعة طلاب جدد) على دفعات داخل معاملة واحدة.
+     * يتم تعيين المعرف المولد لكل طالب بعد الإضافة.
+     * @param students الطلاب الجدد
+     * @return عدد الطلاب المضافين
+     * @throws SQLException في حال فشل أي إضافة (يتم التراجع عن الكل)
+     */
+    public int addAll(Collection<Student> students) throws SQLException {
+        String sql = "INSERT INTO student (name, email, gender, age, major, gpa) VALUES (?, ?, ?, ?, ?, ?)";
+        return BatchWriter.execute(dataSource, sql, students, batchSize, (stmt, s) -> {
+            stmt.setString(1, s.getName());
+            stmt.setString(2, s.getEmail());
+            stmt.setString(3, s.getGender());
+            stmt.setInt(4, s.getAge());
+            stmt.setString(5, s.getMajor());
+            stmt.setDouble(6, s.getGpa());
+        }, Student::setId);
+    }
+
     /**
      * الحصول على قائمة بجميع الطلاب المسجلين في قاعدة البيانات.
      * @return قائمة تحتوي على جميع كائنات الطلاب
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public List<Student> getAll() throws SQLException {
-        List<Student> list = new ArrayList<>();
         String sql = "SELECT * FROM student";
-        try (PreparedStatement stmt = conn.prepareStatement(sql);
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                list.add(new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("major"),
-                    rs.getDouble("gpa")
-                ));
+            return STUDENT.list(rs);
+        }
+    }
+
+    /**
+     * جلب صفحة من الطلاب مرتبة حسب المعرف باستخدام طريقة البحث بالمفتاح (Keyset/Seek):
+     * تبدأ الصفحة بعد آخر معرف في الصفحة السابقة بدل OFFSET، فتبقى كلفة كل صفحة ثابتة مهما تقدمت.
+     * @param afterId معرف آخر طالب في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد الطلاب في الصفحة
+     * @return طلاب الصفحة؛ صفحة أقصر من limit تعني نهاية الجدول
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public List<Student> getPage(int afterId, int limit) throws SQLException {
+        String sql = "SELECT * FROM student WHERE id > ? ORDER BY id LIMIT ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return STUDENT.list(rs);
             }
         }
-        return list;
+    }
+
+    /**
+     * المرور على جميع الطلاب كتدفق دون تحميلهم في الذاكرة (للتصدير والتقارير على أعداد كبيرة).
+     * يبقى الاتصال مستعارًا حتى إغلاق التدفق، لذا يجب استخدامه داخل try-with-resources.
+     * أخطاء القراءة أثناء المرور تطلق كـ {@link UncheckedSQLException}.
+     * @return تدفق الطلاب مرتبين حسب المعرف (يجب إغلاقه)
+     * @throws SQLException في حال فشل تنفيذ الاستعلام
+     */
+    public Stream<Student> stream() throws SQLException {
+        return ResultSetStream.open(dataSource, "SELECT * FROM student ORDER BY id", fetchSize, STUDENT.forResultSet());
+    }
+
+    /**
+     * تنفيذ إجراء لكل طالب دون تحميل الجدول في الذاكرة (انظر {@link #stream()}).
+     * @param action الإجراء المنفذ لكل طالب
+     * @throws SQLException في حال حدوث خطأ أثناء التنفيذ أو القراءة
+     */
+    public void forEach(Consumer<? super Student> action) throws SQLException {
+        ResultSetStream.forEach(stream(), action);
     }
 
     /**
      * تحديث بيانات طالب موجود في قاعدة البيانات.
+     * لا يكتب عمود gpa: قيمته محسوبة من التسجيلات وتحدث عبر {@link #recomputeGpa(Collection)}.
      * @param s كائن الطالب الذي يحتوي على البيانات الجديدة (يجب أن يحتوي على المعرف)
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public void updateStudent(Student s) throws SQLException {
-        String sql = "UPDATE student SET name=?, email=?, gender=?, age=?, major=?, gpa=? WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        String sql = "UPDATE student SET name=?, email=?, gender=?, age=?, major=? WHERE id=?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, s.getName());
             stmt.setString(2, s.getEmail());
             stmt.setString(3, s.getGender());
             stmt.setInt(4, s.getAge());
             stmt.setString(5, s.getMajor());
-            stmt.setDouble(6, s.getGpa());
-            stmt.setInt(7, s.getId());
+            stmt.setInt(6, s.getId());
             stmt.executeUpdate();
         }
     }
@@ -89,7 +188,8 @@ public class StudentDAO {
      */
     public void deleteStudent(int id) throws SQLException {
         String sql = "DELETE FROM student WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             stmt.executeUpdate();
         }
@@ -102,24 +202,14 @@ public class StudentDAO {
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public List<Student> searchByName(String name) throws SQLException {
-        List<Student> list = new ArrayList<>();
         String sql = "SELECT * FROM student WHERE name LIKE ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, "%" + name + "%");
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                list.add(new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("major"),
-                    rs.getDouble("gpa")
-                ));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return STUDENT.list(rs);
             }
         }
-        return list;
     }
 
     /**
@@ -130,22 +220,13 @@ public class StudentDAO {
      */
     public Student getStudentById(int id) throws SQLException {
         String sql = "SELECT * FROM student WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Student(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getString("major"),
-                    rs.getDouble("gpa")
-                );
+            try (ResultSet rs = stmt.executeQuery()) {
+                return STUDENT.first(rs);
             }
         }
-        return null;
     }
 
     /**
@@ -156,13 +237,86 @@ public class StudentDAO {
      */
     public void updateGPA(int studentId, double gpa) throws SQLException {
         String sql = "UPDATE student SET gpa = ? WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setDouble(1, gpa);
             stmt.setInt(2, studentId);
             stmt.executeUpdate();
         }
     }
 
+    /**
+     * إعادة حساب عمود gpa (المعدل المرجح بالساعات على مقياس 4.0، كما في WeightedGradeCalculator)
+     * لطلاب محددين بعبارة UPDATE ... JOIN واحدة لكل دفعة من المعرفات؛ الطالب بلا تسجيلات يصبح معدله 0.
+     * @param studentIds معرفات الطلاب المتأثرين
+     * @return عدد صفوف الطلاب المطابقة
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public int recomputeGpa(Collection<Integer> studentIds) throws SQLException {
+        if (studentIds.isEmpty()) return 0;
+        Integer[] ids = studentIds.toArray(new Integer[0]);
+        int updated = 0;
+        try (Connection conn = dataSource.getConnection()) {
+            for (int from = 0; from < ids.length; from += batchSize) {
+                int n = Math.min(batchSize, ids.length - from);
+                String in = "IN (" + String.join(", ", Collections.nCopies(n, "?")) + ")";
+                String sql = gpaUpdateSql("", "", "WHERE e.student_id " + in, "WHERE s.id " + in);
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < n; i++) {
+                        stmt.setInt(i + 1, ids[from + i]);
+                        stmt.setInt(n + i + 1, ids[from + i]);
+                    }
+                    updated += stmt.executeUpdate();
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * إعادة حساب عمود gpa لكل الطلاب المسجلين في مقرر معين (بعد تغيير ساعاته المعتمدة مثلًا).
+     * @param courseId معرف المقرر
+     * @return عدد صفوف الطلاب المطابقة
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public int recomputeGpaForCourse(int courseId) throws SQLException {
+        String sql = gpaUpdateSql("JOIN enrollment sx ON sx.student_id = s.id AND sx.course_id = ?",
+                "JOIN enrollment x ON x.student_id = e.student_id AND x.course_id = ?", "", "");
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, courseId);
+            stmt.setInt(2, courseId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * إعادة حساب عمود gpa لكل الطلاب (لإصلاح القيم القديمة مرة واحدة).
+     * @return عدد صفوف الطلاب
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public int recomputeAllGpa() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(gpaUpdateSql("", "", "", ""))) {
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * بناء عبارة تحديث المعدل: جدول مشتق يجمع نقاط وساعات كل طالب من تسجيلاته، يربط بجدول الطلاب.
+     * @param studentJoin ربط على جدول الطلاب لتحديد الطلاب المحدثين (معاملاته تسبق معاملات الجدول المشتق)
+     * @param join ربط إضافي داخل الجدول المشتق لتحديد التسجيلات
+     * @param innerWhere شرط داخل الجدول المشتق (MySQL 5.x لا يدفع شرط الخارج إلى داخله)
+     * @param outerWhere شرط الطلاب المحدثين
+     */
+    private static String gpaUpdateSql(String studentJoin, String join, String innerWhere, String outerWhere) {
+        return "UPDATE student s " + studentJoin + " LEFT JOIN (" +
+               "SELECT e.student_id, SUM(COALESCE(e.grade, 0) / 100.0 * 4.0 * c.credits) / NULLIF(SUM(c.credits), 0) AS gpa " +
+               "FROM enrollment e JOIN course c ON c.id = e.course_id " + join + " " + innerWhere +
+               " GROUP BY e.student_id) g ON g.student_id = s.id " +
+               "SET s.gpa = COALESCE(g.gpa, 0) " + outerWhere;
+    }
+
     /**
      * جلب تسجيلات طالب معين في فصل دراسي محدد حسب اسم الطالب، الفصل، والسنة.
      * @param studentName اسم الطالب (يمكن أن يكون جزئي)
@@ -184,31 +338,34 @@ public class StudentDAO {
             WHERE s.name LIKE ? AND sem.season = ? AND sem.year = ?
         """;
 
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, "%" + studentName + "%");
             ps.setString(2, season);
             ps.setInt(3, year);
             try (ResultSet rs = ps.executeQuery()) {
+                int[] col = null;
                 while (rs.next()) {
+                    if (col == null) col = STUDENT_SEMESTER_ENROLLMENT.resolve(rs);
                     Enrollment e = new Enrollment();
-                    e.setGrade(rs.getDouble("grade"));
+                    e.setGrade(rs.getDouble(col[0]));
 
                     Student student = new Student();
-                    student.setName(rs.getString("student_name"));
+                    student.setName(rs.getString(col[1]));
                     e.setStudent(student);
 
                     Course course = new Course();
-                    course.setName(rs.getString("course_name"));
-                    course.setCredits(rs.getInt("credits"));
+                    course.setName(rs.getString(col[2]));
+                    course.setCredits(rs.getInt(col[3]));
                     e.setCourse(course);
 
                     Teacher teacher = new Teacher();
-                    teacher.setName(rs.getString("teacher_name"));
+                    teacher.setName(rs.getString(col[4]));
                     e.setTeacher(teacher);
 
                     Semester sem = new Semester();
-                    sem.setSeason(rs.getString("season"));
-                    sem.setYear(rs.getInt("year"));
+                    sem.setSeason(rs.getString(col[5]));
+                    sem.setYear(rs.getInt(col[6]));
                     e.setSemester(sem);
 
                     list.add(e);
@@ -218,4 +375,65 @@ public class StudentDAO {
         return list;
     }
 
+    /**
+     * جلب نتائج فصل دراسي للطلاب المطابقين للاسم باستعلام واحد: التصفية حسب الفصل والطالب،
+     * ومجموع الساعات المعتمدة والمعدل تحسب في قاعدة البيانات. المعدل هو متوسط درجات الفصل (من 100)
+     * كما كان التقرير يحسبه، والدرجة NULL تحسب 0 كما في المعدل التراكمي المخزن ({@link #recomputeGpa(Collection)}).
+     *
+     * يبدأ الاستعلام من الفصل (فهرس season_year) ثم تسجيلاته (فهرس semester_student)، ويستخدم
+     * GROUP BY ... WITH ROLLUP (متوفر منذ MySQL 5.0) ليعيد بعد أسطر مقررات كل طالب سطر مجموع له؛
+     * سطر المجموع الكلي (student_id = NULL) يتم تجاهله.
+     * @param studentName اسم الطالب (يمكن أن يكون جزئي)
+     * @param season اسم الفصل الدراسي (مثل "Fall", "Spring")
+     * @param year سنة الفصل الدراسي
+     * @return نتيجة لكل طالب مطابق لديه تسجيلات في الفصل، مرتبة حسب معرف الطالب
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public List<SemesterResult> getSemesterResults(String studentName, String season, int year) throws SQLException {
+        List<SemesterResult> results = new ArrayList<>();
+        String sql = """
+            SELECT e.student_id, MAX(s.name) AS student_name, e.course_id,
+                   MAX(c.name) AS course_name, MAX(t.name) AS teacher_name,
+                   SUM(c.credits) AS credits, MAX(e.grade) AS grade,
+                   AVG(CASE WHEN COALESCE(e.grade, 0) >= 0 THEN COALESCE(e.grade, 0) END) AS gpa
+            FROM semester sem
+            JOIN enrollment e ON e.semester_id = sem.id
+            JOIN student s ON s.id = e.student_id
+            JOIN course c ON c.id = e.course_id
+            LEFT JOIN teacher t ON t.id = e.teacher_id
+            WHERE sem.season = ? AND sem.year = ? AND s.name LIKE ?
+            GROUP BY e.student_id, e.course_id WITH ROLLUP
+        """;
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, season);
+            ps.setInt(2, year);
+            ps.setString(3, "%" + studentName + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                SemesterResult current = null;
+                int[] col = null;
+                while (rs.next()) {
+                    if (col == null) col = SEMESTER_RESULT.resolve(rs);
+                    int studentId = rs.getInt(col[0]);
+                    if (rs.wasNull()) continue;  // المجموع الكلي
+                    rs.getInt(col[2]);
+                    boolean subtotal = rs.wasNull();
+                    if (current == null || current.getStudentId() != studentId) {
+                        current = new SemesterResult(studentId, rs.getString(col[1]));
+                        results.add(current);
+                    }
+                    if (subtotal) {
+                        current.setTotalCredits(rs.getInt(col[5]));
+                        current.setGpa(rs.getDouble(col[7]));
+                    } else {
+                        current.addLine(new SemesterResult.Line(rs.getString(col[3]),
+                                rs.getString(col[4]), rs.getInt(col[5]), rs.getDouble(col[6])));
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
 }
@@ -1,32 +1,64 @@
 package persistence;
 
 import domain.Teacher;
+import javax.sql.DataSource;
 import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * فئة للوصول إلى بيانات المعلمين في قاعدة البيانات.
  */
 public class TeacherDAO {
-    private final Connection conn;
+
+    /** تحويل صف من استعلام يتضمن department_name إلى كائن معلم */
+    private static final RowMapper<Teacher> TEACHER_WITH_DEPARTMENT = new RowMapper<>((rs, col) -> {
+        Teacher t = new Teacher(
+            rs.getInt(col[0]),
+            rs.getString(col[1]),
+            rs.getString(col[2]),
+            rs.getString(col[3]),
+            rs.getInt(col[4]),
+            rs.getInt(col[5]),
+            parseSalary(rs.getString(col[6]))
+        );
+        String departmentName = rs.getString(col[7]);
+        t.setDepartmentName(departmentName != null ? departmentName : "N/A");
+        return t;
+    }, "id", "name", "email", "gender", "age", "department_id", "salary", "department_name");
+
+    private final DataSource dataSource;
+
+    /** حجم الدفعة لعمليات الكتابة الجماعية */
+    private volatile int batchSize = BatchWriter.DEFAULT_BATCH_SIZE;
 
     /**
      * منشئ الفئة يأخذ اتصال قاعدة البيانات.
-     * @param conn اتصال قاعدة البيانات المفتوح
+     * @param dataSource مصدر الاتصالات (مجمع الاتصالات)
+     */
+    public TeacherDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * تحديد حجم الدفعة لعمليات الكتابة الجماعية (الافتراضي sms.batch.size أو 500).
+     * @param batchSize عدد العناصر في كل دفعة
      */
-    public TeacherDAO(Connection conn) {
-        this.conn = conn;
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("Batch size must be positive");
+        this.batchSize = batchSize;
     }
 
     /**
-     * إضافة معلم جديد إلى قاعدة البيانات.
+     * إضافة معلم جديد إلى قاعدة البيانات، ويعين المعرف المولد في الكائن.
      * @param t كائن المعلم الذي يحتوي على البيانات المراد إضافتها
+     * @return المعرف المولد للمعلم الجديد
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
-    public void addTeacher(Teacher t) throws SQLException {
+    public int addTeacher(Teacher t) throws SQLException {
         String sql = "INSERT INTO teacher (name, email, gender, age, department_id, salary) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             ps.setString(1, t.getName());
             ps.setString(2, t.getEmail());
             ps.setString(3, t.getGender());
@@ -34,7 +66,31 @@ public class TeacherDAO {
             ps.setInt(5, t.getDepartmentId());
             ps.setDouble(6, t.getSalary());
             ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("Insert did not return a generated id");
+                t.setId(keys.getInt(1));
+            }
         }
+        return t.getId();
+    }
+
+    /**
+     * إضافة مجموعة معلمين على دفعات داخل معاملة واحدة.
+     * يتم تعيين المعرف المولد لكل معلم بعد الإضافة.
+     * @param teachers المعلمون الجدد
+     * @return عدد المعلمين المضافين
+     * @throws SQLException في حال فشل أي إضافة (يتم التراجع عن الكل)
+     */
+    public int addAll(Collection<Teacher> teachers) throws SQLException {
+        String sql = "INSERT INTO teacher (name, email, gender, age, department_id, salary) VALUES (?, ?, ?, ?, ?, ?)";
+        return BatchWriter.execute(dataSource, sql, teachers, batchSize, (ps, t) -> {
+            ps.setString(1, t.getName());
+            ps.setString(2, t.getEmail());
+            ps.setString(3, t.getGender());
+            ps.setInt(4, t.getAge());
+            ps.setInt(5, t.getDepartmentId());
+            ps.setDouble(6, t.getSalary());
+        }, Teacher::setId);
     }
 
     /**
@@ -43,25 +99,33 @@ public class TeacherDAO {
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public List<Teacher> getAll() throws SQLException {
-        List<Teacher> list = new ArrayList<>();
         String sql = "SELECT t.*, d.name AS department_name FROM teacher t JOIN department d ON t.department_id = d.id";
-        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                double salary = parseSalary(rs.getString("salary"));
-                Teacher t = new Teacher(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("gender"),
-                    rs.getInt("age"),
-                    rs.getInt("department_id"),
-                    salary
-                );
-                t.setDepartmentName(rs.getString("department_name") != null ? rs.getString("department_name") : "N/A");
-                list.add(t);
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return TEACHER_WITH_DEPARTMENT.list(rs);
+        }
+    }
+
+    /**
+     * جلب صفحة من المعلمين (مع أسماء الأقسام) مرتبة حسب المعرف باستخدام البحث بالمفتاح (Keyset):
+     * تبدأ الصفحة بعد آخر معرف في الصفحة السابقة بدل OFFSET.
+     * @param afterId معرف آخر معلم في الصفحة السابقة (0 للصفحة الأولى)
+     * @param limit الحد الأقصى لعدد المعلمين في الصفحة
+     * @return معلمو الصفحة؛ صفحة أقصر من limit تعني نهاية الجدول
+     * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
+     */
+    public List<Teacher> getPage(int afterId, int limit) throws SQLException {
+        String sql = "SELECT t.*, d.name AS department_name FROM teacher t JOIN department d ON t.department_id = d.id " +
+                     "WHERE t.id > ? ORDER BY t.id LIMIT ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return TEACHER_WITH_DEPARTMENT.list(rs);
             }
         }
-        return list;
     }
 
     /**
@@ -71,7 +135,8 @@ public class TeacherDAO {
      */
     public void updateTeacher(Teacher t) throws SQLException {
         String sql = "UPDATE teacher SET name = ?, email = ?, gender = ?, age = ?, department_id = ?, salary = ? WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, t.getName());
             ps.setString(2, t.getEmail());
             ps.setString(3, t.getGender());
@@ -90,7 +155,8 @@ public class TeacherDAO {
      */
     public void deleteTeacher(int id) throws SQLException {
         String sql = "DELETE FROM teacher WHERE id = ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setInt(1, id);
             ps.executeUpdate();
         }
@@ -103,28 +169,14 @@ public class TeacherDAO {
      * @throws SQLException في حال حدوث خطأ أثناء تنفيذ الاستعلام
      */
     public List<Teacher> searchByName(String name) throws SQLException {
-        List<Teacher> list = new ArrayList<>();
         String sql = "SELECT t.*, d.name AS department_name FROM teacher t JOIN department d ON t.department_id = d.id WHERE t.name LIKE ?";
-        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, "%" + name + "%");
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    double salary = parseSalary(rs.getString("salary"));
-                    Teacher t = new Teacher(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("gender"),
-                        rs.getInt("age"),
-                        rs.getInt("department_id"),
-                        salary
-                    );
-                    t.setDepartmentName(rs.getString("department_name") != null ? rs.getString("department_name") : "N/A");
-                    list.add(t);
-                }
+                return TEACHER_WITH_DEPARTMENT.list(rs);
             }
         }
-        return list;
     }
 
     /**
@@ -132,7 +184,7 @@ public class TeacherDAO {
      * @param salaryStr نص الراتب المحتمل أن يحتوي على فاصلة بدلاً من نقطة
      * @return قيمة الراتب كرقم عشري (double)، أو 0.0 إذا تعذر التحويل
      */
-    private double parseSalary(String salaryStr) {
+    private static double parseSalary(String salaryStr) {
         if (salaryStr == null || salaryStr.isEmpty()) return 0.0;
         try {
             salaryStr = salaryStr.replace(",", ".");
@@ -0,0 +1,27 @@
+package persistence;
+
+import java.sql.SQLException;
+
+/**
+ * غلاف غير مفحوص (unchecked) لخطأ SQLException يطلق من داخل Stream حيث لا يمكن
+ * رمي الاستثناءات المفحوصة (مثل قراءة الصف التالي أثناء المرور على تدفق النتائج).
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param cause خطأ قاعدة البيانات الأصلي
+     */
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    /**
+     * @return خطأ قاعدة البيانات الأصلي
+     */
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
@@ -5,10 +5,9 @@ import domain.Admin;                 // كائن يمثل المشرف
 import infrastructure.PasswordUtil; // أداة لتشفير كلمات المرور
 
 import javax.swing.*;                // مكتبة Java لإنشاء الواجهات الرسومية
-import javax.swing.table.DefaultTableModel; // نموذج الجدول لعرض البيانات
 import java.awt.*;                   // مكتبة للتحكم في التنسيقات والتصميمات
 import java.awt.event.*;            // مكتبة للتعامل مع الأحداث (كالضغط على الأزرار)
-import java.sql.Connection;         // مكتبة للتعامل مع الاتصال بقاعدة البيانات
+import javax.sql.DataSource;         // مكتبة للتعامل مع الاتصال بقاعدة البيانات
 import java.util.List;              // قائمة لتخزين بيانات المشرفين
 
 /**
@@ -26,7 +25,7 @@ public class AdminRegisterGUI extends JPanel {
     private JTable table;
 
     /** نموذج الجدول لتخزين البيانات المعروضة */
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
 
     /** حقول إدخال البيانات النصية للاسم، البريد الإلكتروني، العمر، واسم المستخدم */
     private JTextField tfName, tfEmail, tfAge, tfUsername;
@@ -37,18 +36,21 @@ public class AdminRegisterGUI extends JPanel {
     /** حقل لإدخال كلمة المرور */
     private JPasswordField pfPassword;
 
+    /** محمل البيانات في الخلفية */
+    private final AsyncLoader loader = new AsyncLoader(this);
+
     /**
-     * المُنشئ - يُنشئ الواجهة ويستقبل اتصال قاعدة البيانات.
+     * المُنشئ - يُنشئ الواجهة ويستقبل مصدر اتصالات قاعدة البيانات.
      * يقوم بتهيئة المكونات الرسومية، تحميل بيانات المشرفين من قاعدة البيانات،
      * وضبط أحداث الأزرار والتفاعل مع الجدول.
      *
-     * @param conn اتصال قاعدة البيانات المستخدم لإنشاء AdminDAO
+     * @param dataSource مصدر اتصالات قاعدة البيانات المستخدم لإنشاء AdminDAO
      */
-    public AdminRegisterGUI(Connection conn) {
+    public AdminRegisterGUI(DataSource dataSource) {
         setLayout(new BorderLayout()); // استخدام تصميم BorderLayout لتقسيم الواجهة
 
         try {
-            adminDAO = new AdminDAO(conn); // تهيئة DAO للاتصال بقاعدة البيانات
+            adminDAO = new AdminDAO(dataSource); // تهيئة DAO للاتصال بقاعدة البيانات
         } catch (Exception e) {
             showError(e); // في حال فشل الاتصال يتم عرض رسالة الخطأ
             return;
@@ -104,10 +106,18 @@ public class AdminRegisterGUI extends JPanel {
 
         // إضافة لوحة الإدخال إلى الجزء العلوي
         topPanel.add(inputPanel, BorderLayout.WEST);
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        statusPanel.add(loader.getProgressBar()); // يظهر أثناء تحميل البيانات
+        topPanel.add(statusPanel, BorderLayout.SOUTH);
         add(topPanel, BorderLayout.NORTH);
 
         // ====== الجزء الأوسط: جدول عرض بيانات المشرفين ======
-        tableModel = new DefaultTableModel(new String[]{"Name", "Email", "Gender", "Age", "Username"}, 0);
+        tableModel = new ColumnarTableModel(
+                ColumnarTableModel.stringColumn("Name"),
+                ColumnarTableModel.stringColumn("Email"),
+                ColumnarTableModel.stringColumn("Gender"),
+                ColumnarTableModel.intColumn("Age"),
+                ColumnarTableModel.stringColumn("Username"));
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null);  // تعطيل التعديل المباشر
         // تلوين الصفوف بالتناوب لتحسين المظهر
@@ -249,20 +259,28 @@ public class AdminRegisterGUI extends JPanel {
 
     /**
      * تحميل جميع بيانات المشرفين من قاعدة البيانات إلى الجدول.
-     * يتم مسح المحتويات السابقة وإضافة السجلات الجديدة.
+     * يتم الجلب في الخلفية ثم مسح المحتويات السابقة وإضافة السجلات الجديدة.
      */
     private void loadData() {
-        try {
-            tableModel.setRowCount(0); // مسح الجدول
-            List<Admin> list = adminDAO.getAll(); // جلب البيانات
-            for (Admin a : list) {
-                tableModel.addRow(new Object[]{
-                        a.getName(), a.getEmail(), a.getGender(), a.getAge(), a.getUsername()
-                });
-            }
-        } catch (Exception e) {
-            showError(e);
+        loader.load("table", adminDAO::getAll, this::fillTable); // جلب البيانات في الخلفية
+    }
+
+    /**
+     * ملء الجدول بقائمة المشرفين.
+     *
+     * @param list قائمة المشرفين
+     */
+    private void fillTable(List<Admin> list) {
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(list.size());
+        for (Admin a : list) {
+            rows.addRow()
+                    .set(0, a.getName())
+                    .set(1, a.getEmail())
+                    .set(2, a.getGender())
+                    .set(3, a.getAge())
+                    .set(4, a.getUsername());
         }
+        tableModel.setData(rows.build()); // استبدال كل الصفوف بحدث واحد
     }
 
     /**
@@ -0,0 +1,240 @@
+package presentation;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * طبقة تحميل غير متزامن مشتركة بين لوحات الإدارة.
+ *
+ * تنفذ استعلامات قاعدة البيانات على مجموعة خيوط خلفية مشتركة بدل خيط الأحداث (EDT)،
+ * ثم تسلم النتيجة أو الخطأ على خيط الأحداث. كل عملية تحميل لها مفتاح (مثل "table" أو "teachers")؛
+ * طلب تحميل جديد بنفس المفتاح يلغي السابق ويتم تجاهل نتيجته إن كانت قد بدأت بالفعل.
+ *
+ * يمكن أيضًا تمرير عملية تعمل بنفسها في الخلفية وتعيد مستقبلًا (مثل {@link application.AsyncServices})
+ * عبر {@link #loadAsync}، فلا تشغل خيطًا من خيوط التحميل المشتركة أثناء انتظارها.
+ *
+ * أثناء وجود أي تحميل جارٍ يظهر شريط تقدم غير محدد ويتحول مؤشر اللوحة إلى مؤشر الانتظار.
+ * يمكن استدعاء load من أي خيط.
+ */
+public class AsyncLoader {
+
+    /**
+     * عملية تحميل تنفذ في الخلفية.
+     * @param <T> نوع النتيجة
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    // عدد خيوط التحميل المشتركة بين كل اللوحات
+    private static final int THREADS = Integer.getInteger("sms.loader.threads", 4);
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(THREADS, r -> {
+        Thread t = new Thread(r, "sms-loader-" + THREAD_COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** التحميل الجاري لمفتاح معين مع رقم الجيل الخاص به */
+    private static final class Pending {
+        final long generation;
+        Future<?> future;
+
+        Pending(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    private final JComponent owner;
+    private final JProgressBar progressBar;
+
+    // التحميلات الجارية حسب المفتاح (محمية بـ this)
+    private final Map<String, Pending> pending = new HashMap<>();
+    private long generationCounter = 0;
+
+    /**
+     * إنشاء محمل للوحة معينة.
+     * @param owner اللوحة التي تعرض النتائج (تستخدم لمؤشر الانتظار ورسائل الخطأ)
+     */
+    public AsyncLoader(JComponent owner) {
+        this.owner = owner;
+        this.progressBar = new JProgressBar();
+        this.progressBar.setIndeterminate(true);
+        this.progressBar.setVisible(false);
+        this.progressBar.setPreferredSize(new Dimension(120, 16));
+    }
+
+    /**
+     * @return شريط التقدم الذي يظهر أثناء التحميل، لتضيفه اللوحة إلى تخطيطها
+     */
+    public JProgressBar getProgressBar() {
+        return progressBar;
+    }
+
+    /**
+     * تنفيذ تحميل في الخلفية مع عرض الأخطاء في نافذة خطأ.
+     * @param key مفتاح التحميل؛ أي تحميل سابق بنفس المفتاح يتم إلغاؤه
+     * @param task العملية التي تنفذ في الخلفية (استعلامات قاعدة البيانات)
+     * @param onSuccess يستدعى على خيط الأحداث بالنتيجة
+     * @param <T> نوع النتيجة
+     */
+    public <T> void load(String key, Task<T> task, Consumer<? super T> onSuccess) {
+        load(key, task, onSuccess, e -> GUIUtils.showErrorMessage(owner, e.getMessage()));
+    }
+
+    /**
+     * تنفيذ تحميل في الخلفية.
+     * @param key مفتاح التحميل؛ أي تحميل سابق بنفس المفتاح يتم إلغاؤه
+     * @param task العملية التي تنفذ في الخلفية (استعلامات قاعدة البيانات)
+     * @param onSuccess يستدعى على خيط الأحداث بالنتيجة
+     * @param onError يستدعى على خيط الأحداث في حال فشل العملية
+     * @param <T> نوع النتيجة
+     */
+    public <T> void load(String key, Task<T> task, Consumer<? super T> onSuccess, Consumer<Exception> onError) {
+        Pending p;
+        synchronized (this) {
+            Pending previous = pending.remove(key);
+            if (previous != null && previous.future != null) {
+                // لا نقاطع الخيط أثناء استعلام JDBC حتى لا يفسد الاتصال؛ النتيجة ستُتجاهل فقط
+                previous.future.cancel(false);
+            }
+            p = new Pending(++generationCounter);
+            pending.put(key, p);
+            p.future = EXECUTOR.submit(() -> run(key, p, task, onSuccess, onError));
+        }
+        updateBusyState();
+    }
+
+    /**
+     * تحميل عبر عملية غير متزامنة تعمل على خيوطها الخاصة، مع نفس قواعد المفتاح والإلغاء وعرض الأخطاء
+     * كما في {@link #load(String, Task, Consumer)}.
+     * @param key مفتاح التحميل؛ أي تحميل سابق بنفس المفتاح يتم إلغاؤه
+     * @param start يبدأ العملية ويعيد مستقبلها (يستدعى فورًا على الخيط المستدعي)
+     * @param onSuccess يستدعى على خيط الأحداث بالنتيجة
+     * @param <T> نوع النتيجة
+     */
+    public <T> void loadAsync(String key, Supplier<? extends CompletableFuture<? extends T>> start,
+                              Consumer<? super T> onSuccess) {
+        Consumer<Exception> onError = e -> GUIUtils.showErrorMessage(owner, e.getMessage());
+        Pending p;
+        synchronized (this) {
+            Pending previous = pending.remove(key);
+            if (previous != null && previous.future != null) previous.future.cancel(false);
+            p = new Pending(++generationCounter);
+            pending.put(key, p);
+        }
+        CompletableFuture<? extends T> future;
+        try {
+            future = start.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        synchronized (this) {
+            p.future = future;
+        }
+        future.whenComplete((value, error) -> {
+            // المراحل التابعة (thenApply...) تغلف الخطأ الأصلي في CompletionException
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            deliver(key, p, value, cause == null ? null
+                    : cause instanceof Exception ? (Exception) cause : new Exception(cause), onSuccess, onError);
+        });
+        updateBusyState();
+    }
+
+    /**
+     * إلغاء التحميل الجاري لمفتاح معين (إن وجد).
+     * @param key مفتاح التحميل
+     */
+    public void cancel(String key) {
+        synchronized (this) {
+            Pending p = pending.remove(key);
+            if (p != null && p.future != null) p.future.cancel(false);
+        }
+        updateBusyState();
+    }
+
+    /**
+     * إلغاء كل التحميلات الجارية لهذه اللوحة.
+     */
+    public void cancelAll() {
+        synchronized (this) {
+            for (Pending p : pending.values()) {
+                if (p.future != null) p.future.cancel(false);
+            }
+            pending.clear();
+        }
+        updateBusyState();
+    }
+
+    /**
+     * @return true إذا كان هناك تحميل جارٍ
+     */
+    public synchronized boolean isLoading() {
+        return !pending.isEmpty();
+    }
+
+    private <T> void run(String key, Pending p, Task<T> task,
+                         Consumer<? super T> onSuccess, Consumer<Exception> onError) {
+        if (!isCurrent(key, p)) return;
+
+        T result = null;
+        Exception error = null;
+        try {
+            result = task.call();
+        } catch (Exception e) {
+            error = e;
+        }
+
+        deliver(key, p, result, error, onSuccess, onError);
+    }
+
+    /** تسليم النتيجة أو الخطأ على خيط الأحداث إن كان التحميل ما زال الأحدث لمفتاحه */
+    private <T> void deliver(String key, Pending p, T value, Exception failure,
+                             Consumer<? super T> onSuccess, Consumer<Exception> onError) {
+        SwingUtilities.invokeLater(() -> {
+            // تجاهل النتيجة إذا تم استبدال التحميل بتحميل أحدث أو إلغاؤه
+            if (!complete(key, p)) return;
+            try {
+                if (failure == null) {
+                    onSuccess.accept(value);
+                } else {
+                    onError.accept(failure);
+                }
+            } finally {
+                updateBusyState();
+            }
+        });
+    }
+
+    private synchronized boolean isCurrent(String key, Pending p) {
+        return pending.get(key) == p;
+    }
+
+    private synchronized boolean complete(String key, Pending p) {
+        return pending.remove(key, p);
+    }
+
+    private void updateBusyState() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::updateBusyState);
+            return;
+        }
+        boolean busy = isLoading();
+        progressBar.setVisible(busy);
+        owner.setCursor(busy ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+}
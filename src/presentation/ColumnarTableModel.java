@@ -0,0 +1,445 @@
+package presentation;
+
+import javax.swing.table.AbstractTableModel;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * نموذج جدول يخزن البيانات على شكل أعمدة من المصفوفات الأولية (int[]، double[]، ...)
+ * بدل Vector من Vector كما في DefaultTableModel.
+ *
+ * تُجهَّز البيانات كاملة في كائن {@link Data} (يمكن بناؤه في الخلفية عبر {@link Builder})
+ * ثم تستبدل دفعة واحدة مع حدث تحديث واحد. القيم تغلف (boxing) فقط عند عرض الخلايا الظاهرة،
+ * ويمكن عرض جزء من الصفوف (نتيجة بحث) عبر مصفوفة أرقام الصفوف دون نسخ البيانات.
+ * للتحميل على صفحات تضاف الصفوف إلى نهاية البيانات عبر {@link #appendData(Data)}.
+ *
+ * لتطبيق تغيير واحد دون إعادة بناء الجدول توجد عمليات على مستوى الصف ({@link #setRow}،
+ * {@link #setObject}، {@link #removeRow}) مع حدث للصف المتأثر فقط. هذه العمليات تكتب في مصفوفات
+ * يملكها النموذج (تنسخ مرة واحدة عند أول تعديل)، لذا اللقطة المعادة من {@link #getData()} بعد ذلك
+ * تعكس التعديلات اللاحقة.
+ */
+public class ColumnarTableModel extends AbstractTableModel {
+
+    private static final long serialVersionUID = 1L;
+
+    /** نوع تخزين العمود */
+    public enum Type { INT, DOUBLE, BOOLEAN, STRING, OBJECT }
+
+    /**
+     * تعريف عمود: الاسم ونوع التخزين وتنسيق العرض الاختياري (لأعمدة DOUBLE).
+     */
+    public static final class Column {
+        final String name;
+        final Type type;
+        final String format;
+
+        private Column(String name, Type type, String format) {
+            this.name = name;
+            this.type = type;
+            this.format = format;
+        }
+    }
+
+    /** @param name اسم العمود @return عمود أعداد صحيحة */
+    public static Column intColumn(String name) {
+        return new Column(name, Type.INT, null);
+    }
+
+    /** @param name اسم العمود @return عمود أعداد عشرية يعرض كقيمة Double */
+    public static Column doubleColumn(String name) {
+        return new Column(name, Type.DOUBLE, null);
+    }
+
+    /**
+     * @param name اسم العمود
+     * @param format تنسيق العرض (مثل "%.2f")، تعرض الخلية كنص منسق
+     * @return عمود أعداد عشرية
+     */
+    public static Column doubleColumn(String name, String format) {
+        return new Column(name, Type.DOUBLE, format);
+    }
+
+    /** @param name اسم العمود @return عمود قيم منطقية */
+    public static Column booleanColumn(String name) {
+        return new Column(name, Type.BOOLEAN, null);
+    }
+
+    /** @param name اسم العمود @return عمود نصوص */
+    public static Column stringColumn(String name) {
+        return new Column(name, Type.STRING, null);
+    }
+
+    /** @param name اسم العمود @return عمود كائنات عامة */
+    public static Column objectColumn(String name) {
+        return new Column(name, Type.OBJECT, null);
+    }
+
+    /**
+     * لقطة غير قابلة للتعديل من بيانات الجدول مخزنة كأعمدة.
+     */
+    public static final class Data {
+        private final Column[] columns;
+        private final Object[] arrays;
+        private final int rowCount;
+
+        private Data(Column[] columns, Object[] arrays, int rowCount) {
+            this.columns = columns;
+            this.arrays = arrays;
+            this.rowCount = rowCount;
+        }
+
+        /** @return عدد الصفوف */
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        /** @return قيمة عمود INT في الصف المحدد */
+        public int getInt(int row, int col) {
+            return ((int[]) arrays[col])[row];
+        }
+
+        /** @return قيمة عمود DOUBLE في الصف المحدد */
+        public double getDouble(int row, int col) {
+            return ((double[]) arrays[col])[row];
+        }
+
+        /** @return قيمة عمود BOOLEAN في الصف المحدد */
+        public boolean getBoolean(int row, int col) {
+            return ((boolean[]) arrays[col])[row];
+        }
+
+        /** @return قيمة عمود STRING أو OBJECT في الصف المحدد */
+        public Object getObject(int row, int col) {
+            return ((Object[]) arrays[col])[row];
+        }
+
+        Object getValue(int row, int col) {
+            Column c = columns[col];
+            switch (c.type) {
+                case INT:
+                    return getInt(row, col);
+                case DOUBLE:
+                    double d = getDouble(row, col);
+                    return c.format != null ? String.format(c.format, d) : (Object) d;
+                case BOOLEAN:
+                    return getBoolean(row, col);
+                default:
+                    return getObject(row, col);
+            }
+        }
+    }
+
+    /**
+     * أداة لبناء {@link Data} صفًا بصف. لا تعتمد على حالة النموذج، لذا يمكن استخدامها في الخلفية.
+     */
+    public static final class Builder {
+        private final Column[] columns;
+        private final Object[] arrays;
+        private int capacity;
+        private int size;
+
+        private Builder(Column[] columns, int expectedRows) {
+            this.columns = columns;
+            this.capacity = Math.max(expectedRows, 16);
+            this.arrays = new Object[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                arrays[c] = allocate(columns[c].type, capacity);
+            }
+        }
+
+        /**
+         * بدء صف جديد؛ دوال set التالية تكتب فيه.
+         * @return نفس الأداة
+         */
+        public Builder addRow() {
+            if (size == capacity) {
+                capacity = capacity * 2;
+                for (int c = 0; c < columns.length; c++) {
+                    arrays[c] = copyOf(arrays[c], capacity);
+                }
+            }
+            size++;
+            return this;
+        }
+
+        /** كتابة قيمة في عمود INT للصف الحالي */
+        public Builder set(int col, int value) {
+            ((int[]) arrays[col])[size - 1] = value;
+            return this;
+        }
+
+        /** كتابة قيمة في عمود DOUBLE للصف الحالي */
+        public Builder set(int col, double value) {
+            ((double[]) arrays[col])[size - 1] = value;
+            return this;
+        }
+
+        /** كتابة قيمة في عمود BOOLEAN للصف الحالي */
+        public Builder set(int col, boolean value) {
+            ((boolean[]) arrays[col])[size - 1] = value;
+            return this;
+        }
+
+        /** كتابة قيمة في عمود STRING أو OBJECT للصف الحالي */
+        public Builder set(int col, Object value) {
+            ((Object[]) arrays[col])[size - 1] = value;
+            return this;
+        }
+
+        /**
+         * @return لقطة البيانات بالحجم الفعلي لعدد الصفوف
+         */
+        public Data build() {
+            Object[] trimmed = new Object[arrays.length];
+            for (int c = 0; c < arrays.length; c++) {
+                trimmed[c] = copyOf(arrays[c], size);
+            }
+            return new Data(columns, trimmed, size);
+        }
+    }
+
+    private final Column[] columns;
+    private Data data;
+    private int[] view;
+
+    // آخر بيانات نسخها النموذج لنفسه؛ يمكن تعديل مصفوفاتها في مكانها ولها سعة احتياطية بعد rowCount
+    private Data owned;
+
+    /**
+     * إنشاء نموذج بالأعمدة المحددة وبدون صفوف.
+     * @param columns تعريفات الأعمدة
+     */
+    public ColumnarTableModel(Column... columns) {
+        this.columns = columns.clone();
+        this.data = newBuilder(0).build();
+    }
+
+    /**
+     * إنشاء أداة بناء بيانات متوافقة مع أعمدة هذا النموذج.
+     * @param expectedRows العدد المتوقع للصفوف (لتقليل إعادة الحجز)
+     * @return أداة البناء
+     */
+    public Builder newBuilder(int expectedRows) {
+        return new Builder(columns, expectedRows);
+    }
+
+    /**
+     * استبدال كل بيانات الجدول دفعة واحدة.
+     * @param data البيانات الجديدة
+     */
+    public void setData(Data data) {
+        setData(data, null);
+    }
+
+    /**
+     * استبدال بيانات الجدول مع عرض صفوف محددة فقط.
+     * @param data البيانات الجديدة
+     * @param rows أرقام الصفوف المعروضة من data بالترتيب، أو null لعرض كل الصفوف
+     */
+    public void setData(Data data, int[] rows) {
+        this.data = data;
+        this.view = rows;
+        fireTableDataChanged();
+    }
+
+    /**
+     * إضافة صفوف إلى نهاية بيانات الجدول (الصفحة التالية عند التحميل على صفحات)
+     * مع حدث إدراج للصفوف الجديدة فقط.
+     *
+     * تنسخ الصفوف إلى مصفوفات يملكها النموذج وتنمو بالمضاعفة، فتكون كلفة الإضافة متناسبة مع
+     * حجم الصفحة لا مع حجم الجدول. اللقطات السابقة المعادة من {@link #getData()} تبقى صالحة
+     * لأن الكتابة تتم بعد عدد صفوفها فقط.
+     * إذا كان هناك عرض لصفوف محددة (view) فعال تضاف الصفوف إلى البيانات دون عرضها حتى يستبدل العرض.
+     * @param more الصفوف المضافة (مبنية عبر {@link #newBuilder(int)})
+     */
+    public void appendData(Data more) {
+        if (more.rowCount == 0) return;
+
+        int first = data.rowCount;
+        int total = first + more.rowCount;
+        Object[] arrays = own(total).arrays;
+        for (int c = 0; c < columns.length; c++) {
+            System.arraycopy(more.arrays[c], 0, arrays[c], first, more.rowCount);
+        }
+        data = new Data(columns, arrays, total);
+        owned = data;
+        if (view == null) fireTableRowsInserted(first, total - 1);
+    }
+
+    /**
+     * البحث عن أول صف قيمته في عمود INT تساوي القيمة المعطاة (مثل عمود المعرف).
+     * @param col رقم العمود (من نوع INT)
+     * @param value القيمة المطلوبة
+     * @return رقم الصف في {@link #getData()}، أو -1 إن لم يوجد
+     */
+    public int findRow(int col, int value) {
+        int[] values = (int[]) data.arrays[col];
+        for (int row = 0; row < data.rowCount; row++) {
+            if (values[row] == value) return row;
+        }
+        return -1;
+    }
+
+    /**
+     * استبدال قيم صف واحد مع حدث تحديث لهذا الصف فقط.
+     * @param row رقم الصف في {@link #getData()}
+     * @param values صف واحد مبني عبر {@link #newBuilder(int)}
+     */
+    public void setRow(int row, Data values) {
+        if (values.rowCount != 1) throw new IllegalArgumentException("Expected exactly one row");
+        checkRow(row);
+        Object[] arrays = own(data.rowCount).arrays;
+        for (int c = 0; c < columns.length; c++) {
+            System.arraycopy(values.arrays[c], 0, arrays[c], row, 1);
+        }
+        fireDataRowUpdated(row);
+    }
+
+    /**
+     * تعديل خلية واحدة في عمود STRING أو OBJECT مع حدث تحديث لصفها فقط.
+     * @param row رقم الصف في {@link #getData()}
+     * @param col رقم العمود
+     * @param value القيمة الجديدة
+     */
+    public void setObject(int row, int col, Object value) {
+        checkRow(row);
+        ((Object[]) own(data.rowCount).arrays[col])[row] = value;
+        fireDataRowUpdated(row);
+    }
+
+    /**
+     * حذف صف مع حدث حذف لهذا الصف فقط؛ الصفوف التالية تزاح للأعلى. إذا كان هناك عرض لصفوف محددة
+     * (view) فعال يحذف الصف منه وتعدل أرقام الصفوف التالية فيه.
+     * @param row رقم الصف في {@link #getData()}
+     */
+    public void removeRow(int row) {
+        checkRow(row);
+        int shown = row;
+        if (view != null) {
+            shown = -1;
+            int[] remaining = new int[view.length];
+            int n = 0;
+            for (int i = 0; i < view.length; i++) {
+                if (view[i] == row) shown = i;
+                else remaining[n++] = view[i] > row ? view[i] - 1 : view[i];
+            }
+            view = n == view.length ? remaining : Arrays.copyOf(remaining, n);
+        }
+        int total = data.rowCount - 1;
+        Object[] arrays = own(data.rowCount).arrays;
+        for (int c = 0; c < columns.length; c++) {
+            System.arraycopy(arrays[c], row + 1, arrays[c], row, total - row);
+            // تحرير المرجع في الخانة الأخيرة التي لم تعد ضمن الصفوف
+            if (arrays[c] instanceof Object[]) ((Object[]) arrays[c])[total] = null;
+        }
+        data = new Data(columns, arrays, total);
+        owned = data;
+        if (shown >= 0) fireTableRowsDeleted(shown, shown);
+    }
+
+    /**
+     * @return البيانات الحالية (كل الصفوف وليس فقط المعروضة)
+     */
+    public Data getData() {
+        return data;
+    }
+
+    /**
+     * @return true إذا كان الجدول يعرض صفوفًا محددة فقط (view) بدل كل البيانات
+     */
+    public boolean hasRowView() {
+        return view != null;
+    }
+
+    /**
+     * تحويل رقم صف معروض إلى رقمه في البيانات.
+     * @param row رقم الصف في الجدول
+     * @return رقم الصف في {@link #getData()}
+     */
+    public int toDataRow(int row) {
+        return view == null ? row : view[row];
+    }
+
+    @Override
+    public int getRowCount() {
+        return view == null ? data.rowCount : view.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column].name;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        return data.getValue(toDataRow(rowIndex), columnIndex);
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    /**
+     * ضمان أن مصفوفات البيانات الحالية ملك للنموذج وتتسع لعدد الصفوف المطلوب (تنمو بالمضاعفة).
+     * @return البيانات الحالية بعد النسخ إن لزم
+     */
+    private Data own(int minCapacity) {
+        if (data != owned || capacity(data) < minCapacity) {
+            int newCapacity = Math.max(minCapacity, Math.max(16, data.rowCount * 2));
+            Object[] arrays = new Object[columns.length];
+            for (int c = 0; c < columns.length; c++) {
+                arrays[c] = copyOf(data.arrays[c], newCapacity);
+            }
+            data = new Data(columns, arrays, data.rowCount);
+            owned = data;
+        }
+        return data;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= data.rowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + data.rowCount);
+        }
+    }
+
+    /** حدث تحديث للصف المعروض الذي يقابل صف البيانات (إن كان معروضًا) */
+    private void fireDataRowUpdated(int row) {
+        if (view == null) {
+            fireTableRowsUpdated(row, row);
+            return;
+        }
+        for (int i = 0; i < view.length; i++) {
+            if (view[i] == row) fireTableRowsUpdated(i, i);
+        }
+    }
+
+    private static Object allocate(Type type, int size) {
+        switch (type) {
+            case INT:
+                return new int[size];
+            case DOUBLE:
+                return new double[size];
+            case BOOLEAN:
+                return new boolean[size];
+            default:
+                return new Object[size];
+        }
+    }
+
+    private static int capacity(Data d) {
+        return d.arrays.length == 0 ? Integer.MAX_VALUE : Array.getLength(d.arrays[0]);
+    }
+
+    private static Object copyOf(Object array, int size) {
+        if (array instanceof int[]) return Arrays.copyOf((int[]) array, size);
+        if (array instanceof double[]) return Arrays.copyOf((double[]) array, size);
+        if (array instanceof boolean[]) return Arrays.copyOf((boolean[]) array, size);
+        return Arrays.copyOf((Object[]) array, size);
+    }
+}
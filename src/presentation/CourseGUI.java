@@ -11,8 +11,10 @@ import domain.Course;
 import domain.Teacher;
 import domain.Department;
 
+import infrastructure.ChangeEvent;
 import infrastructure.CourseNotifier;
 import infrastructure.CourseObserver;
+import infrastructure.SearchIndex;
 import infrastructure.TeacherNotifier;
 import infrastructure.TeacherObserver;
 
@@ -21,15 +23,14 @@ import application.TeacherService;
 import application.DepartmentService;
 
 import javax.swing.*;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
-import javax.swing.table.DefaultTableModel;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver {
 
@@ -42,7 +43,7 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
 
     // الجدول ونموذجه
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
 
     // الخدمات
     private CourseService courseService;
@@ -52,11 +53,22 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
     // قوائم مؤقتة لتخزين المعلمين والأقسام
     private List<Teacher> cachedTeachers = new ArrayList<>();
     private List<Department> cachedDepartments = new ArrayList<>();
+    private List<Course> cachedCourses = new ArrayList<>();
+
+    // فهرس البحث على أسماء المقررات المحملة (بنفس ترتيب cachedCourses)
+    private volatile SearchIndex<Course> courseIndex = SearchIndex.empty();
+
+    // بيانات الجدول لكل المقررات، وأرقام الصفوف المطابقة للبحث الحالي (null تعني الكل)
+    private ColumnarTableModel.Data courseData;
+    private int[] visibleRows;
+
+    // محمل البيانات في الخلفية
+    private final AsyncLoader loader = new AsyncLoader(this);
 
     /**
      * المُنشئ: يبني الواجهة ويربطها بالمراقبين ويحمل البيانات.
      */
-    public CourseGUI(Connection conn) {
+    public CourseGUI(DataSource dataSource) {
         setLayout(new BorderLayout());
 
         // التسجيل كمراقب
@@ -64,9 +76,9 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         CourseNotifier.register(this);
 
         try {
-            courseService = new CourseService(conn);
-            teacherService = new TeacherService(conn);
-            departmentService = new DepartmentService(conn);
+            courseService = new CourseService(dataSource);
+            teacherService = new TeacherService(dataSource);
+            departmentService = new DepartmentService(dataSource);
         } catch (Exception e) {
             showError(e);
             return;
@@ -124,6 +136,7 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
 
         // شريط البحث
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        searchPanel.add(loader.getProgressBar());
         searchPanel.add(new JLabel("Search by Course Name:"));
         searchPanel.add(tfSearch);
 
@@ -133,12 +146,14 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         add(topPanel, BorderLayout.NORTH);
 
         // إعداد الجدول
-        tableModel = new DefaultTableModel(new String[]{"ID", "Name", "Description", "Credits", "Teacher", "Department"}, 0) {
-            private static final long serialVersionUID = 1L;
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ColumnarTableModel(
+            ColumnarTableModel.intColumn("ID"),
+            ColumnarTableModel.stringColumn("Name"),
+            ColumnarTableModel.stringColumn("Description"),
+            ColumnarTableModel.intColumn("Credits"),
+            ColumnarTableModel.stringColumn("Teacher"),
+            ColumnarTableModel.stringColumn("Department")
+        );
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null); // 
         // تلوين الصفوف بالتناوب لتحسين المظهر
@@ -163,11 +178,8 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         deleteBtn.addActionListener(e -> deleteCourse());
         clearBtn.addActionListener(e -> clearFields());
 
-        tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { search(); }
-            public void removeUpdate(DocumentEvent e) { search(); }
-            public void changedUpdate(DocumentEvent e) { search(); }
-        });
+        // البحث بعد توقف الكتابة
+        GUIUtils.setupDebouncedSearchField(tfSearch, GUIUtils.SEARCH_DEBOUNCE_MS, this::search);
 
         table.addMouseListener(new MouseAdapter() {
             public void mouseClicked(MouseEvent e) {
@@ -183,51 +195,64 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
     }
 
     /**
-     * تحميل بيانات المقررات من الخدمة.
+     * تحميل بيانات المقررات من الخدمة في الخلفية.
      */
     private void loadCourses() {
-        try {
-            tableModel.setRowCount(0);
-            List<Course> list = courseService.getAllCourses();
-            for (Course c : list) {
-                tableModel.addRow(new Object[]{
-                    c.getId(),
-                    c.getName(),
-                    c.getDescription(),
-                    c.getCredits(),
-                    getTeacherNameById(c.getTeacherId()),
-                    getDepartmentNameById(c.getDepartmentId())
-                });
-            }
-        } catch (Exception e) {
-            showError(e);
-        }
+        loader.load("courses", () -> new SearchIndex<>(courseService.getAllCourses(), Course::getName), index -> {
+            courseIndex = index;
+            cachedCourses = index.search("");
+            visibleRows = null;
+            renderCourses();
+            search();
+        });
     }
 
     /**
-     * تحميل قائمة المعلمين.
+     * تحميل قائمة المعلمين في الخلفية.
      */
     private void loadTeachers() {
-        try {
+        loader.load("teachers", teacherService::getAll, list -> {
+            cachedTeachers = list;
             cbTeacher.removeAllItems();
-            cachedTeachers = teacherService.getAll();
             for (Teacher t : cachedTeachers) cbTeacher.addItem(t);
-        } catch (Exception e) {
-            showError(e);
-        }
+            renderCourses();
+        });
     }
 
     /**
-     * تحميل قائمة الأقسام.
+     * تحميل قائمة الأقسام في الخلفية.
      */
     private void loadDepartments() {
-        try {
+        loader.load("departments", departmentService::getAll, list -> {
+            cachedDepartments = list;
             cbDepartment.removeAllItems();
-            cachedDepartments = departmentService.getAll();
             for (Department d : cachedDepartments) cbDepartment.addItem(d);
-        } catch (Exception e) {
-            showError(e);
+            renderCourses();
+        });
+    }
+
+    /**
+     * بناء بيانات الجدول لكل المقررات المحملة ثم عرض الصفوف المطابقة للبحث الحالي.
+     * يعاد استدعاؤها عند وصول المعلمين أو الأقسام لتحديث الأسماء المعروضة.
+     */
+    private void renderCourses() {
+        Map<Integer, String> teacherNames = new HashMap<>();
+        for (Teacher t : cachedTeachers) teacherNames.put(t.getId(), t.getName());
+        Map<Integer, String> departmentNames = new HashMap<>();
+        for (Department d : cachedDepartments) departmentNames.put(d.getId(), d.getName());
+
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(cachedCourses.size());
+        for (Course c : cachedCourses) {
+            rows.addRow()
+                .set(0, c.getId())
+                .set(1, c.getName())
+                .set(2, c.getDescription())
+                .set(3, c.getCredits())
+                .set(4, teacherNames.getOrDefault(c.getTeacherId(), "Unknown"))
+                .set(5, departmentNames.getOrDefault(c.getDepartmentId(), "Unknown"));
         }
+        courseData = rows.build();
+        tableModel.setData(courseData, visibleRows);
     }
 
     /**
@@ -257,9 +282,8 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
                 selectedDepartment.getId()
             );
             courseService.add(course);
-            loadCourses();
             clearFields();
-            CourseNotifier.notifyAllObservers();
+            CourseNotifier.notifyAllObservers();  // يعيد تحميل هذه اللوحة أيضًا
         } catch (Exception e) {
             showError(e);
         }
@@ -299,9 +323,8 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
                 selectedDepartment.getId()
             );
             courseService.update(course);
-            loadCourses();
             clearFields();
-            CourseNotifier.notifyAllObservers();
+            CourseNotifier.notifyAllObservers();  // يعيد تحميل هذه اللوحة أيضًا
         } catch (Exception e) {
             showError(e);
         }
@@ -322,38 +345,26 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         try {
             int id = (int) tableModel.getValueAt(row, 0);
             courseService.delete(id);
-            loadCourses();
             clearFields();
-            CourseNotifier.notifyAllObservers();
+            CourseNotifier.notifyAllObservers();  // يعيد تحميل هذه اللوحة أيضًا
         } catch (Exception e) {
             showError(e);
         }
     }
 
     /**
-     * البحث في المقررات.
+     * البحث في المقررات المحملة عبر الفهرس المحلي (بدون استعلام لقاعدة البيانات).
+     * أي بحث سابق لم يكتمل يتم إلغاؤه.
      */
     private void search() {
-        try {
-            String keyword = tfSearch.getText().toLowerCase();
-            List<Course> list = courseService.getAllCourses();
-
-            tableModel.setRowCount(0);
-            for (Course c : list) {
-                if (c.getName().toLowerCase().contains(keyword)) {
-                    tableModel.addRow(new Object[]{
-                        c.getId(),
-                        c.getName(),
-                        c.getDescription(),
-                        c.getCredits(),
-                        getTeacherNameById(c.getTeacherId()),
-                        getDepartmentNameById(c.getDepartmentId())
-                    });
-                }
-            }
-        } catch (Exception e) {
-            showError(e);
-        }
+        String text = tfSearch.getText();
+        SearchIndex<Course> index = courseIndex;
+        loader.load("search", () -> index.searchPositions(text), rows -> {
+            // نتيجة بحث على فهرس قديم لا تطابق صفوف البيانات الحالية
+            if (index != courseIndex || courseData == null) return;
+            visibleRows = rows;
+            tableModel.setData(courseData, visibleRows);
+        });
     }
 
     /**
@@ -369,22 +380,6 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         table.clearSelection();
     }
 
-    private String getTeacherNameById(int id) {
-        return cachedTeachers.stream()
-            .filter(t -> t.getId() == id)
-            .map(Teacher::getName)
-            .findFirst()
-            .orElse("Unknown");
-    }
-
-    private String getDepartmentNameById(int id) {
-        return cachedDepartments.stream()
-            .filter(d -> d.getId() == id)
-            .map(Department::getName)
-            .findFirst()
-            .orElse("Unknown");
-    }
-
     private void selectComboBoxByName(String name) {
         if (name == null) return;
         for (int i = 0; i < cbTeacher.getItemCount(); i++) {
@@ -459,9 +454,33 @@ public class CourseGUI extends JPanel implements CourseObserver, TeacherObserver
         loadCourses();
     }
 
+    /**
+     * تطبيق تغييرات المعلمين دون استعلام: تعديل القائمة المنسدلة، واسم المعلم في صفوف مقرراته فقط.
+     * @param changes التغييرات بترتيب حدوثها
+     */
+    @Override
+    public void onTeacherChanges(List<ChangeEvent<Teacher>> changes) {
+        for (ChangeEvent<Teacher> change : changes) {
+            GUIUtils.applyChange(cbTeacher, change, Teacher::getId, 0);
+            cachedTeachers.removeIf(t -> t.getId() == change.getId());
+            if (change.getType() != ChangeEvent.Type.DELETED) cachedTeachers.add(change.getEntity());
+            if (change.getType() == ChangeEvent.Type.CREATED || courseData == null) continue;
+
+            String name = change.getType() == ChangeEvent.Type.DELETED ? "Unknown" : change.getEntity().getName();
+            for (int row = 0; row < cachedCourses.size(); row++) {
+                if (cachedCourses.get(row).getTeacherId() == change.getId()
+                        && !name.equals(courseData.getObject(row, 4))) {
+                    tableModel.setObject(row, 4, name);
+                    // البيانات أصبحت ملك النموذج (نسخة)؛ البحث التالي يعرضها
+                    courseData = tableModel.getData();
+                }
+            }
+        }
+    }
+
     @Override
     public void onTeacherListChanged(List<Teacher> updatedList) {
-        cachedTeachers = updatedList;
+        cachedTeachers = new ArrayList<>(updatedList);
         loadTeachers();
         loadCourses();
     }
@@ -5,11 +5,12 @@ import application.*;
 import infrastructure.*;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 /**
  * واجهة المستخدم EnrollmentGUI تتيح إدارة تسجيلات الطلاب في المقررات.
@@ -24,35 +25,48 @@ public class EnrollmentGUI extends JPanel
     private final EnrollmentService enrollmentService;
     private final StudentService studentService;
     private final CourseService courseService;
-    private final TeacherService teacherService;
-    private final SemesterService semesterService;
+    // استعلامات القوائم المنسدلة تعمل معًا على خيوط افتراضية
+    private final AsyncServices referenceData;
 
     private final JTable table;
-    private final DefaultTableModel tableModel;
+    private final ColumnarTableModel tableModel;
     private final JTextField tfGrade;
-    private final JComboBox<Student> cbStudent;
-    private final JComboBox<Course> cbCourse;
+    private final JComboBox<TypeAheadComboBoxModel.Entry> cbStudent;
+    private final JComboBox<TypeAheadComboBoxModel.Entry> cbCourse;
     private final JComboBox<Semester> cbSemester;
     private final JComboBox<Teacher> cbTeacher;
 
+    // قوائم الطلاب والمقررات قد تصل إلى عشرات الآلاف: معرفات ونصوص فقط مع تصفية أثناء الكتابة
+    private final TypeAheadComboBoxModel<Student> studentChoices;
+    private final TypeAheadComboBoxModel<Course> courseChoices;
+
+    // محمل البيانات في الخلفية
+    private final AsyncLoader loader = new AsyncLoader(this);
+
+    // تحميل الجدول على صفحات عند التمرير
+    private final PagedTableLoader<Enrollment> pager;
+
     /**
      * منشئ EnrollmentGUI يقوم بتهيئة المكونات، تحميل البيانات، وربط الأحداث.
-     * @param conn اتصال قاعدة البيانات
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      * @throws Exception في حال حدوث خطأ في تحميل البيانات
      */
-    public EnrollmentGUI(Connection conn) throws Exception {
+    public EnrollmentGUI(DataSource dataSource) throws Exception {
         setLayout(new BorderLayout());
 
         // إنشاء الخدمات
-        this.enrollmentService = new EnrollmentService(conn);
-        this.studentService = new StudentService(conn);
-        this.courseService = new CourseService(conn);
-        this.teacherService = new TeacherService(conn);
-        this.semesterService = new SemesterService(conn);
+        this.enrollmentService = new EnrollmentService(dataSource);
+        this.studentService = new StudentService(dataSource);
+        this.courseService = new CourseService(dataSource);
+        this.referenceData = new AsyncServices(dataSource);
 
         // إنشاء عناصر الواجهة
-        cbStudent = new JComboBox<>();
-        cbCourse = new JComboBox<>();
+        studentChoices = new TypeAheadComboBoxModel<>(studentService::getById);
+        courseChoices = new TypeAheadComboBoxModel<>(courseService::getById);
+        cbStudent = new JComboBox<>(studentChoices);
+        cbCourse = new JComboBox<>(courseChoices);
+        TypeAheadComboBoxModel.install(cbStudent);
+        TypeAheadComboBoxModel.install(cbCourse);
         cbSemester = new JComboBox<>();
         cbTeacher = new JComboBox<>();
         tfGrade = new JTextField(15);
@@ -92,15 +106,27 @@ public class EnrollmentGUI extends JPanel
 
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         topPanel.add(inputPanel);
+        topPanel.add(loader.getProgressBar());
         add(topPanel, BorderLayout.NORTH);
 
         // إنشاء الجدول وتهيئته
-        tableModel = new DefaultTableModel(new String[]{"Student", "Course", "Grade", "Semester", "Teacher"}, 0);
+        tableModel = new ColumnarTableModel(
+                ColumnarTableModel.stringColumn("Student"),
+                ColumnarTableModel.stringColumn("Course"),
+                ColumnarTableModel.doubleColumn("Grade"),
+                ColumnarTableModel.objectColumn("Semester"),  // يعرض عبر toString، والكائن مشترك بين الصفوف
+                ColumnarTableModel.objectColumn("Teacher"));  // كائن المعلم ليمكن تعديل صفوفه بالمعرف
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null);  // تعطيل التعديل المباشر
         // تلوين الصفوف بالتناوب لتحسين المظهر
         presentation.GUIUtils.configureTable(table);
-        add(new JScrollPane(table), BorderLayout.CENTER);
+        JScrollPane tableScroll = new JScrollPane(table);
+        add(tableScroll, BorderLayout.CENTER);
+        pager = new PagedTableLoader<>(loader, tableModel, tableScroll, PagedTableLoader.DEFAULT_PAGE_SIZE,
+                (after, limit) -> after == null
+                        ? enrollmentService.getPage(0, 0, limit)
+                        : enrollmentService.getPage(after.getStudentId(), after.getCourseId(), limit),
+                this::buildData);
 
         // أزرار التحكم
         JPanel buttonPanel = new JPanel();
@@ -115,7 +141,8 @@ public class EnrollmentGUI extends JPanel
         buttonPanel.add(clearBtn);
         add(buttonPanel, BorderLayout.SOUTH);
 
-        // تحميل البيانات الأوليّة في ComboBoxes والجدول
+        // تحميل البيانات الأوليّة في ComboBoxes والجدول: الاستعلامات الخمسة تبدأ معًا ولا ينتظر
+        // أي منها الآخر، فيكلف فتح اللوحة زمن أبطئها لا مجموعها
         loadStudents();
         loadCourses();
         loadSemesters();
@@ -135,6 +162,8 @@ public class EnrollmentGUI extends JPanel
                 enrollmentService.add(en);
                 loadData();
                 clearFields();
+            } catch (AlreadyEnrolledException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Warning", JOptionPane.WARNING_MESSAGE);
             } catch (Exception ex) {
                 showError(ex);
             }
@@ -157,9 +186,7 @@ public class EnrollmentGUI extends JPanel
             int row = table.getSelectedRow();
             if (row == -1) return;
             try {
-                Student student = (Student) cbStudent.getSelectedItem();
-                Course course = (Course) cbCourse.getSelectedItem();
-                enrollmentService.delete(student.getId(), course.getId());
+                enrollmentService.delete(studentChoices.getSelectedId(), courseChoices.getSelectedId());
                 loadData();
                 clearFields();
             } catch (Exception ex) {
@@ -174,8 +201,8 @@ public class EnrollmentGUI extends JPanel
             public void mouseClicked(MouseEvent e) {
                 int row = table.getSelectedRow();
                 if (row == -1) return;
-                selectComboBoxByName(cbStudent, tableModel.getValueAt(row, 0).toString());
-                selectComboBoxByName(cbCourse, tableModel.getValueAt(row, 1).toString());
+                studentChoices.selectByLabel(tableModel.getValueAt(row, 0).toString());
+                courseChoices.selectByLabel(tableModel.getValueAt(row, 1).toString());
                 tfGrade.setText(tableModel.getValueAt(row, 2).toString());
                 selectComboBoxByText(cbSemester, tableModel.getValueAt(row, 3).toString());
                 selectComboBoxByName(cbTeacher, tableModel.getValueAt(row, 4).toString());
@@ -209,6 +236,27 @@ public class EnrollmentGUI extends JPanel
         loadTeachers();
     }
 
+    /**
+     * تطبيق تغييرات المعلمين دون استعلام: تعديل القائمة المنسدلة، واسم المعلم في الصفوف المحملة.
+     * @param changes التغييرات بترتيب حدوثها
+     */
+    @Override
+    public void onTeacherChanges(List<ChangeEvent<Teacher>> changes) {
+        for (ChangeEvent<Teacher> change : changes) {
+            GUIUtils.applyChange(cbTeacher, change, Teacher::getId, 1);
+            if (change.getType() != ChangeEvent.Type.UPDATED) continue;
+            // المعلم المحذوف لا يمكن أن يكون له مقررات، والجديد لا تسجيلات له بعد
+            ColumnarTableModel.Data data = tableModel.getData();
+            for (int row = 0; row < data.getRowCount(); row++) {
+                Object cell = data.getObject(row, 4);
+                if (cell instanceof Teacher && ((Teacher) cell).getId() == change.getId()) {
+                    tableModel.setObject(row, 4, change.getEntity());
+                    data = tableModel.getData();
+                }
+            }
+        }
+    }
+
     /**
      * يتم استدعاؤه عند تغيير قائمة المعلمين (نسخة تحتوي على القائمة).
      */
@@ -236,87 +284,82 @@ public class EnrollmentGUI extends JPanel
     // --- تحميل البيانات ---
 
     /**
-     * تحميل قائمة الطلاب في القائمة المنسدلة.
+     * تحميل معرفات وأسماء الطلاب في القائمة المنسدلة (في الخلفية)، بالمرور على الطلاب كتدفق
+     * دون الاحتفاظ بقائمة كائنات.
      */
     private void loadStudents() {
-        try {
-            cbStudent.removeAllItems();
-            cbStudent.addItem(new Student(0, "Select a student", "na@example.com", "M", 20, "N/A", 0));
-            for (Student s : studentService.getAll()) cbStudent.addItem(s);
-            cbStudent.setSelectedIndex(0);
-        } catch (Exception e) {
-            showError(e);
-        }
+        loader.loadAsync("students", () -> referenceData.submit(() -> {
+            TypeAheadComboBoxModel.Entries entries = new TypeAheadComboBoxModel.Entries(1024);
+            studentService.forEach(s -> entries.add(s.getId(), s.getName()));
+            return entries;
+        }), studentChoices::setEntries);
     }
 
     /**
-     * تحميل قائمة المقررات.
+     * تحميل معرفات وأسماء المقررات (في الخلفية).
      */
     private void loadCourses() {
-        try {
-            cbCourse.removeAllItems();
-            cbCourse.addItem(new Course(0, "Select a course", "N/A", 1, 0, 0));
-            for (Course c : courseService.getAllCourses()) cbCourse.addItem(c);
-            cbCourse.setSelectedIndex(0);
-        } catch (Exception e) {
-            showError(e);
-        }
+        loader.loadAsync("courses", () -> referenceData.courses().thenApply(list -> {
+            TypeAheadComboBoxModel.Entries entries = new TypeAheadComboBoxModel.Entries(list.size());
+            for (Course c : list) entries.add(c.getId(), c.getName());
+            return entries;
+        }), courseChoices::setEntries);
     }
 
     /**
-     * تحميل قائمة الفصول الدراسية.
+     * تحميل قائمة الفصول الدراسية (في الخلفية).
      */
     private void loadSemesters() {
-        try {
-            cbSemester.removeAllItems();
-            cbSemester.addItem(new Semester(0, "Select", 2025, false));
-            for (Semester s : semesterService.getAll()) cbSemester.addItem(s);
-            cbSemester.setSelectedIndex(0);
-        } catch (Exception e) {
-            showError(e);
-        }
+        loadCombo("semesters", referenceData::semesters, cbSemester,
+                new Semester(0, "Select", 2025, false));
     }
 
     /**
-     * تحميل قائمة المعلمين.
+     * تحميل قائمة المعلمين (في الخلفية).
      */
     private void loadTeachers() {
-        try {
-            cbTeacher.removeAllItems();
-            cbTeacher.addItem(new Teacher(0, "Select a teacher", "na@example.com", "M", 30, 0, 0));
-            for (Teacher t : teacherService.getAll()) cbTeacher.addItem(t);
-            cbTeacher.setSelectedIndex(0);
-        } catch (Exception e) {
-            showError(e);
-        }
+        loadCombo("teachers", referenceData::teachers, cbTeacher,
+                new Teacher(0, "Select a teacher", "na@example.com", "M", 30, 0, 0));
+    }
+
+    /**
+     * تحميل قائمة منسدلة: الاستعلام وبناء النموذج كاملًا على خيط افتراضي، ثم استبدال نموذج القائمة
+     * مرة واحدة على خيط الأحداث.
+     * @param key مفتاح التحميل (تحميل أحدث بنفس المفتاح يلغي السابق)
+     * @param query يبدأ الاستعلام غير المتزامن
+     * @param comboBox القائمة المنسدلة
+     * @param placeholder العنصر الأول "Select ..."
+     * @param <T> نوع العناصر
+     */
+    private <T> void loadCombo(String key, Supplier<CompletableFuture<List<T>>> query,
+                               JComboBox<T> comboBox, T placeholder) {
+        loader.loadAsync(key, () -> query.get().thenApply(list -> GUIUtils.comboModel(placeholder, list)),
+                comboBox::setModel);
     }
 
     /**
-     * تحميل بيانات التسجيلات إلى الجدول.
+     * تحميل الصفحة الأولى من التسجيلات إلى الجدول (في الخلفية)؛ الصفحات التالية تحمل عند التمرير.
      */
     private void loadData() {
-        try {
-            fillTable(enrollmentService.getAll());
-        } catch (Exception e) {
-            showError(e);
-        }
+        pager.reload();
     }
 
     /**
-     * تعبئة الجدول ببيانات التسجيلات.
+     * تجهيز بيانات الجدول من قائمة التسجيلات (ينفذ في الخلفية).
      * @param list قائمة التسجيلات
+     * @return بيانات الجدول
      */
-    private void fillTable(List<Enrollment> list) {
-        tableModel.setRowCount(0);
+    private ColumnarTableModel.Data buildData(List<Enrollment> list) {
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(list.size());
         for (Enrollment e : list) {
-            tableModel.addRow(new Object[]{
-                    e.getStudent().getName(),
-                    e.getCourse().getName(),
-                    e.getGrade(),
-                    e.getSemester().toString(),
-                    e.getTeacher() != null ? e.getTeacher().getName() : ""
-            });
+            rows.addRow()
+                    .set(0, e.getStudent().getName())
+                    .set(1, e.getCourse().getName())
+                    .set(2, e.getGrade())
+                    .set(3, e.getSemester())
+                    .set(4, e.getTeacher() != null ? e.getTeacher() : "");
         }
+        return rows.build();
     }
 
     // --- بناء الكائن من الحقول مع تحقق ---
@@ -324,17 +367,16 @@ public class EnrollmentGUI extends JPanel
     /**
      * بناء كائن Enrollment من الحقول المدخلة في النموذج.
      * @return كائن التسجيل
+     * @throws Exception في حال فشل تحميل الطالب أو المقرر المختار
      */
-    private Enrollment buildFromFields() {
-        Student student = (Student) cbStudent.getSelectedItem();
-        Course course = (Course) cbCourse.getSelectedItem();
+    private Enrollment buildFromFields() throws Exception {
         Semester semester = (Semester) cbSemester.getSelectedItem();
         Teacher teacher = (Teacher) cbTeacher.getSelectedItem();
         String gradeText = tfGrade.getText().trim();
 
-        if (student == null || student.getId() == 0)
+        if (studentChoices.getSelectedId() == 0)
             throw new IllegalArgumentException("Please select a valid student.");
-        if (course == null || course.getId() == 0)
+        if (courseChoices.getSelectedId() == 0)
             throw new IllegalArgumentException("Please select a valid course.");
         if (semester == null || semester.getId() == 0)
             throw new IllegalArgumentException("Please select a semester.");
@@ -350,6 +392,14 @@ public class EnrollmentGUI extends JPanel
             throw new IllegalArgumentException("Grade must be a valid number.");
         }
 
+        // الكائنات الكاملة تحمل فقط للعنصرين المختارين
+        Student student = studentChoices.getSelectedEntity();
+        if (student == null)
+            throw new IllegalArgumentException("Please select a valid student.");
+        Course course = courseChoices.getSelectedEntity();
+        if (course == null)
+            throw new IllegalArgumentException("Please select a valid course.");
+
         return new Enrollment(student, course, teacher, grade, semester);
     }
 
@@ -359,11 +409,12 @@ public class EnrollmentGUI extends JPanel
      * إعادة تعيين الحقول إلى حالتها الافتراضية.
      */
     private void clearFields() {
-        cbStudent.setSelectedIndex(0);
-        cbCourse.setSelectedIndex(0);
+        // القوائم قد تكون فارغة إذا لم يكتمل تحميلها بعد
+        studentChoices.clearSelection();
+        courseChoices.clearSelection();
         tfGrade.setText("");
-        cbSemester.setSelectedIndex(0);
-        cbTeacher.setSelectedIndex(0);
+        if (cbSemester.getItemCount() > 0) cbSemester.setSelectedIndex(0);
+        if (cbTeacher.getItemCount() > 0) cbTeacher.setSelectedIndex(0);
         table.clearSelection();
     }
 
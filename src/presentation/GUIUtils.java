@@ -1,10 +1,15 @@
 package presentation;
 
+import infrastructure.ChangeEvent;
+
 import javax.swing.*;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
+import java.util.List;
+import java.util.Vector;
+import java.util.function.ToIntFunction;
 
 /**
  * فئة مساعدة تحتوي على أدوات وإعدادات شائعة الاستخدام في واجهات المستخدم الرسومية (GUI).
@@ -12,6 +17,9 @@ import java.awt.event.MouseAdapter;
  */
 public class GUIUtils {
 
+    /** مدة الانتظار الافتراضية بعد آخر ضغطة مفتاح قبل تنفيذ البحث (قابلة للتعديل عبر sms.search.debounceMs) */
+    public static final int SEARCH_DEBOUNCE_MS = Integer.getInteger("sms.search.debounceMs", 250);
+
     /**
      * إعداد جدول ليكون غير قابل للتعديل ويسمح بتحديد صف واحد فقط.
      * كما يقوم بتلوين الصفوف بالتناوب بلونين محددين لتحسين المظهر.
@@ -84,6 +92,22 @@ public class GUIUtils {
         });
     }
 
+    /**
+     * إعداد حقل بحث بحيث يتم تنفيذ الإجراء بعد توقف المستخدم عن الكتابة لمدة محددة،
+     * بدل تنفيذه مع كل ضغطة مفتاح. يتم تنفيذ الإجراء على خيط الأحداث (EDT).
+     *
+     * @param searchField حقل النص الذي يتم مراقبته
+     * @param delayMillis مدة الانتظار بعد آخر تغيير قبل تنفيذ الإجراء
+     * @param searchAction الإجراء الذي سيتم تنفيذه
+     * @return المؤقت المستخدم (يمكن إيقافه عند الحاجة)
+     */
+    public static Timer setupDebouncedSearchField(JTextField searchField, int delayMillis, Runnable searchAction) {
+        Timer timer = new Timer(delayMillis, e -> searchAction.run());
+        timer.setRepeats(false);
+        setupSearchField(searchField, timer::restart);
+        return timer;
+    }
+
     /**
      * إضافة مستمع نقر (MouseListener) لجدول بحيث يتم تنفيذ إجراء معين عند اختيار صف.
      *
@@ -99,6 +123,54 @@ public class GUIUtils {
         });
     }
 
+    /**
+     * تطبيق تغيير عنصر واحد على قائمة منسدلة دون إعادة تعبئتها: الإضافة في النهاية، والتعديل في نفس
+     * الموقع مع الحفاظ على الاختيار، والحذف للعنصر فقط.
+     *
+     * @param comboBox القائمة المنسدلة
+     * @param change حدث التغيير
+     * @param idOf دالة معرف العنصر
+     * @param firstIndex عدد العناصر الثابتة في بداية القائمة (مثل "Select ...") التي لا تمثل عناصر حقيقية
+     * @param <T> نوع العناصر
+     */
+    public static <T> void applyChange(JComboBox<T> comboBox, ChangeEvent<? extends T> change,
+                                       ToIntFunction<? super T> idOf, int firstIndex) {
+        int index = -1;
+        for (int i = firstIndex; i < comboBox.getItemCount(); i++) {
+            if (idOf.applyAsInt(comboBox.getItemAt(i)) == change.getId()) {
+                index = i;
+                break;
+            }
+        }
+        if (change.getType() == ChangeEvent.Type.DELETED) {
+            if (index >= 0) comboBox.removeItemAt(index);
+        } else if (index < 0) {
+            comboBox.addItem(change.getEntity());
+        } else {
+            boolean selected = comboBox.getSelectedIndex() == index;
+            comboBox.insertItemAt(change.getEntity(), index);
+            comboBox.removeItemAt(index + 1);
+            if (selected) comboBox.setSelectedIndex(index);
+        }
+    }
+
+    /**
+     * بناء نموذج قائمة منسدلة كاملًا دفعة واحدة، ليستبدل بـ {@code comboBox.setModel(model)} بدل إضافة
+     * العناصر واحدًا واحدًا (كل addItem يطلق حدثًا ويعيد حساب عرض القائمة). يمكن بناؤه خارج خيط
+     * الأحداث ما دام لم يربط بقائمة بعد؛ العنصر الأول يكون هو المختار.
+     *
+     * @param first العنصر الثابت في بداية القائمة (مثل "Select ...")
+     * @param items العناصر
+     * @param <T> نوع العناصر
+     * @return النموذج
+     */
+    public static <T> DefaultComboBoxModel<T> comboModel(T first, List<? extends T> items) {
+        Vector<T> all = new Vector<>(items.size() + 1);
+        all.add(first);
+        all.addAll(items);
+        return new DefaultComboBoxModel<>(all);
+    }
+
     /**
      * إنشاء كائن GridBagConstraints مع إعدادات افتراضية.
      * يحدد الموقع في شبكة GridBagLayout ويضيف حشوة وإعداد ملء أفقي.
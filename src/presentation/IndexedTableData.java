@@ -0,0 +1,20 @@
+package presentation;
+
+import infrastructure.SearchIndex;
+
+/**
+ * بيانات جدول محملة مع فهرس البحث الخاص بها، بحيث يطابق موقع كل عنصر في الفهرس
+ * رقم صفه في البيانات. نتيجة البحث (مواقع) تعرض مباشرة كجزء من الجدول دون نسخ.
+ *
+ * @param <T> نوع العناصر المفهرسة
+ */
+final class IndexedTableData<T> {
+
+    final ColumnarTableModel.Data data;
+    final SearchIndex<T> index;
+
+    IndexedTableData(ColumnarTableModel.Data data, SearchIndex<T> index) {
+        this.data = data;
+        this.index = index;
+    }
+}
@@ -0,0 +1,76 @@
+package presentation;
+
+import infrastructure.StartupReport;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JTabbedPane يبني محتوى كل تبويب عند اختياره لأول مرة فقط.
+ *
+ * حتى يتم اختيار التبويب تُعرض لوحة فارغة مكانه، فلا تُنفذ استعلامات التبويبات
+ * غير المفتوحة عند بدء التشغيل. إذا فشل إنشاء التبويب تُعرض رسالة الخطأ ويعاد
+ * المحاولة عند اختياره مرة أخرى.
+ */
+public class LazyTabbedPane extends JTabbedPane {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * دالة إنشاء محتوى التبويب.
+     */
+    @FunctionalInterface
+    public interface TabFactory {
+        Component create() throws Exception;
+    }
+
+    // مصانع التبويبات التي لم تُبنَ بعد، حسب لوحة العنصر النائب
+    private final Map<Component, TabFactory> pending = new HashMap<>();
+
+    /**
+     * إنشاء لوحة تبويبات تبني محتواها عند الطلب.
+     */
+    public LazyTabbedPane() {
+        addChangeListener(e -> buildSelected());
+    }
+
+    /**
+     * إضافة تبويب يُبنى محتواه عند أول اختيار له.
+     * @param title عنوان التبويب
+     * @param factory دالة إنشاء محتوى التبويب
+     */
+    public void addLazyTab(String title, TabFactory factory) {
+        JPanel placeholder = new JPanel(new BorderLayout());
+        pending.put(placeholder, factory);
+        addTab(title, placeholder);
+        // التبويب الأول يصبح مختارًا تلقائيًا عند إضافته
+        if (getSelectedComponent() == placeholder) buildSelected();
+    }
+
+    private void buildSelected() {
+        int index = getSelectedIndex();
+        if (index < 0) return;
+        Component placeholder = getComponentAt(index);
+        TabFactory factory = pending.get(placeholder);
+        if (factory == null) return;
+
+        String title = getTitleAt(index);
+        long start = System.nanoTime();
+        try {
+            Component content = factory.create();
+            pending.remove(placeholder);
+            setComponentAt(index, content);
+            StartupReport.record("tab " + title + " built", start);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            JPanel panel = (JPanel) placeholder;
+            panel.removeAll();
+            panel.add(new JLabel("Failed to open " + title + ": " + ex.getMessage(), SwingConstants.CENTER),
+                    BorderLayout.CENTER);
+            panel.revalidate();
+            panel.repaint();
+        }
+    }
+}
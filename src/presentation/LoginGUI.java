@@ -7,7 +7,7 @@ import application.AdminService;         // كلاس الخدمة الذي يت
 import javax.swing.*;                    // مكونات الواجهة الرسومية
 import java.awt.*;                       // لتنسيق النوافذ والمكونات
 import java.awt.event.ActionEvent;       // لمعالجة حدث الضغط على زر
-import java.sql.Connection;              // لتمرير الاتصال بقاعدة البيانات
+import javax.sql.DataSource;              // لتمرير مجمع الاتصالات بقاعدة البيانات
 
 /**
  * نافذة تسجيل الدخول الخاصة بالمشرف (Admin).
@@ -29,15 +29,15 @@ public class LoginGUI extends JDialog {
     /**
      * المُنشئ: يُنشئ نافذة حوار (Dialog) لتسجيل الدخول
      * @param parent النافذة الأب (MainFrame مثلاً)
-     * @param conn الاتصال بقاعدة البيانات
+     * @param dataSource مصدر اتصالات قاعدة البيانات
      */
-    public LoginGUI(Frame parent, Connection conn) {
+    public LoginGUI(Frame parent, DataSource dataSource) {
         // إنشاء نافذة حوار بعنوان "Login" وبوضعية Modal (تمنع التفاعل مع النوافذ الأخرى حتى تُغلق)
         super(parent, "Login", true);
 
-        // تهيئة خدمة Admin باستخدام الاتصال
+        // تهيئة خدمة Admin باستخدام مجمع الاتصالات
         try {
-            adminService = new AdminService(conn);
+            adminService = new AdminService(dataSource);
         } catch (Exception ex) {
             showError("Connection error: " + ex.getMessage());
             return;
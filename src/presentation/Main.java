@@ -1,9 +1,12 @@
 package presentation;
 
+import application.GpaMaintenance;
+import application.ReferenceDataWarmup;
+import infrastructure.StartupReport;
 import persistence.DBConnection;
 
 import javax.swing.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
 
 /**
  * نقطة دخول التطبيق (Main class).
@@ -11,6 +14,11 @@ import java.sql.Connection;
  * يقوم البرنامج بتهيئة واجهة المستخدم الرسومية وإنشاء اتصال بقاعدة البيانات، 
  * ثم عرض نافذة تسجيل الدخول. 
  * عند نجاح تسجيل الدخول يتم فتح النافذة الرئيسية للنظام التي تحتوي على التبويبات المختلفة.
+ *
+ * يتم إنشاء كل تبويب عند اختياره لأول مرة فقط. خصائص النظام الاختيارية:
+ * sms.warmup=true لتحميل البيانات المرجعية مسبقًا بالتوازي بعد تسجيل الدخول،
+ * sms.gpa.rebuild=true لإعادة حساب عمود المعدل المخزن لكل الطلاب مرة واحدة (لقاعدة بيانات قديمة)،
+ * و sms.startupReport=true لطباعة توقيت مراحل بدء التشغيل.
  */
 public class Main {
 
@@ -26,8 +34,11 @@ public class Main {
                 // تعيين مظهر النظام الأساسي (اختياري لتحسين شكل الواجهة حسب النظام المستخدم)
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
 
-                // إنشاء اتصال بقاعدة البيانات عبر فئة DBConnection
-                Connection conn = DBConnection.getConnection();
+                // الحصول على مجمع الاتصالات المشترك وفتح الاتصالات الأولية مسبقًا
+                long poolStart = System.nanoTime();
+                DataSource dataSource = DBConnection.getDataSource();
+                DBConnection.prefill();
+                StartupReport.record("connection pool ready", poolStart);
 
                 /*
                  * --- قسم تجريبي لعرض نافذة التقارير فقط ---
@@ -39,7 +50,7 @@ public class Main {
                 reportsFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
                 reportsFrame.setSize(1000, 700);
                 reportsFrame.setLocationRelativeTo(null);
-                reportsFrame.setContentPane(new ReportGUI());
+                reportsFrame.setContentPane(new ReportGUI(dataSource));
                 reportsFrame.setVisible(true);
                 return;
                 */
@@ -51,7 +62,8 @@ public class Main {
                 dummyFrame.setVisible(true);
 
                 // إنشاء وعرض نافذة تسجيل الدخول (مودال modal ترتبط بالنافذة المؤقتة)
-                LoginGUI login = new LoginGUI(dummyFrame, conn);
+                LoginGUI login = new LoginGUI(dummyFrame, dataSource);
+                StartupReport.mark("login dialog shown");
                 login.setVisible(true);
 
                 // إغلاق النافذة المؤقتة بعد إغلاق نافذة تسجيل الدخول
@@ -61,6 +73,19 @@ public class Main {
                 if (!login.isAuthenticated()) {
                     System.exit(0);  // إنهاء التطبيق إذا فشل تسجيل الدخول
                 }
+                StartupReport.mark("login accepted");
+
+                // إصلاح المعدلات المخزنة القديمة مرة واحدة (اختياري)
+                if (Boolean.getBoolean("sms.gpa.rebuild")) {
+                    long gpaStart = System.nanoTime();
+                    new GpaMaintenance(dataSource).rebuildAll();
+                    StartupReport.record("gpa rebuilt", gpaStart);
+                }
+
+                // تحميل البيانات المرجعية مسبقًا في الخلفية (اختياري)
+                if (ReferenceDataWarmup.isEnabled()) {
+                    new ReferenceDataWarmup(dataSource).start();
+                }
 
                 // إنشاء النافذة الرئيسية للتطبيق
                 JFrame frame = new JFrame("Student Management System");
@@ -69,21 +94,22 @@ public class Main {
                 frame.setLocationRelativeTo(null);    // تمركز النافذة في منتصف الشاشة
                 // لا يتم تكبير النافذة تلقائيًا باستخدام setExtendedState حتى لا تؤثر على حجمها الافتراضي
 
-                // إنشاء تبويبات النظام الرئيسية وإضافة كل تبويب للوظائف المختلفة
-                JTabbedPane tabbedPane = new JTabbedPane();
-                tabbedPane.addTab("Students", new StudentGUI(conn));
-                tabbedPane.addTab("Teachers", new TeacherGUI(conn));
-                tabbedPane.addTab("Courses", new CourseGUI(conn));
-                tabbedPane.addTab("Enrollments", new EnrollmentGUI(conn));
-                tabbedPane.addTab("Semester", new SemesterGUI(conn));
-                tabbedPane.addTab("Reports", new ReportGUI());
-                tabbedPane.addTab("Admin Register", new AdminRegisterGUI(conn));
+                // إنشاء تبويبات النظام الرئيسية؛ كل تبويب يُنشأ عند اختياره لأول مرة
+                LazyTabbedPane tabbedPane = new LazyTabbedPane();
+                tabbedPane.addLazyTab("Students", () -> new StudentGUI(dataSource));
+                tabbedPane.addLazyTab("Teachers", () -> new TeacherGUI(dataSource));
+                tabbedPane.addLazyTab("Courses", () -> new CourseGUI(dataSource));
+                tabbedPane.addLazyTab("Enrollments", () -> new EnrollmentGUI(dataSource));
+                tabbedPane.addLazyTab("Semester", () -> new SemesterGUI(dataSource));
+                tabbedPane.addLazyTab("Reports", () -> new ReportGUI(dataSource));
+                tabbedPane.addLazyTab("Admin Register", () -> new AdminRegisterGUI(dataSource));
 
                 // إضافة التبويبات إلى النافذة الرئيسية
                 frame.add(tabbedPane);
 
                 // عرض النافذة
                 frame.setVisible(true);
+                StartupReport.mark("main window visible");
 
             } catch (Exception e) {
                 // عرض رسالة خطأ في حالة فشل الاتصال بقاعدة البيانات أو أي خطأ أثناء التهيئة
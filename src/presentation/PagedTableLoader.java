@@ -0,0 +1,150 @@
+package presentation;
+
+import javax.swing.*;
+import java.util.List;
+
+/**
+ * تحميل جدول على صفحات عند التمرير بدل جلب الجدول كاملًا.
+ *
+ * يجلب الصفحة الأولى عند {@link #reload()}، ثم يراقب شريط التمرير العمودي: عند الاقتراب من
+ * نهاية الصفوف المعروضة (أقل من شاشة واحدة) يجلب الصفحة التالية في الخلفية ويضيفها إلى نهاية
+ * النموذج عبر {@link ColumnarTableModel#appendData(ColumnarTableModel.Data)}. الصفحات تطلب بطريقة
+ * البحث بالمفتاح (Keyset): مصدر الصفحات يتلقى آخر عنصر محمّل ويعيد ما بعده، فلا تزداد كلفة
+ * الصفحات المتأخرة كما مع OFFSET.
+ *
+ * كل التحميلات تتم عبر {@link AsyncLoader} بالمفتاح "page"، لذا إعادة التحميل تلغي أي صفحة جارية.
+ * يستخدم من خيط الأحداث فقط.
+ *
+ * @param <T> نوع عناصر الصفحة
+ */
+public class PagedTableLoader<T> {
+
+    /** الحجم الافتراضي للصفحة */
+    public static final int DEFAULT_PAGE_SIZE = Integer.getInteger("sms.page.size", 200);
+
+    private static final String KEY = "page";
+
+    /**
+     * مصدر الصفحات (ينفذ في الخلفية).
+     * @param <T> نوع العناصر
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+        /**
+         * @param after آخر عنصر في الصفحة السابقة، أو null للصفحة الأولى
+         * @param limit الحد الأقصى لعدد العناصر
+         * @return عناصر الصفحة بالترتيب؛ صفحة أقصر من limit تعني النهاية
+         * @throws Exception في حال فشل الجلب
+         */
+        List<T> fetch(T after, int limit) throws Exception;
+    }
+
+    /**
+     * تحويل عناصر صفحة إلى صفوف الجدول (ينفذ في الخلفية).
+     * @param <T> نوع العناصر
+     */
+    @FunctionalInterface
+    public interface RowBuilder<T> {
+        ColumnarTableModel.Data build(List<T> page);
+    }
+
+    /** صفحة محملة مع صفوفها الجاهزة */
+    private static final class Page<T> {
+        final List<T> items;
+        final ColumnarTableModel.Data rows;
+
+        Page(List<T> items, ColumnarTableModel.Data rows) {
+            this.items = items;
+            this.rows = rows;
+        }
+    }
+
+    private final AsyncLoader loader;
+    private final ColumnarTableModel model;
+    private final JScrollPane scrollPane;
+    private final int pageSize;
+    private final PageSource<T> source;
+    private final RowBuilder<T> rowBuilder;
+
+    private T last;
+    private boolean exhausted = true;
+    private boolean loading;
+
+    /**
+     * إنشاء محمل صفحات وربطه بشريط التمرير.
+     * @param loader المحمل غير المتزامن للوحة
+     * @param model نموذج الجدول الذي تضاف إليه الصفوف
+     * @param scrollPane حاوية التمرير الخاصة بالجدول
+     * @param pageSize عدد العناصر في كل صفحة
+     * @param source مصدر الصفحات
+     * @param rowBuilder تحويل العناصر إلى صفوف
+     */
+    public PagedTableLoader(AsyncLoader loader, ColumnarTableModel model, JScrollPane scrollPane, int pageSize,
+                            PageSource<T> source, RowBuilder<T> rowBuilder) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be positive");
+        this.loader = loader;
+        this.model = model;
+        this.scrollPane = scrollPane;
+        this.pageSize = pageSize;
+        this.source = source;
+        this.rowBuilder = rowBuilder;
+        scrollPane.getVerticalScrollBar().getModel().addChangeListener(e -> loadMoreIfNeeded());
+    }
+
+    /**
+     * إعادة التحميل من الصفحة الأولى (تستبدل كل صفوف الجدول).
+     */
+    public void reload() {
+        last = null;
+        exhausted = false;
+        fetch(null, true);
+    }
+
+    /**
+     * @return true إذا تم تحميل كل الصفحات
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * تحميل الصفحة التالية إذا لم يكن هناك تحميل جارٍ ولم تنته الصفحات.
+     */
+    public void loadMore() {
+        if (loading || exhausted) return;
+        fetch(last, false);
+    }
+
+    private void fetch(T after, boolean first) {
+        loading = true;
+        loader.load(KEY, () -> {
+            List<T> items = source.fetch(after, pageSize);
+            return new Page<>(items, rowBuilder.build(items));
+        }, page -> {
+            if (first) {
+                model.setData(page.rows);
+            } else {
+                model.appendData(page.rows);
+            }
+            if (!page.items.isEmpty()) last = page.items.get(page.items.size() - 1);
+            exhausted = page.items.size() < pageSize;
+            loading = false;
+            // إذا لم تملأ الصفوف نافذة العرض بعد فلن يحدث تمرير؛ نتحقق بعد تحديث التخطيط
+            SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+        }, e -> {
+            loading = false;
+            GUIUtils.showErrorMessage(scrollPane, e.getMessage());
+        });
+    }
+
+    private void loadMoreIfNeeded() {
+        if (loading || exhausted) return;
+        BoundedRangeModel bar = scrollPane.getVerticalScrollBar().getModel();
+        // الجدول لم يعرض بعد (تبويب غير ظاهر): لا نعرف حجم النافذة، وسيصل حدث عند عرضه
+        if (bar.getExtent() == 0) return;
+        int remaining = bar.getMaximum() - (bar.getValue() + bar.getExtent());
+        if (remaining <= bar.getExtent()) {
+            loadMore();
+        }
+    }
+}
@@ -3,13 +3,12 @@ package presentation;
 import application.CourseService;
 import application.StudentService;
 import application.TeacherService;
-import persistence.DBConnection;
 import reports.*;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.print.PrinterException;
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.text.MessageFormat;
 
 /**
@@ -36,21 +35,19 @@ public class ReportGUI extends JPanel {
     // زر التقرير المختار حالياً (لتمييزه)
     private JButton activeButton = null;
 
-    public ReportGUI() {
-        initServices();
+    /**
+     * إنشاء واجهة التقارير باستخدام مجمع الاتصالات المشترك مع باقي التبويبات.
+     * @param dataSource مصدر اتصالات قاعدة البيانات
+     */
+    public ReportGUI(DataSource dataSource) {
+        initServices(dataSource);
         initUI();
     }
 
-    private void initServices() {
-        try {
-            Connection conn = DBConnection.getConnection();
-            this.studentService = new StudentService(conn);
-            this.teacherService = new TeacherService(conn);
-            this.courseService = new CourseService(conn);
-        } catch (Exception ex) {
-            ReportUtils.showError(this, ex, "Failed to connect to database");
-            throw new RuntimeException("Failed to initialize services", ex);
-        }
+    private void initServices(DataSource dataSource) {
+        this.studentService = new StudentService(dataSource);
+        this.teacherService = new TeacherService(dataSource);
+        this.courseService = new CourseService(dataSource);
     }
 
     private void initUI() {
@@ -4,13 +4,12 @@ import domain.Semester;
 import infrastructure.SemesterNotifier;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 
 import application.SemesterService;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.List;
 
 /**
@@ -29,7 +28,7 @@ public class SemesterGUI extends JPanel {
     private final JTable table;
 
     /** نموذج بيانات الجدول */
-    private final DefaultTableModel tableModel;
+    private final ColumnarTableModel tableModel;
 
     /** حقل إدخال السنة */
     private final JTextField tfYear;
@@ -40,17 +39,20 @@ public class SemesterGUI extends JPanel {
     /** خانة اختيار لحالة الفتح (مفتوح/مغلق) */
     private final JCheckBox cbIsOpen;
 
+    /** محمل البيانات في الخلفية */
+    private final AsyncLoader loader = new AsyncLoader(this);
+
     /**
-     * المُنشئ الذي يهيئ الواجهة، يتلقى اتصال قاعدة البيانات.
+     * المُنشئ الذي يهيئ الواجهة، يتلقى مصدر اتصالات قاعدة البيانات.
      * يقوم بتهيئة المكونات، تحميل البيانات، وتوصيل الأحداث.
      *
-     * @param conn اتصال قاعدة البيانات
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public SemesterGUI(Connection conn) {
+    public SemesterGUI(DataSource dataSource) {
         setLayout(new BorderLayout());
 
         try {
-            semesterService = new SemesterService(conn);
+            semesterService = new SemesterService(dataSource);
         } catch (Exception e) {
             showError(e);
             throw new RuntimeException(e);
@@ -86,10 +88,17 @@ public class SemesterGUI extends JPanel {
         inputPanel.add(cbIsOpen, gbc);
 
         topPanel.add(inputPanel, BorderLayout.WEST);
+        JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        statusPanel.add(loader.getProgressBar());
+        topPanel.add(statusPanel, BorderLayout.SOUTH);
         add(topPanel, BorderLayout.NORTH);
 
         // إعداد الجدول لعرض الفصول الدراسية
-        tableModel = new DefaultTableModel(new String[]{"ID", "Term", "Year", "Is Open"}, 0);
+        tableModel = new ColumnarTableModel(
+                ColumnarTableModel.intColumn("ID"),
+                ColumnarTableModel.stringColumn("Term"),
+                ColumnarTableModel.intColumn("Year"),
+                ColumnarTableModel.booleanColumn("Is Open"));
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null);  // جعل الجدول غير قابل للتعديل مباشرة
      // تلوين الصفوف بالتناوب لتحسين المظهر
@@ -184,15 +193,10 @@ public class SemesterGUI extends JPanel {
     }
 
     /**
-     * تحميل جميع بيانات الفصول الدراسية من الخدمة وعرضها في الجدول.
+     * تحميل جميع بيانات الفصول الدراسية من الخدمة في الخلفية وعرضها في الجدول.
      */
     private void loadData() {
-        try {
-            List<Semester> list = semesterService.getAll();
-            fillTable(list);
-        } catch (Exception e) {
-            showError(e);
-        }
+        loader.load("table", semesterService::getAll, this::fillTable);
     }
 
     /**
@@ -201,15 +205,15 @@ public class SemesterGUI extends JPanel {
      * @param list قائمة الفصول التي سيتم عرضها
      */
     private void fillTable(List<Semester> list) {
-        tableModel.setRowCount(0); // تنظيف الجدول قبل الإضافة
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(list.size());
         for (Semester s : list) {
-            tableModel.addRow(new Object[]{
-                    s.getId(),
-                    s.getSeason(),
-                    s.getYear(),
-                    s.isOpen()
-            });
+            rows.addRow()
+                    .set(0, s.getId())
+                    .set(1, s.getSeason())
+                    .set(2, s.getYear())
+                    .set(3, s.isOpen());
         }
+        tableModel.setData(rows.build()); // استبدال كل الصفوف بحدث واحد
     }
 
     /**
@@ -1,30 +1,22 @@
 package presentation;
 
-import domain.Enrollment;
 import domain.Student;
-import infrastructure.GradeCalculator;
+import infrastructure.SearchIndex;
 import infrastructure.StudentNotifier;
 import infrastructure.StudentObserver;
-import infrastructure.WeightedGradeCalculator;
 
 import javax.swing.*;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
-import javax.swing.table.DefaultTableModel;
 
-import application.CourseService;
-import application.EnrollmentService;
 import application.StudentService;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * واجهة المستخدم الرسومية لإدارة بيانات الطلاب.
- * تسمح بإضافة، تعديل، حذف، والبحث عن الطلاب، كما تعرض بياناتهم مع حساب المعدل التراكمي (GPA).
+ * تسمح بإضافة، تعديل، حذف، والبحث عن الطلاب، كما تعرض بياناتهم مع المعدل التراكمي (GPA) المخزن.
  * ترث من JPanel وتنفذ واجهة StudentObserver لتحديث البيانات تلقائيًا عند التغييرات.
  */
 public class StudentGUI extends JPanel implements StudentObserver {
@@ -34,17 +26,11 @@ public class StudentGUI extends JPanel implements StudentObserver {
     /** خدمة الطلاب للتعامل مع بيانات الطلاب */
     private final StudentService studentService;
 
-    /** خدمة التسجيلات للتعامل مع بيانات التسجيل */
-    private final EnrollmentService enrollmentService;
-
-    /** أداة لحساب المعدل التراكمي */
-    private final GradeCalculator gradeCalculator;
-
     /** جدول لعرض بيانات الطلاب */
     private final JTable table;
 
-    /** نموذج بيانات الجدول */
-    private final DefaultTableModel tableModel;
+    /** نموذج بيانات الجدول (أعمدة أولية) */
+    private final ColumnarTableModel tableModel;
 
     /** حقول الإدخال للنموذج */
     private final JTextField tfName, tfEmail, tfAge, tfMajor, tfSearch;
@@ -52,23 +38,26 @@ public class StudentGUI extends JPanel implements StudentObserver {
     /** قائمة لاختيار الجنس */
     private final JComboBox<String> cbGender;
 
+    /** محمل البيانات في الخلفية */
+    private final AsyncLoader loader = new AsyncLoader(this);
+
+    /** البيانات المحملة مع فهرس البحث (الاسم والبريد الإلكتروني)، null قبل أول تحميل */
+    private volatile IndexedTableData<Student> loaded;
+
     /**
      * المُنشئ - يقوم بتهيئة الواجهة وربط خدمات البيانات.
      * كما يسجل نفسه كمراقب للتغييرات في قائمة الطلاب.
      *
-     * @param conn اتصال قاعدة البيانات
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public StudentGUI(Connection conn) {
+    public StudentGUI(DataSource dataSource) {
         setLayout(new BorderLayout());
 
         // التسجيل كمراقب لتغييرات الطلاب
         StudentNotifier.register(this);
 
         try {
-            studentService = new StudentService(conn);
-            enrollmentService = new EnrollmentService(conn);
-            CourseService courseService = new CourseService(conn);
-            gradeCalculator = new WeightedGradeCalculator(courseService);
+            studentService = new StudentService(dataSource);
         } catch (Exception e) {
             JOptionPane.showMessageDialog(this, "DB Error: " + e.getMessage());
             throw new RuntimeException(e);
@@ -108,7 +97,8 @@ public class StudentGUI extends JPanel implements StudentObserver {
 
         // إضافة حقل البحث
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        searchPanel.add(new JLabel("Search by Name:"));
+        searchPanel.add(loader.getProgressBar());
+        searchPanel.add(new JLabel("Search by Name/Email:"));
         searchPanel.add(tfSearch);
 
         topPanel.add(inputPanel, BorderLayout.WEST);
@@ -116,7 +106,14 @@ public class StudentGUI extends JPanel implements StudentObserver {
         add(topPanel, BorderLayout.NORTH);
 
         // إعداد الجدول لعرض بيانات الطلاب
-        tableModel = new DefaultTableModel(new String[]{"ID", "Name", "Email", "Gender", "Age", "Major", "GPA"}, 0);
+        tableModel = new ColumnarTableModel(
+                ColumnarTableModel.intColumn("ID"),
+                ColumnarTableModel.stringColumn("Name"),
+                ColumnarTableModel.stringColumn("Email"),
+                ColumnarTableModel.stringColumn("Gender"),
+                ColumnarTableModel.intColumn("Age"),
+                ColumnarTableModel.stringColumn("Major"),
+                ColumnarTableModel.doubleColumn("GPA", "%.2f"));
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null); // منع تعديل الخلايا مباشرة
         // تلوين الصفوف بالتناوب لتحسين المظهر
@@ -145,20 +142,8 @@ public class StudentGUI extends JPanel implements StudentObserver {
         deleteBtn.addActionListener(e -> handleDelete());
         clearBtn.addActionListener(e -> clearFields());
 
-        // تفعيل البحث التلقائي عند تغير النص
-        tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { search(); }
-            public void removeUpdate(DocumentEvent e) { search(); }
-            public void changedUpdate(DocumentEvent e) { search(); }
-
-            private void search() {
-                try {
-                    fillTable(studentService.searchByName(tfSearch.getText()));
-                } catch (Exception ex) {
-                    showError(ex);
-                }
-            }
-        });
+        // تفعيل البحث التلقائي بعد توقف الكتابة (في الفهرس المحلي بدون استعلام لقاعدة البيانات)
+        GUIUtils.setupDebouncedSearchField(tfSearch, GUIUtils.SEARCH_DEBOUNCE_MS, this::applySearch);
 
         // تعبئة الحقول عند النقر على صف في الجدول
         table.addMouseListener(new MouseAdapter() {
@@ -183,8 +168,7 @@ public class StudentGUI extends JPanel implements StudentObserver {
             Student s = new Student(0, tfName.getText(), tfEmail.getText(), cbGender.getSelectedItem().toString(),
                     Integer.parseInt(tfAge.getText()), tfMajor.getText(), 0.0);
             studentService.add(s);
-            StudentNotifier.notifyAllObservers();  // إعلام المراقبين بالتغيير
-            loadData();
+            StudentNotifier.notifyAllObservers();  // إعلام المراقبين (بما فيهم هذه اللوحة) بالتغيير
             clearFields();
         } catch (Exception ex) {
             showError(ex);
@@ -202,8 +186,7 @@ public class StudentGUI extends JPanel implements StudentObserver {
             Student s = new Student(id, tfName.getText(), tfEmail.getText(), cbGender.getSelectedItem().toString(),
                     Integer.parseInt(tfAge.getText()), tfMajor.getText(), 0.0);
             studentService.update(s);
-            StudentNotifier.notifyAllObservers();  // إعلام المراقبين
-            loadData();
+            StudentNotifier.notifyAllObservers();  // إعلام المراقبين (بما فيهم هذه اللوحة) بالتغيير
             clearFields();
         } catch (Exception ex) {
             showError(ex);
@@ -221,8 +204,7 @@ public class StudentGUI extends JPanel implements StudentObserver {
             try {
                 int id = Integer.parseInt(tableModel.getValueAt(row, 0).toString());
                 studentService.delete(id);
-                StudentNotifier.notifyAllObservers();  // إعلام المراقبين
-                loadData();
+                StudentNotifier.notifyAllObservers();  // إعلام المراقبين (بما فيهم هذه اللوحة) بالتغيير
                 clearFields();
             } catch (Exception ex) {
                 showError(ex);
@@ -231,39 +213,51 @@ public class StudentGUI extends JPanel implements StudentObserver {
     }
 
     /**
-     * تحميل بيانات جميع الطلاب وعرضها في الجدول مع حساب المعدل التراكمي.
+     * تحميل بيانات جميع الطلاب في الخلفية وبناء فهرس البحث، ثم عرضها في الجدول.
      */
     private void loadData() {
-        try {
-            fillTable(studentService.getAll());
-        } catch (Exception e) {
-            showError(e);
-        }
+        loader.load("table", () -> {
+            List<Student> students = studentService.getAll();
+            return new IndexedTableData<>(buildData(students),
+                    new SearchIndex<>(students, Student::getName, Student::getEmail));
+        }, data -> {
+            loaded = data;
+            applySearch();
+        });
+    }
+
+    /**
+     * عرض الصفوف المطابقة لنص البحث الحالي من الفهرس المحلي.
+     * أي بحث سابق لم يكتمل يتم إلغاؤه.
+     */
+    private void applySearch() {
+        IndexedTableData<Student> current = loaded;
+        if (current == null) return;
+        String text = tfSearch.getText();
+        loader.load("search", () -> current.index.searchPositions(text),
+                rows -> tableModel.setData(current.data, rows));
     }
 
     /**
-     * ملء بيانات الجدول بقائمة الطلاب المعطاة.
-     * يقوم بحساب المعدل التراكمي لكل طالب بناءً على تسجيلاته.
+     * تجهيز بيانات الجدول لقائمة الطلاب المعطاة (ينفذ في الخلفية).
+     * المعدل التراكمي يقرأ من العمود المخزن الذي تحدثه خدمة التسجيلات عند كل تغيير.
      *
      * @param students قائمة الطلاب للعرض
+     * @return بيانات الجدول بنفس ترتيب القائمة
      */
-    private void fillTable(List<Student> students) {
-        tableModel.setRowCount(0);
-        try {
-            List<Enrollment> enrollments = enrollmentService.getAll();
-            for (Student s : students) {
-                List<Enrollment> studentEnrollments = enrollments.stream()
-                        .filter(e -> e.getStudentId() == s.getId())
-                        .collect(Collectors.toList());
-                s.setEnrollments(studentEnrollments);
-                double gpa = gradeCalculator.calculateGPA(s);
-                tableModel.addRow(new Object[]{
-                        s.getId(), s.getName(), s.getEmail(), s.getGender(), s.getAge(), s.getMajor(), String.format("%.2f", gpa)
-                });
-            }
-        } catch (Exception e) {
-            showError(e);
+    private ColumnarTableModel.Data buildData(List<Student> students) {
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(students.size());
+        for (Student s : students) {
+            rows.addRow()
+                    .set(0, s.getId())
+                    .set(1, s.getName())
+                    .set(2, s.getEmail())
+                    .set(3, s.getGender())
+                    .set(4, s.getAge())
+                    .set(5, s.getMajor())
+                    .set(6, s.getGpa());
         }
+        return rows.build();
     }
 
     /**
@@ -1,26 +1,29 @@
 package presentation;
 
-import persistence.DepartmentDAO;
 import domain.Department;
 import domain.Teacher;
+import infrastructure.ChangeEvent;
+import infrastructure.SearchIndex;
 import infrastructure.TeacherObserver;
 
 import javax.swing.*;
-import javax.swing.event.DocumentEvent;
-import javax.swing.event.DocumentListener;
-import javax.swing.table.DefaultTableModel;
 
+import application.DepartmentService;
 import application.TeacherService;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * واجهة المستخدم الرسومية لإدارة بيانات المعلمين.
  * تدعم إضافة، تعديل، حذف، والبحث عن المعلمين.
- * تقوم بتحديث العرض تلقائيًا عند تغير قائمة المعلمين عبر نمط Observer.
+ * تقوم بتحديث العرض تلقائيًا عند تغير قائمة المعلمين عبر نمط Observer: التغييرات الفردية تطبق
+ * على الصف المتأثر فقط دون استعلام، وفهرس البحث يعاد بناؤه من الذاكرة عند البحث التالي.
  */
 public class TeacherGUI extends JPanel implements TeacherObserver {
     private static final long serialVersionUID = 1L;
@@ -30,23 +33,38 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
     private JComboBox<String> cbGender;
     private JComboBox<Department> cbDepartment;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ColumnarTableModel tableModel;
 
     // خدمات التعامل مع البيانات
     private TeacherService teacherService;
-    private DepartmentDAO departmentDAO;
+    private DepartmentService departmentService;
+
+    // محمل البيانات في الخلفية
+    private final AsyncLoader loader = new AsyncLoader(this);
+
+    // البيانات المحملة مع فهرس البحث (الاسم والبريد الإلكتروني)، null قبل أول تحميل؛
+    // الفهرس null بعد تطبيق تغييرات على الصفوف حتى يعاد بناؤه
+    private IndexedTableData<Teacher> loaded;
+
+    // المعلمون بنفس ترتيب صفوف البيانات في loaded، ورقم صف كل معلم حسب المعرف
+    // (يستخدمان من خيط الأحداث فقط)
+    private List<Teacher> teachers = new ArrayList<>();
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    // أسماء الأقسام حسب المعرف، null قبل تحميلها
+    private volatile Map<Integer, String> departmentNames;
 
     /**
-     * منشئ الواجهة يستقبل اتصال قاعدة البيانات.
+     * منشئ الواجهة يستقبل مصدر اتصالات قاعدة البيانات.
      * يقوم بتهيئة كل المكونات وتحميل البيانات.
-     * @param conn اتصال قاعدة البيانات
+     * @param dataSource مصدر اتصالات قاعدة البيانات (مجمع الاتصالات)
      */
-    public TeacherGUI(Connection conn) {
+    public TeacherGUI(DataSource dataSource) {
         setLayout(new BorderLayout());
 
         try {
-            teacherService = new TeacherService(conn);
-            departmentDAO = new DepartmentDAO(conn);
+            teacherService = new TeacherService(dataSource);
+            departmentService = new DepartmentService(dataSource);
             teacherService.addObserver(this);  // تسجيل كـ Observer لتحديث تلقائي
         } catch (Exception e) {
             showError(e);
@@ -114,7 +132,8 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
 
         // لوحة البحث
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
-        searchPanel.add(new JLabel("Search by Name:"));
+        searchPanel.add(loader.getProgressBar());
+        searchPanel.add(new JLabel("Search by Name/Email:"));
         searchPanel.add(tfSearch);
 
         topPanel.add(inputPanel, BorderLayout.WEST);
@@ -123,7 +142,14 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
         add(topPanel, BorderLayout.NORTH);
 
         // جدول عرض المعلمين
-        tableModel = new DefaultTableModel(new String[]{"ID", "Name", "Email", "Gender", "Age", "Department", "Salary"}, 0);
+        tableModel = new ColumnarTableModel(
+                ColumnarTableModel.intColumn("ID"),
+                ColumnarTableModel.stringColumn("Name"),
+                ColumnarTableModel.stringColumn("Email"),
+                ColumnarTableModel.stringColumn("Gender"),
+                ColumnarTableModel.intColumn("Age"),
+                ColumnarTableModel.stringColumn("Department"),
+                ColumnarTableModel.doubleColumn("Salary", "%.2f"));
         table = new JTable(tableModel);
         table.setDefaultEditor(Object.class, null);  // تعطيل التعديل المباشر
         // تلوين الصفوف بالتناوب لتحسين المظهر
@@ -152,71 +178,113 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
     }
 
     /**
-     * تحميل الأقسام من قاعدة البيانات إلى القائمة المنسدلة.
+     * تحميل الأقسام من قاعدة البيانات إلى القائمة المنسدلة في الخلفية.
      */
     private void loadDepartments() {
-        try {
-            List<Department> departments = departmentDAO.getAll();
+        loader.load("departments", departmentService::getAll, departments -> {
             cbDepartment.removeAllItems();
+            Map<Integer, String> names = new HashMap<>();
             for (Department d : departments) {
                 cbDepartment.addItem(d);
+                names.put(d.getId(), d.getName());
             }
-        } catch (Exception e) {
-            showError(e);
-        }
+            departmentNames = names;
+        });
     }
 
     /**
-     * تحميل جميع المعلمين وعرضهم في الجدول.
+     * تحميل جميع المعلمين في الخلفية وعرضهم في الجدول.
      */
     private void loadData() {
-        try {
-            List<Teacher> list = teacherService.getAll();
-            fillTable(list);
-        } catch (Exception e) {
-            showError(e);
+        loadRows(teacherService::getAll);
+    }
+
+    /**
+     * تجهيز بيانات الجدول وفهرس البحث في الخلفية ثم عرض الصفوف المطابقة لنص البحث الحالي.
+     * @param source مصدر قائمة المعلمين
+     */
+    private void loadRows(AsyncLoader.Task<List<Teacher>> source) {
+        loader.load("table", () -> {
+            List<Teacher> list = source.call();
+            return new IndexedTableData<>(buildData(list), buildIndex(list));
+        }, data -> {
+            loaded = data;
+            teachers = data.index.search("");
+            rowById.clear();
+            for (int i = 0; i < teachers.size(); i++) rowById.put(teachers.get(i).getId(), i);
+            applySearch();
+        });
+    }
+
+    private static SearchIndex<Teacher> buildIndex(List<Teacher> list) {
+        return new SearchIndex<>(list, Teacher::getName, Teacher::getEmail);
+    }
+
+    /**
+     * عرض الصفوف المطابقة لنص البحث الحالي من الفهرس المحلي (نص فارغ يعرض كل الصفوف بدون view).
+     * أي بحث سابق لم يكتمل يتم إلغاؤه. إذا كان الفهرس قديمًا بعد تطبيق تغييرات يعاد بناؤه أولًا
+     * في الخلفية من قائمة المعلمين الحالية.
+     */
+    private void applySearch() {
+        IndexedTableData<Teacher> current = loaded;
+        if (current == null) return;
+        String text = tfSearch.getText();
+        if (current.index == null) {
+            List<Teacher> snapshot = new ArrayList<>(teachers);
+            loader.load("search", () -> buildIndex(snapshot), index -> {
+                // إن وصلت تغييرات أثناء البناء فالفهرس لا يطابق الصفوف؛ نعيد المحاولة بالحالة الجديدة
+                if (loaded == current) loaded = new IndexedTableData<>(current.data, index);
+                applySearch();
+            });
+            return;
         }
+        loader.load("search", () -> text.isBlank() ? null : current.index.searchPositions(text),
+                rows -> tableModel.setData(current.data, rows));
     }
 
     /**
-     * ملء الجدول بقائمة المعلمين المعطاة.
+     * تجهيز بيانات الجدول لقائمة المعلمين المعطاة (ينفذ في الخلفية).
+     * أسماء الأقسام تجلب باستعلام واحد (مرة واحدة) بدل استعلام لكل معلم.
      * @param list قائمة المعلمين
+     * @return بيانات الجدول بنفس ترتيب القائمة
+     * @throws Exception في حال فشل جلب الأقسام
      */
-    private void fillTable(List<Teacher> list) {
-        tableModel.setRowCount(0);
-        for (Teacher t : list) {
-            String deptName = "";
-            try {
-                Department d = departmentDAO.getById(t.getDepartmentId());
-                if (d != null) deptName = d.getName();
-            } catch (Exception ignored) {
+    private ColumnarTableModel.Data buildData(List<Teacher> list) throws Exception {
+        Map<Integer, String> deptNames = departmentNames;
+        if (deptNames == null) {
+            deptNames = new HashMap<>();
+            for (Department d : departmentService.getAll()) {
+                deptNames.put(d.getId(), d.getName());
             }
-            tableModel.addRow(new Object[]{
-                    t.getId(), t.getName(), t.getEmail(), t.getGender(),
-                    t.getAge(), deptName, String.format("%.2f", t.getSalary())
-            });
+            departmentNames = deptNames;
+        }
+        ColumnarTableModel.Builder rows = tableModel.newBuilder(list.size());
+        for (Teacher t : list) {
+            addRow(rows, t, deptNames);
         }
+        return rows.build();
+    }
+
+    /** صف واحد لمعلم؛ اسم القسم من الكائن إن وجد وإلا من الخريطة */
+    private static void addRow(ColumnarTableModel.Builder rows, Teacher t, Map<Integer, String> deptNames) {
+        String department = t.getDepartmentName() != null
+                ? t.getDepartmentName() : deptNames.getOrDefault(t.getDepartmentId(), "");
+        rows.addRow()
+                .set(0, t.getId())
+                .set(1, t.getName())
+                .set(2, t.getEmail())
+                .set(3, t.getGender())
+                .set(4, t.getAge())
+                .set(5, department)
+                .set(6, t.getSalary());
     }
 
     /**
      * إعداد المستمعين لحقل البحث والنقر على الجدول.
      */
     private void setupListeners() {
-        // البحث الحي عند الكتابة
-        tfSearch.getDocument().addDocumentListener(new DocumentListener() {
-            public void insertUpdate(DocumentEvent e) { search(); }
-            public void removeUpdate(DocumentEvent e) { search(); }
-            public void changedUpdate(DocumentEvent e) { search(); }
-
-            private void search() {
-                try {
-                    List<Teacher> list = teacherService.searchByName(tfSearch.getText());
-                    fillTable(list);
-                } catch (Exception ex) {
-                    showError(ex);
-                }
-            }
-        });
+        // البحث الحي بعد توقف الكتابة (في الفهرس المحلي بدون استعلام لقاعدة البيانات)
+        GUIUtils.setupDebouncedSearchField(tfSearch, GUIUtils.SEARCH_DEBOUNCE_MS, this::applySearch);
 
         // تعبئة الحقول عند اختيار صف من الجدول
         table.addMouseListener(new MouseAdapter() {
@@ -264,6 +332,7 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
                     age,
                     dept.getId(),
                     salary);
+            t.setDepartmentName(dept.getName());
 
             teacherService.add(t);
             clearFields();
@@ -302,6 +371,7 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
                     age,
                     dept.getId(),
                     salary);
+            t.setDepartmentName(dept.getName());
 
             teacherService.update(t);
             clearFields();
@@ -362,7 +432,49 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
      */
     @Override
     public void onTeacherListChanged() {
-        SwingUtilities.invokeLater(this::loadData);
+        loadData();
+    }
+
+    /**
+     * تطبيق تغييرات المعلمين على الصفوف المتأثرة فقط (بدون استعلام)؛ صف كل معلم يحدد من فهرس
+     * المعرفات. أثناء عرض نتيجة بحث يعاد تطبيق البحث بعد التعديل لأن الصف الجديد أو المعدل قد يدخل
+     * النتيجة أو يخرج منها.
+     * @param changes التغييرات بترتيب حدوثها
+     */
+    @Override
+    public void onTeacherChanges(List<ChangeEvent<Teacher>> changes) {
+        if (loaded == null) {
+            // التحميل الأول لم يكتمل وقد يكون بدأ قبل التغيير
+            loadData();
+            return;
+        }
+        boolean filtered = !tfSearch.getText().isBlank() || tableModel.hasRowView();
+        Map<Integer, String> deptNames = departmentNames != null ? departmentNames : Map.of();
+        for (ChangeEvent<Teacher> change : changes) {
+            Integer i = rowById.get(change.getId());
+            if (change.getType() == ChangeEvent.Type.DELETED) {
+                if (i == null) continue;
+                teachers.remove((int) i);
+                tableModel.removeRow(i);
+                rowById.remove(change.getId());
+                // الصفوف التالية أزيحت للأعلى
+                for (int r = i; r < teachers.size(); r++) rowById.put(teachers.get(r).getId(), r);
+                continue;
+            }
+            ColumnarTableModel.Builder builder = tableModel.newBuilder(1);
+            addRow(builder, change.getEntity(), deptNames);
+            if (i == null) {
+                rowById.put(change.getId(), teachers.size());
+                teachers.add(change.getEntity());
+                tableModel.appendData(builder.build());
+            } else {
+                teachers.set(i, change.getEntity());
+                tableModel.setRow(i, builder.build());
+            }
+        }
+        // الصفوف محدثة؛ فهرس البحث يعاد بناؤه عند البحث التالي
+        loaded = new IndexedTableData<>(tableModel.getData(), null);
+        if (filtered) applySearch();
     }
 
     /**
@@ -372,6 +484,6 @@ public class TeacherGUI extends JPanel implements TeacherObserver {
      */
     @Override
     public void onTeacherListChanged(List<Teacher> updatedList) {
-        SwingUtilities.invokeLater(() -> fillTable(updatedList));
+        loadRows(() -> updatedList);
     }
 }
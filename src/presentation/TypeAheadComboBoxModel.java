@@ -0,0 +1,349 @@
+package presentation;
+
+import javax.swing.*;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * نموذج قائمة منسدلة للقوائم الكبيرة (الطلاب والمقررات) مع تصفية أثناء الكتابة.
+ *
+ * لا يحتفظ النموذج بالكائنات نفسها بل بمعرفاتها ونصوص عرضها في مصفوفتين متوازيتين (int[] وString[])
+ * تبنى كاملة في {@link Entries} (يمكن بناؤها في الخلفية) ثم تستبدل دفعة واحدة مع حدث واحد.
+ * عناصر القائمة ({@link Entry}) تنشأ فقط للصفوف الظاهرة عند الرسم، والكائن الكامل يحمل عبر
+ * {@link Loader} عند طلب العنصر المختار فقط ({@link #getSelectedEntity()}).
+ *
+ * التصفية تطابق وجود النص داخل نص العرض دون تمييز حالة الأحرف (مثل LIKE '%نص%')، وتبقي الترتيب
+ * الأصلي. إذا كان النص الجديد يحتوي النص السابق (استمرار الكتابة) تصفى النتيجة السابقة فقط
+ * بدل المرور على القائمة كاملة. لتفعيلها على قائمة منسدلة قابلة للتحرير انظر {@link #install(JComboBox)}.
+ *
+ * يستخدم على خيط الأحداث فقط (ما عدا بناء {@link Entries}).
+ *
+ * @param <T> نوع الكائن الكامل
+ */
+public class TypeAheadComboBoxModel<T> extends AbstractListModel<TypeAheadComboBoxModel.Entry>
+        implements ComboBoxModel<TypeAheadComboBoxModel.Entry> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** عنصر يحدد عرض القائمة بدل المرور على كل العناصر لحساب أعرضها */
+    private static final Entry PROTOTYPE = new Entry(0, "MMMMMMMMMMMMMMMMMMMMMMMM");
+
+    /**
+     * تحميل الكائن الكامل بمعرفه عند اختياره.
+     * @param <T> نوع الكائن
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * @param id معرف الكائن
+         * @return الكائن، أو null إذا لم يعد موجودًا
+         * @throws Exception في حال فشل التحميل
+         */
+        T load(int id) throws Exception;
+    }
+
+    /**
+     * عنصر معروض في القائمة: المعرف ونص العرض فقط. يتساوى عنصران بنفس المعرف.
+     */
+    public static final class Entry {
+        private final int id;
+        private final String label;
+
+        Entry(int id, String label) {
+            this.id = id;
+            this.label = label;
+        }
+
+        /** @return معرف الكائن */
+        public int getId() {
+            return id;
+        }
+
+        /** @return نص العرض */
+        public String getLabel() {
+            return label;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && ((Entry) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * عناصر القائمة كاملة قبل استبدالها في النموذج: معرفات ونصوص عرض بترتيب الإضافة.
+     * تبنى على أي خيط ثم تسلم إلى {@link #setEntries(Entries)} على خيط الأحداث.
+     */
+    public static final class Entries {
+        private int[] ids;
+        private String[] labels;
+        private int size;
+
+        /**
+         * @param expectedSize العدد المتوقع (تقدير أولي للسعة)
+         */
+        public Entries(int expectedSize) {
+            int capacity = Math.max(expectedSize, 16);
+            this.ids = new int[capacity];
+            this.labels = new String[capacity];
+        }
+
+        /**
+         * @param id معرف الكائن
+         * @param label نص العرض (null يعامل كنص فارغ)
+         * @return نفس الكائن لتسلسل الاستدعاءات
+         */
+        public Entries add(int id, String label) {
+            if (size == ids.length) {
+                int capacity = size + (size >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                labels = Arrays.copyOf(labels, capacity);
+            }
+            ids[size] = id;
+            labels[size] = label == null ? "" : label;
+            size++;
+            return this;
+        }
+
+        /** @return عدد العناصر */
+        public int size() {
+            return size;
+        }
+    }
+
+    private final Loader<T> loader;
+
+    private int[] ids = new int[0];
+    private String[] labels = new String[0];
+
+    /** مواقع العناصر الظاهرة بعد التصفية: view[0..viewSize) */
+    private int[] view = new int[0];
+    private int viewSize;
+    private String filter = "";
+
+    private Entry selected;
+
+    /** آخر كائن كامل تم تحميله (للعنصر المختار) */
+    private int loadedId;
+    private T loaded;
+
+    /**
+     * @param loader تحميل الكائن الكامل بمعرفه عند طلب العنصر المختار
+     */
+    public TypeAheadComboBoxModel(Loader<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * استبدال جميع العناصر دفعة واحدة مع إعادة تطبيق التصفية الحالية.
+     * يبقى العنصر المختار مختارًا إذا كان معرفه ما زال موجودًا.
+     * @param entries العناصر الجديدة (لا تعدل بعد تسليمها)
+     */
+    public void setEntries(Entries entries) {
+        int size = entries.size;
+        this.ids = Arrays.copyOf(entries.ids, size);
+        this.labels = Arrays.copyOf(entries.labels, size);
+        this.view = new int[size];
+
+        Entry previous = selected;
+        selected = null;
+        if (previous != null) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == previous.id) {
+                    selected = new Entry(ids[i], labels[i]);
+                    break;
+                }
+            }
+        }
+        loaded = null;  // الكائن قد تغير حتى لو بقي نص عرضه
+
+        String current = filter;
+        filter = null;
+        applyFilter(current);
+        fireContentsChanged(this, -1, -1);
+    }
+
+    /**
+     * تصفية العناصر الظاهرة بالنص المعطى؛ العنصر المختار لا يتغير.
+     * @param text نص البحث؛ النص الفارغ يظهر جميع العناصر
+     */
+    public void filter(String text) {
+        if (applyFilter(text)) fireContentsChanged(this, -1, -1);
+    }
+
+    private boolean applyFilter(String text) {
+        String query = text == null ? "" : text.trim();
+        if (query.equals(filter)) return false;
+
+        if (query.isEmpty()) {
+            for (int i = 0; i < ids.length; i++) view[i] = i;
+            viewSize = ids.length;
+        } else if (filter != null && !filter.isEmpty()
+                && query.toLowerCase(Locale.ROOT).contains(filter.toLowerCase(Locale.ROOT))) {
+            // استمرار الكتابة: كل مطابق للنص الجديد مطابق للسابق، فتكفي تصفية النتيجة السابقة
+            int n = 0;
+            for (int i = 0; i < viewSize; i++) {
+                if (containsIgnoreCase(labels[view[i]], query)) view[n++] = view[i];
+            }
+            viewSize = n;
+        } else {
+            int n = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (containsIgnoreCase(labels[i], query)) view[n++] = i;
+            }
+            viewSize = n;
+        }
+        filter = query;
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(String label, String query) {
+        for (int i = 0, last = label.length() - query.length(); i <= last; i++) {
+            if (label.regionMatches(true, i, query, 0, query.length())) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return نص التصفية الحالي
+     */
+    public String getFilter() {
+        return filter;
+    }
+
+    /**
+     * @return عدد جميع العناصر (قبل التصفية)
+     */
+    public int getEntryCount() {
+        return ids.length;
+    }
+
+    @Override
+    public int getSize() {
+        return viewSize;
+    }
+
+    @Override
+    public Entry getElementAt(int index) {
+        int position = view[index];
+        return new Entry(ids[position], labels[position]);
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selected;
+    }
+
+    /**
+     * اختيار عنصر. النص (من محرر القائمة عند الضغط على Enter أو مغادرة الحقل) يصفي القائمة به
+     * ثم يختار العنصر الظاهر الذي يطابق نص عرضه النص تمامًا (دون تمييز حالة الأحرف)؛ إن لم يوجد،
+     * أو كان النص فارغًا أو null، يلغى الاختيار حتى لا يختار نص جزئي عنصرًا غير مقصود.
+     * @param item عنصر من القائمة أو نص مكتوب
+     */
+    @Override
+    public void setSelectedItem(Object item) {
+        Entry entry;
+        if (item instanceof Entry) {
+            entry = (Entry) item;
+        } else if (item == null || item.toString().trim().isEmpty()) {
+            entry = null;
+        } else if (selected != null && selected.label.equalsIgnoreCase(item.toString().trim())) {
+            entry = selected;
+        } else {
+            // قد يصل النص قبل انتهاء مهلة التصفية أثناء الكتابة
+            filter(item.toString());
+            entry = findVisible(item.toString().trim());
+        }
+        if (entry == null ? selected == null : entry.equals(selected)) return;
+        selected = entry;
+        fireContentsChanged(this, -1, -1);
+    }
+
+    private Entry findVisible(String text) {
+        for (int i = 0; i < viewSize; i++) {
+            if (labels[view[i]].equalsIgnoreCase(text)) return getElementAt(i);
+        }
+        return null;
+    }
+
+    /**
+     * اختيار أول عنصر يطابق نص عرضه النص المعطى تمامًا (مع إلغاء التصفية)، أو إلغاء الاختيار.
+     * @param label نص العرض
+     * @return true إذا وجد العنصر
+     */
+    public boolean selectByLabel(String label) {
+        filter("");
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equals(label)) {
+                setSelectedItem(new Entry(ids[i], labels[i]));
+                return true;
+            }
+        }
+        setSelectedItem(null);
+        return false;
+    }
+
+    /**
+     * إلغاء الاختيار والتصفية.
+     */
+    public void clearSelection() {
+        filter("");
+        setSelectedItem(null);
+    }
+
+    /**
+     * @return معرف العنصر المختار، أو 0 إذا لم يكن هناك اختيار
+     */
+    public int getSelectedId() {
+        return selected == null ? 0 : selected.id;
+    }
+
+    /**
+     * تحميل الكائن الكامل للعنصر المختار (مرة واحدة لكل اختيار).
+     * @return الكائن، أو null إذا لم يكن هناك اختيار أو لم يعد الكائن موجودًا
+     * @throws Exception في حال فشل التحميل
+     */
+    public T getSelectedEntity() throws Exception {
+        if (selected == null) return null;
+        if (loaded == null || loadedId != selected.id) {
+            loaded = loader.load(selected.id);
+            loadedId = selected.id;
+        }
+        return loaded;
+    }
+
+    /**
+     * تفعيل التصفية أثناء الكتابة على قائمة منسدلة تستخدم هذا النموذج: تصبح القائمة قابلة للتحرير،
+     * وبعد توقف الكتابة تصفى العناصر بنص المحرر وتفتح القائمة. يحدد عرض القائمة بعنصر نموذجي
+     * بدل المرور على كل العناصر.
+     * @param comboBox القائمة المنسدلة (نموذجها من هذا النوع)
+     */
+    public static void install(JComboBox<Entry> comboBox) {
+        comboBox.setEditable(true);
+        comboBox.setPrototypeDisplayValue(PROTOTYPE);
+        JTextField field = (JTextField) comboBox.getEditor().getEditorComponent();
+        GUIUtils.setupDebouncedSearchField(field, GUIUtils.SEARCH_DEBOUNCE_MS, () -> {
+            if (!(comboBox.getModel() instanceof TypeAheadComboBoxModel)) return;
+            TypeAheadComboBoxModel<?> model = (TypeAheadComboBoxModel<?>) comboBox.getModel();
+            String text = field.getText();
+            // تغيير النص بعد اختيار عنصر (من القائمة أو برمجيًا) ليس كتابة من المستخدم
+            if (model.selected != null && model.selected.label.equals(text)) return;
+            model.filter(text);
+            if (field.isFocusOwner() && comboBox.isShowing()) {
+                // إعادة الفتح لتعديل ارتفاع القائمة حسب عدد النتائج
+                comboBox.setPopupVisible(false);
+                comboBox.setPopupVisible(model.getSize() > 0);
+            }
+        });
+    }
+}
@@ -1,16 +1,18 @@
 package reports;
 
-import domain.Enrollment;
 import domain.Semester;
+import domain.SemesterResult;
 import application.StudentService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
+import java.util.StringJoiner;
 
 /**
  * تقرير نتائج فصل دراسي لطالب معين.
  * يقوم المستخدم بإدخال اسم الطالب واختيار فصل دراسي، ثم يعرض جدول المقررات المسجلة في ذلك الفصل مع الدرجات والمعدل التراكمي GPA.
+ * البيانات تأتي من استعلام واحد يحسب مجموع الساعات ومتوسط الدرجات في قاعدة البيانات.
  */
 public class SemesterResultReport implements Report {
     private final StudentService studentService;
@@ -42,16 +44,6 @@ public class SemesterResultReport implements Report {
                 return;
             }
 
-            // جلب التسجيلات الخاصة بالطالب
-            List<Enrollment> enrollments = studentService.getEnrollmentsByStudentName(studentName.trim());
-            if (enrollments.isEmpty()) {
-                JOptionPane.showMessageDialog(parent,
-                        "No enrollments found for student: " + studentName,
-                        "Info", JOptionPane.INFORMATION_MESSAGE);
-                reportPanel = null;
-                return;
-            }
-
             // طلب اختيار فصل دراسي من المستخدم
             Semester semester = ReportUtils.askForSemester(parent);
             if (semester == null) {
@@ -59,48 +51,50 @@ public class SemesterResultReport implements Report {
                 return;
             }
 
-            // تصفية التسجيلات حسب الفصل الدراسي المختار
-            List<Enrollment> filtered = enrollments.stream()
-                    .filter(e -> e.getSemester().equals(semester))
-                    .toList();
-
-            if (filtered.isEmpty()) {
+            // استعلام واحد: التصفية حسب الطالب والفصل، والمجاميع والمعدل محسوبة في قاعدة البيانات
+            List<SemesterResult> results = studentService.getSemesterResults(
+                    studentName.trim(), semester.getSeason(), semester.getYear());
+            if (results.isEmpty()) {
                 JOptionPane.showMessageDialog(parent,
-                        "No records found for semester: " + semester,
+                        "No records found for student: " + studentName + " in semester: " + semester,
                         "Info", JOptionPane.INFORMATION_MESSAGE);
                 reportPanel = null;
                 return;
             }
 
-            // تجهيز بيانات الجدول
-            String[] columns = {"Course", "Teacher", "Grade"};
-            Object[][] data = new Object[filtered.size()][columns.length];
-            double totalGrades = 0;
-            int count = 0;
-
-            for (int i = 0; i < filtered.size(); i++) {
-                Enrollment enr = filtered.get(i);
-                data[i][0] = enr.getCourse().getName();
-                data[i][1] = enr.getTeacher().getName();
-                double grade = enr.getGrade();
-                data[i][2] = grade >= 0 ? String.format("%.2f", grade) : "N/A";
-
-                if (grade >= 0) {
-                    totalGrades += grade;
-                    count++;
+            // عند تطابق الاسم مع أكثر من طالب يضاف عمود الطالب ويعرض معدل كل منهم
+            boolean multipleStudents = results.size() > 1;
+            String[] columns = multipleStudents
+                    ? new String[]{"Student", "Course", "Teacher", "Credits", "Grade"}
+                    : new String[]{"Course", "Teacher", "Credits", "Grade"};
+            int rowCount = 0;
+            for (SemesterResult r : results) rowCount += r.getLines().size();
+
+            Object[][] data = new Object[rowCount][];
+            StringJoiner gpaLine = new StringJoiner("; ", "GPA: ", "");
+            int i = 0;
+            for (SemesterResult r : results) {
+                for (SemesterResult.Line line : r.getLines()) {
+                    Object[] row = new Object[columns.length];
+                    int c = 0;
+                    if (multipleStudents) row[c++] = r.getStudentName();
+                    row[c++] = line.getCourseName();
+                    row[c++] = line.getTeacherName() != null ? line.getTeacherName() : "";
+                    row[c++] = line.getCredits();
+                    row[c] = line.isGraded() ? String.format("%.2f", line.getGrade()) : "N/A";
+                    data[i++] = row;
                 }
+                gpaLine.add((multipleStudents ? r.getStudentName() + " " : "")
+                        + String.format("%.2f (%d credits)", r.getGpa(), r.getTotalCredits()));
             }
 
-            // حساب المعدل التراكمي GPA
-            double gpa = count > 0 ? totalGrades / count : 0.0;
-
             // إنشاء لوحة التقرير
             reportPanel = createReportPanel(
                     "Semester Results",
                     data, columns,
-                    "Student: " + studentName,
+                    "Student: " + (multipleStudents ? studentName : results.get(0).getStudentName()),
                     "Semester: " + semester.toString(),
-                    "GPA: " + String.format("%.2f", gpa)
+                    gpaLine.toString()
             );
 
         } catch (Exception ex) {
@@ -1,11 +1,10 @@
 package reports;
 
 import application.StudentService;
-import domain.Student;
-
+import presentation.ColumnarTableModel;
 import javax.swing.*;
+import javax.swing.table.TableModel;
 import java.awt.*;
-import java.util.List;
 
 /**
  * تقرير يعرض قائمة جميع الطلاب مع تفاصيلهم.
@@ -32,26 +31,32 @@ public class StudentReport implements Report {
     @Override
     public void show(Component parent) {
         try {
-            List<Student> students = studentService.getAll();
-            String[] columns = {"ID", "Name", "Email", "Gender", "Age", "Major", "GPA"};
-            Object[][] data = new Object[students.size()][columns.length];
+            ColumnarTableModel model = new ColumnarTableModel(
+                    ColumnarTableModel.intColumn("ID"),
+                    ColumnarTableModel.stringColumn("Name"),
+                    ColumnarTableModel.stringColumn("Email"),
+                    ColumnarTableModel.stringColumn("Gender"),
+                    ColumnarTableModel.intColumn("Age"),
+                    ColumnarTableModel.stringColumn("Major"),
+                    ColumnarTableModel.doubleColumn("GPA", "%.2f"));
 
-            for (int i = 0; i < students.size(); i++) {
-                Student s = students.get(i);
-                data[i][0] = s.getId();
-                data[i][1] = s.getName();
-                data[i][2] = s.getEmail();
-                data[i][3] = s.getGender();
-                data[i][4] = s.getAge();
-                data[i][5] = s.getMajor();
-                data[i][6] = String.format("%.2f", s.getGpa());
-            }
+            // المرور على الطلاب صفًا بصف وكتابة قيم كل طالب مباشرة في أعمدة الجدول،
+            // فلا تبقى كائنات الطلاب ولا صفوف وسيطة بعد قراءتها
+            ColumnarTableModel.Builder rows = model.newBuilder(0);
+            studentService.forEach(s -> rows.addRow()
+                    .set(0, s.getId())
+                    .set(1, s.getName())
+                    .set(2, s.getEmail())
+                    .set(3, s.getGender())
+                    .set(4, s.getAge())
+                    .set(5, s.getMajor())
+                    .set(6, s.getGpa()));
+            model.setData(rows.build());
 
             reportPanel = createReportPanel(
                     "Student Report",
-                    data,
-                    columns,
-                    "Total Students: " + students.size()
+                    model,
+                    "Total Students: " + model.getRowCount()
             );
 
         } catch (Exception ex) {
@@ -74,12 +79,11 @@ public class StudentReport implements Report {
      * ينشئ لوحة تقرير تحتوي جدول الطلاب مع عنوان ومعلومات موجزة.
      * 
      * @param title عنوان التقرير
-     * @param data بيانات الجدول (صفوف وأعمدة)
-     * @param columns أسماء الأعمدة
+     * @param model نموذج جدول الطلاب
      * @param summary نص ملخص يظهر فوق الجدول (مثل عدد الطلاب)
      * @return JPanel جاهزة للعرض
      */
-    private JPanel createReportPanel(String title, Object[][] data, String[] columns, String summary) {
+    private JPanel createReportPanel(String title, TableModel model, String summary) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
 
         // عنوان التقرير
@@ -94,7 +98,7 @@ public class StudentReport implements Report {
         panel.add(infoPanel, BorderLayout.BEFORE_FIRST_LINE);
 
         // جدول الطلاب مع تمرير شريط التمرير
-        JTable table = new JTable(data, columns);
+        JTable table = new JTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
         panel.add(scrollPane, BorderLayout.CENTER);
 